@@ -0,0 +1,33 @@
+package cdq.cdl.aiassistant.chat.domain.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DomainModelBenchmark
+{
+    private final String question = "  What is the temperature of the capital of Germany currently?  ";
+
+    private final CityInformation cityInformation = new CityInformation(
+            City.of("Berlin"), Country.of("Germany"), "Europe", 83_240_525, "EUR");
+
+    @Benchmark
+    public UserQuestion userQuestion()
+    {
+        return UserQuestion.of(question);
+    }
+
+    @Benchmark
+    public String toDescription()
+    {
+        return cityInformation.toDescription();
+    }
+}
@@ -0,0 +1,40 @@
+package cdq.cdl.aiassistant.chat.infrastructure.mcp;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// JSON-RPC encoding and decoding around a tools/call, the part of an MCP call that is our own code
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class McpJsonBenchmark
+{
+    private static final String RESPONSE = """
+            {"jsonrpc": "2.0", "id": "5f0c7a52-6f4e-4c38-9a57-0cbb1f7f3d11", "result": {"city": "Berlin", "temperature": 21.5, "unit": "celsius", "content": [{"type": "text", "text": "The current temperature in Berlin is 21.5°C"}]}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public String writeRequest() throws JsonProcessingException
+    {
+        return objectMapper.writeValueAsString(McpHttpClient.toolCallRequest("get_current_weather", Map.of("city", "Berlin", "units", "metric")));
+    }
+
+    @Benchmark
+    public JsonNode readResponse() throws JsonProcessingException
+    {
+        return McpHttpClient.resultOf(objectMapper.readTree(RESPONSE));
+    }
+}
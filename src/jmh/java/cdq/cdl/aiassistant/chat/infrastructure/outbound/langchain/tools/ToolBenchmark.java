@@ -0,0 +1,73 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.CityInformation;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import cdq.cdl.aiassistant.chat.domain.model.Temperature;
+import cdq.cdl.aiassistant.chat.domain.port.CountriesPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Tool overhead around instantly answering ports: value objects, logging guards and metrics
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ToolBenchmark
+{
+    private static final CityInformation BERLIN = new CityInformation(
+            City.of("Berlin"), Country.of("Germany"), "Europe", 83_240_525, "EUR");
+
+    private final ToolMetrics toolMetrics = new ToolMetrics(new SimpleMeterRegistry());
+
+    private final GeographyTool geographyTool = new GeographyTool(new CountriesPort()
+    {
+        @Override
+        public City getCapitalOf(Country country)
+        {
+            return BERLIN.city();
+        }
+
+        @Override
+        public CityInformation getCityInformation(City city)
+        {
+            return BERLIN;
+        }
+    }, toolMetrics);
+
+    private final WeatherTool weatherTool = new WeatherTool(city -> new Temperature(21.5), toolMetrics);
+
+    private final ProductKnowledgeTool productKnowledgeTool =
+            new ProductKnowledgeTool(query -> "CDQ Fraud Guard validates bank accounts in real time.", toolMetrics);
+
+    @Benchmark
+    public String getCapitalCity()
+    {
+        return geographyTool.getCapitalCity("Germany");
+    }
+
+    @Benchmark
+    public String getCityInformation()
+    {
+        return geographyTool.getCityInformation("Berlin");
+    }
+
+    @Benchmark
+    public double getCurrentTemperature()
+    {
+        return weatherTool.getCurrentTemperature("Berlin");
+    }
+
+    @Benchmark
+    public String searchProductKnowledge()
+    {
+        return productKnowledgeTool.searchProductKnowledge("What is CDQ Fraud Guard?");
+    }
+}
@@ -0,0 +1,91 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Content extraction on a recorded product page, without the network fetch
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IngestionExtractionBenchmark
+{
+    private final BoilerplateFilter filter = new BoilerplateFilter(
+            List.of("cookie", "accept all", "privacy policy", "terms of service", "© 20", "all rights reserved",
+                    "sign in", "log in", "login", "register", "subscribe", "newsletter", "contact us", "get in touch",
+                    "request demo", "follow us", "social media", "(opens in new window)", "(opens in new tab)"),
+            List.of("home", "about", "about us", "contact", "products", "services", "solutions", "careers", "blog",
+                    "company", "resources", "support", "platform", "news", "events", "industries"),
+            List.of());
+    private final TextChunker chunker = new TextChunker(200, 30);
+    private final NearDuplicateFilter nearDuplicates = new NearDuplicateFilter(10);
+
+    private String html;
+    private Document document;
+    private List<String> paragraphs;
+    private String paragraphText;
+    private List<String> extractedChunks;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        try (InputStream stream = getClass().getResourceAsStream("/cdq-fraud-guard.html"))
+        {
+            html = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        document = Jsoup.parse(html);
+        paragraphs = document.select("p, li, h2, h3").stream()
+                .map(Element::text)
+                .toList();
+        paragraphText = String.join("\n\n", paragraphs);
+        extractedChunks = CdqFraudGuardIngestionJob.extractChunks(document.clone(), filter);
+    }
+
+    @Benchmark
+    public Document parse()
+    {
+        return Jsoup.parse(html);
+    }
+
+    // extractChunks removes boilerplate from the document it gets, so every invocation works on a copy
+    @Benchmark
+    public List<String> extractChunks()
+    {
+        return CdqFraudGuardIngestionJob.extractChunks(document.clone(), filter);
+    }
+
+    @Benchmark
+    public void boilerplateFilter(Blackhole blackhole)
+    {
+        for (String paragraph : paragraphs)
+        {
+            blackhole.consume(filter.isRelevant(paragraph));
+        }
+    }
+
+    @Benchmark
+    public List<String> splitIntoChunks()
+    {
+        return chunker.split(paragraphText);
+    }
+
+    @Benchmark
+    public List<String> removeNearDuplicates()
+    {
+        return nearDuplicates.distinct(extractedChunks);
+    }
+}
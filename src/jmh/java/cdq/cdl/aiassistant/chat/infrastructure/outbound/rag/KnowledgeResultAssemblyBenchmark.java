@@ -0,0 +1,51 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// MMR re-ranking and token packing of a real-sized candidate list: 20 chunks of about 600 characters with 768-d embeddings
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KnowledgeResultAssemblyBenchmark
+{
+    private final ContextAssembler assembler = new ContextAssembler(20, 0.7, 600, new SimpleMeterRegistry());
+
+    private List<ContextAssembler.Candidate> candidates;
+
+    @Setup
+    public void setUp()
+    {
+        SplittableRandom random = new SplittableRandom(42);
+        String chunk = "CDQ Fraud Guard validates bank accounts of business partners in real time. ".repeat(8);
+        candidates = IntStream.range(0, assembler.candidates())
+                .mapToObj(i ->
+                {
+                    float[] vector = new float[768];
+                    for (int d = 0; d < vector.length; d++)
+                    {
+                        vector[d] = (float) random.nextGaussian();
+                    }
+                    return new ContextAssembler.Candidate(chunk + i, vector, 0.9 - i * 0.01);
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public String assemble()
+    {
+        return assembler.assemble(candidates);
+    }
+}
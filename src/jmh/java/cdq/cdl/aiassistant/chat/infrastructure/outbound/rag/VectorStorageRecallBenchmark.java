@@ -0,0 +1,166 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+// Latency and recall@10 of the VectorStorage modes against exact full-precision search, on the embeddings already
+// ingested into cdq_product_knowledge (needs the docker stack, or -Drecall.jdbc-url / -Drecall.user / -Drecall.password).
+// The vectors are copied into a scratch table with an HNSW index per mode, the first `queries` stored vectors serve as
+// queries. Recall is printed once per trial, the measured time is one indexed search including the rescoring.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VectorStorageRecallBenchmark
+{
+    private static final String TABLE = "vector_storage_recall_benchmark";
+    private static final int K = 10;
+
+    @Param({"full", "halfvec", "binary"})
+    public String mode;
+
+    @Param({"768", "256"})
+    public int dimensions;
+
+    @Param({"4"})
+    public int rescoreFactor;
+
+    @Param({"200"})
+    public int queries;
+
+    private Connection connection;
+    private PreparedStatement search;
+    private VectorStorage storage;
+    private List<String> queryVectors;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException
+    {
+        connection = DriverManager.getConnection(
+                System.getProperty("recall.jdbc-url", "jdbc:postgresql://localhost:5432/aiassistant"),
+                System.getProperty("recall.user", "postgres"),
+                System.getProperty("recall.password", "postgres"));
+        storage = new VectorStorage(mode, dimensions, rescoreFactor);
+
+        try (Statement statement = connection.createStatement())
+        {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " AS SELECT embedding_id, embedding FROM " + VectorStorage.TABLE);
+            statement.execute("CREATE INDEX ON " + TABLE + " USING hnsw (" + storage.indexColumn() + ")");
+            statement.execute("ANALYZE " + TABLE);
+            statement.execute("SET hnsw.ef_search = " + Math.max(40, storage.indexRows(K)));
+        }
+
+        queryVectors = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT embedding::text FROM " + TABLE + " ORDER BY embedding_id LIMIT " + queries))
+        {
+            while (rs.next())
+            {
+                queryVectors.add(rs.getString(1));
+            }
+        }
+        if (queryVectors.isEmpty())
+        {
+            throw new IllegalStateException(VectorStorage.TABLE + " is empty, run the ingestion first");
+        }
+
+        search = connection.prepareStatement(storage.nearestNeighboursSql(TABLE, "embedding_id, embedding"));
+        System.out.printf("%nrecall@%d of %s/%d (rescore x%d) over %d queries: %.4f%n",
+                K, mode, dimensions, rescoreFactor, queryVectors.size(), recall());
+    }
+
+    @Benchmark
+    public int search() throws SQLException
+    {
+        return topK(queryVectors.get(next++ % queryVectors.size())).size();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException
+    {
+        try (Statement statement = connection.createStatement())
+        {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+        connection.close();
+    }
+
+    private double recall() throws SQLException
+    {
+        int found = 0;
+        int expected = 0;
+        for (String query : queryVectors)
+        {
+            Set<String> exact = exactTopK(query);
+            Set<String> approximate = topK(query);
+            approximate.retainAll(exact);
+            found += approximate.size();
+            expected += exact.size();
+        }
+        return (double) found / expected;
+    }
+
+    private Set<String> topK(String query) throws SQLException
+    {
+        Object[] args = storage.nearestNeighboursArgs(query, K);
+        for (int i = 0; i < args.length; i++)
+        {
+            search.setObject(i + 1, args[i]);
+        }
+        return ids(search);
+    }
+
+    // Sequential scan over the full vectors: the ground truth
+    private Set<String> exactTopK(String query) throws SQLException
+    {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement();
+                PreparedStatement exact = connection.prepareStatement(
+                        "SELECT embedding_id FROM " + TABLE + " ORDER BY embedding <=> ?::vector LIMIT " + K))
+        {
+            statement.execute("SET LOCAL enable_indexscan = off");
+            exact.setString(1, query);
+            return ids(exact);
+        }
+        finally
+        {
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static Set<String> ids(PreparedStatement statement) throws SQLException
+    {
+        Set<String> ids = new HashSet<>();
+        try (ResultSet rs = statement.executeQuery())
+        {
+            while (rs.next())
+            {
+                ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+}
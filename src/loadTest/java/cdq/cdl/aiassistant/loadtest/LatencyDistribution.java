@@ -0,0 +1,91 @@
+package cdq.cdl.aiassistant.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.convert.DurationStyle;
+
+// Latency of a stubbed dependency, written as "fixed:50ms", "uniform:20ms..80ms" or "lognormal:median=400ms,p99=3s"
+sealed interface LatencyDistribution
+{
+    // z-score of the 99th percentile of a standard normal distribution
+    double Z_99 = 2.326;
+
+    long sampleMillis();
+
+    static LatencyDistribution parse(String spec)
+    {
+        String[] kindAndArguments = spec.split(":", 2);
+        if (kindAndArguments.length != 2)
+        {
+            throw new IllegalArgumentException("Expected <kind>:<arguments> but got: " + spec);
+        }
+
+        String arguments = kindAndArguments[1];
+        return switch (kindAndArguments[0])
+        {
+            case "fixed" -> new Fixed(duration(arguments));
+            case "uniform" ->
+            {
+                String[] bounds = arguments.split("\\.\\.");
+                yield new Uniform(duration(bounds[0]), duration(bounds[1]));
+            }
+            case "lognormal" ->
+            {
+                Duration median = null;
+                Duration p99 = null;
+                for (String argument : arguments.split(","))
+                {
+                    String[] keyAndValue = argument.split("=", 2);
+                    switch (keyAndValue[0].strip())
+                    {
+                        case "median" -> median = duration(keyAndValue[1]);
+                        case "p99" -> p99 = duration(keyAndValue[1]);
+                        default -> throw new IllegalArgumentException("Unknown lognormal argument: " + argument);
+                    }
+                }
+                if (median == null || p99 == null || p99.compareTo(median) < 0)
+                {
+                    throw new IllegalArgumentException("lognormal needs median and p99 >= median: " + spec);
+                }
+                yield new LogNormal(median, p99);
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        };
+    }
+
+    private static Duration duration(String value)
+    {
+        return DurationStyle.detectAndParse(value.strip());
+    }
+
+    record Fixed(Duration latency) implements LatencyDistribution
+    {
+        @Override
+        public long sampleMillis()
+        {
+            return latency.toMillis();
+        }
+    }
+
+    record Uniform(Duration min, Duration max) implements LatencyDistribution
+    {
+        @Override
+        public long sampleMillis()
+        {
+            return ThreadLocalRandom.current().nextLong(min.toMillis(), max.toMillis() + 1);
+        }
+    }
+
+    // Long-tailed like real model and network latencies: most calls near the median, a few far beyond it
+    record LogNormal(Duration median, Duration p99) implements LatencyDistribution
+    {
+        @Override
+        public long sampleMillis()
+        {
+            double mu = Math.log(median.toMillis());
+            double sigma = (Math.log(p99.toMillis()) - mu) / Z_99;
+            return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package cdq.cdl.aiassistant.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Open workload: requests are sent on a fixed schedule whether or not earlier ones finished, and latency is measured
+// from the scheduled send time, so a stalled server shows up as queueing delay instead of a lower request rate.
+class LoadGenerator
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final URI endpoint;
+    private final List<String> questions;
+    private final Duration requestTimeout;
+
+    LoadGenerator(URI endpoint, List<String> questions, Duration requestTimeout)
+    {
+        this.endpoint = endpoint;
+        this.questions = questions;
+        this.requestTimeout = requestTimeout;
+    }
+
+    List<Sample> run(double requestsPerSecond, Duration duration) throws InterruptedException
+    {
+        Queue<Sample> samples = new ConcurrentLinkedQueue<>();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long total = (long) (requestsPerSecond * duration.toNanos() / TimeUnit.SECONDS.toNanos(1));
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (long i = 0; i < total; i++)
+            {
+                long scheduledAt = start + i * intervalNanos;
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0)
+                {
+                    LockSupport.parkNanos(wait);
+                }
+
+                String question = questions.get(ThreadLocalRandom.current().nextInt(questions.size()));
+                executor.execute(() -> samples.add(send(question, scheduledAt)));
+            }
+            // Closing the executor waits for the requests still in flight
+        }
+        return List.copyOf(samples);
+    }
+
+    private Sample send(String question, long scheduledAt)
+    {
+        try
+        {
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(new Question(question))))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return new Sample(response.statusCode(), System.nanoTime() - scheduledAt);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return new Sample(Sample.FAILED, System.nanoTime() - scheduledAt);
+        }
+        catch (Exception e)
+        {
+            return new Sample(Sample.FAILED, System.nanoTime() - scheduledAt);
+        }
+    }
+
+    private record Question(String question)
+    {
+    }
+
+    // status is the HTTP status, or FAILED when no response arrived (timeout, connection refused)
+    record Sample(int status, long latencyNanos)
+    {
+        static final int FAILED = -1;
+
+        boolean isSuccess()
+        {
+            return status >= 200 && status < 300;
+        }
+    }
+}
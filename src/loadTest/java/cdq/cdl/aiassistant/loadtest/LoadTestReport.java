@@ -0,0 +1,90 @@
+package cdq.cdl.aiassistant.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+record LoadTestReport(double targetRate,
+                      long requests,
+                      long succeeded,
+                      double throughput,
+                      double p50Millis,
+                      double p95Millis,
+                      double p99Millis,
+                      double maxMillis,
+                      Map<String, Long> statuses)
+{
+    // elapsed is the wall-clock time until the last response arrived, not just the scheduling window
+    static LoadTestReport of(double targetRate, Duration elapsed, List<LoadGenerator.Sample> samples)
+    {
+        long[] latencies = samples.stream()
+                .filter(LoadGenerator.Sample::isSuccess)
+                .mapToLong(LoadGenerator.Sample::latencyNanos)
+                .sorted()
+                .toArray();
+
+        Map<String, Long> statuses = samples.stream()
+                .collect(Collectors.groupingBy(
+                        sample -> sample.status() == LoadGenerator.Sample.FAILED ? "failed" : String.valueOf(sample.status()),
+                        TreeMap::new,
+                        Collectors.counting()));
+
+        return new LoadTestReport(
+                targetRate,
+                samples.size(),
+                latencies.length,
+                latencies.length / (double) elapsed.toMillis() * 1000,
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.95),
+                percentile(latencies, 0.99),
+                latencies.length == 0 ? 0 : toMillis(latencies[latencies.length - 1]),
+                statuses);
+    }
+
+    // Nearest-rank percentile over successful requests
+    private static double percentile(long[] sorted, double quantile)
+    {
+        if (sorted.length == 0)
+        {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return toMillis(sorted[Math.max(0, rank - 1)]);
+    }
+
+    private static double toMillis(long nanos)
+    {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    String toTable()
+    {
+        return String.join("\n",
+                "target rate      %10.1f req/s".formatted(targetRate),
+                "requests         %10d".formatted(requests),
+                "succeeded        %10d".formatted(succeeded),
+                "throughput       %10.1f req/s".formatted(throughput),
+                "latency p50      %10.1f ms".formatted(p50Millis),
+                "latency p95      %10.1f ms".formatted(p95Millis),
+                "latency p99      %10.1f ms".formatted(p99Millis),
+                "latency max      %10.1f ms".formatted(maxMillis),
+                "statuses         %s".formatted(statuses));
+    }
+
+    void writeTo(Path file) throws IOException
+    {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), this);
+    }
+}
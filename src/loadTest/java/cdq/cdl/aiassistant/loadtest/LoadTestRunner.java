@@ -0,0 +1,231 @@
+package cdq.cdl.aiassistant.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import cdq.cdl.aiassistant.Application;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.MockWebServer;
+
+// Starts stand-ins for Ollama, the MCP weather server and REST Countries, then replays a question mix at a fixed rate.
+// Without --target the application is started in-process against the stubs (PostgreSQL from docker/stack.yml is
+// still required); with --target the stubs listen on --stub-base-port and the printed properties point an
+// externally started instance at them.
+//
+// Options (--key=value): rate, duration, warmup, endpoint, questions, caches, target, stub-base-port, report,
+// request-timeout, ollama-chat-latency, ollama-embed-latency, mcp-latency, countries-latency. Every other --key=value is
+// passed to the app. --questions=generated uses QuestionMix, --caches=off disables the fast path and every cache in
+// front of the model and the tools, so the percentiles measure the full path instead of cache hits.
+public class LoadTestRunner
+{
+    private static final Map<String, String> CACHES_OFF = Map.of(
+            "chat.fast-path.enabled", "false",
+            "chat.answer-cache.enabled", "false",
+            "rag.embedding-cache.max-entries", "0",
+            "external-api.weather.cache.freshness", "0s");
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("rate", "10"),
+            Map.entry("duration", "60s"),
+            Map.entry("warmup", "10s"),
+            Map.entry("endpoint", "/api/chats"),
+            Map.entry("questions", "classpath:loadtest/questions.jsonl"),
+            Map.entry("caches", "on"),
+            Map.entry("stub-base-port", "0"),
+            Map.entry("report", "build/reports/loadtest/results.json"),
+            Map.entry("request-timeout", "60s"),
+            Map.entry("ollama-chat-latency", "lognormal:median=800ms,p99=4s"),
+            Map.entry("ollama-embed-latency", "lognormal:median=20ms,p99=150ms"),
+            Map.entry("mcp-latency", "lognormal:median=80ms,p99=500ms"),
+            Map.entry("countries-latency", "lognormal:median=60ms,p99=400ms"));
+
+    public static void main(String[] args) throws Exception
+    {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        Map<String, Object> appProperties = new LinkedHashMap<>();
+        for (String arg : args)
+        {
+            if (!arg.startsWith("--") || !arg.contains("="))
+            {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (DEFAULTS.containsKey(key) || key.equals("target"))
+            {
+                options.put(key, value);
+            }
+            else
+            {
+                appProperties.put(key, value);
+            }
+        }
+
+        Map<String, Object> cacheProperties = cacheProperties(options.get("caches"));
+
+        int basePort = Integer.parseInt(options.get("stub-base-port"));
+        try (MockWebServer ollama = new MockWebServer();
+             MockWebServer mcp = new MockWebServer();
+             MockWebServer countries = new MockWebServer())
+        {
+            ollama.setDispatcher(new OllamaStub(
+                    LatencyDistribution.parse(options.get("ollama-chat-latency")),
+                    LatencyDistribution.parse(options.get("ollama-embed-latency"))));
+            mcp.setDispatcher(new McpWeatherStub(LatencyDistribution.parse(options.get("mcp-latency"))));
+            countries.setDispatcher(new RestCountriesStub(LatencyDistribution.parse(options.get("countries-latency"))));
+
+            ollama.start(basePort == 0 ? 0 : basePort);
+            mcp.start(basePort == 0 ? 0 : basePort + 1);
+            countries.start(basePort == 0 ? 0 : basePort + 2);
+
+            Map<String, Object> stubProperties = new LinkedHashMap<>();
+            stubProperties.put("langchain4j.ollama.chat-model.base-url", withoutTrailingSlash(ollama.url("/").toString()));
+            stubProperties.put("langchain4j.ollama.embedding-model.base-url", withoutTrailingSlash(ollama.url("/").toString()));
+            stubProperties.put("external-api.weather.mcp.base-url", mcp.url("/mcp").toString());
+            stubProperties.put("external-api.rest-countries.base-url", withoutTrailingSlash(countries.url("/").toString()));
+            // The stubs cannot serve the scraped product page
+            stubProperties.put("rag.ingestion.enabled", "false");
+
+            String target = options.get("target");
+            ConfigurableApplicationContext app = null;
+            if (target == null)
+            {
+                Map<String, Object> properties = new LinkedHashMap<>(stubProperties);
+                properties.put("server.port", "0");
+                properties.putAll(cacheProperties);
+                properties.putAll(appProperties);
+                app = new SpringApplicationBuilder(Application.class)
+                        .properties(properties)
+                        .run();
+                target = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            }
+            else
+            {
+                System.out.println("Start the application with:");
+                stubProperties.forEach((key, value) -> System.out.println("  --" + key + "=" + value));
+                cacheProperties.forEach((key, value) -> System.out.println("  --" + key + "=" + value));
+            }
+
+            try
+            {
+                run(URI.create(target + options.get("endpoint")), options);
+            }
+            finally
+            {
+                if (app != null)
+                {
+                    app.close();
+                }
+            }
+        }
+    }
+
+    private static void run(URI endpoint, Map<String, String> options) throws Exception
+    {
+        double rate = Double.parseDouble(options.get("rate"));
+        Duration warmup = DurationStyle.detectAndParse(options.get("warmup"));
+        Duration duration = DurationStyle.detectAndParse(options.get("duration"));
+
+        List<String> questions = loadQuestions(options.get("questions"));
+        LoadGenerator generator = new LoadGenerator(
+                endpoint,
+                questions,
+                DurationStyle.detectAndParse(options.get("request-timeout")));
+        System.out.printf("Replaying %d distinct questions, caches %s%n", questions.size(), options.get("caches"));
+
+        if (!warmup.isZero())
+        {
+            System.out.printf("Warming up %s at %.1f req/s against %s%n", warmup, rate, endpoint);
+            generator.run(rate, warmup);
+        }
+
+        System.out.printf("Measuring %s at %.1f req/s against %s%n", duration, rate, endpoint);
+        long start = System.nanoTime();
+        List<LoadGenerator.Sample> samples = generator.run(rate, duration);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        LoadTestReport report = LoadTestReport.of(rate, elapsed, samples);
+        System.out.println(report.toTable());
+
+        Path reportFile = Path.of(options.get("report"));
+        report.writeTo(reportFile);
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    private static Map<String, Object> cacheProperties(String caches)
+    {
+        return switch (caches)
+        {
+            case "on" -> Map.of();
+            case "off" -> new LinkedHashMap<>(CACHES_OFF);
+            default -> throw new IllegalArgumentException("Expected --caches=on or --caches=off but got: " + caches);
+        };
+    }
+
+    // JSON lines with a "question" field; blank lines and lines without one are skipped
+    static List<String> loadQuestions(String location) throws IOException
+    {
+        if (location.equals("generated"))
+        {
+            return QuestionMix.generate();
+        }
+
+        String content;
+        if (location.startsWith("classpath:"))
+        {
+            try (InputStream stream = LoadTestRunner.class.getResourceAsStream("/" + location.substring("classpath:".length())))
+            {
+                if (stream == null)
+                {
+                    throw new IllegalArgumentException("Question mix not found: " + location);
+                }
+                content = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        else
+        {
+            content = Files.readString(Path.of(location));
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> questions = new ArrayList<>();
+        for (String line : content.split("\n"))
+        {
+            if (line.isBlank())
+            {
+                continue;
+            }
+            JsonNode question = objectMapper.readTree(line).path("question");
+            if (question.isTextual() && !question.asText().isBlank())
+            {
+                questions.add(question.asText());
+            }
+        }
+
+        if (questions.isEmpty())
+        {
+            throw new IllegalArgumentException("No questions found in " + location);
+        }
+        return questions;
+    }
+
+    private static String withoutTrailingSlash(String url)
+    {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,58 @@
+package cdq.cdl.aiassistant.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+// JSON-RPC tools/call endpoint of the MCP weather server, answering get_current_weather with a random temperature
+class McpWeatherStub extends Dispatcher
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final LatencyDistribution latency;
+
+    McpWeatherStub(LatencyDistribution latency)
+    {
+        this.latency = latency;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) throws InterruptedException
+    {
+        ObjectNode response = OBJECT_MAPPER.createObjectNode().put("jsonrpc", "2.0");
+        try
+        {
+            JsonNode rpc = OBJECT_MAPPER.readTree(request.getBody().readUtf8());
+            response.set("id", rpc.path("id"));
+
+            String tool = rpc.path("params").path("name").asText();
+            if (!"tools/call".equals(rpc.path("method").asText()) || !"get_current_weather".equals(tool))
+            {
+                response.putObject("error").put("code", -32601).put("message", "Unknown tool: " + tool);
+            }
+            else
+            {
+                double temperature = Math.round(ThreadLocalRandom.current().nextDouble(-5, 30) * 10) / 10.0;
+                response.putObject("result")
+                        .put("city", rpc.path("params").path("arguments").path("city").asText())
+                        .put("temperature", temperature)
+                        .put("units", "metric");
+            }
+        }
+        catch (Exception e)
+        {
+            response.putObject("error").put("code", -32700).put("message", e.getMessage());
+        }
+
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(response.toString())
+                .setHeadersDelay(latency.sampleMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,213 @@
+package cdq.cdl.aiassistant.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+// Stands in for /api/chat (blocking and NDJSON streaming) and /api/embed.
+// Chat answers follow a fixed tool plan per kind of question, so the app runs its real tool loop against the other stubs.
+class OllamaStub extends Dispatcher
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Pattern ENTITY = Pattern.compile("(?:of|in|about)\\s+(\\p{Lu}[\\p{L}-]+(?:\\s\\p{Lu}[\\p{L}-]+)*)");
+    private static final int EMBEDDING_DIMENSION = 768;
+
+    private final LatencyDistribution chatLatency;
+    private final LatencyDistribution embeddingLatency;
+
+    OllamaStub(LatencyDistribution chatLatency, LatencyDistribution embeddingLatency)
+    {
+        this.chatLatency = chatLatency;
+        this.embeddingLatency = embeddingLatency;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) throws InterruptedException
+    {
+        try
+        {
+            JsonNode body = OBJECT_MAPPER.readTree(request.getBody().readUtf8());
+            return switch (request.getRequestUrl().encodedPath())
+            {
+                case "/api/chat" -> chat(body);
+                case "/api/embed" -> embed(body);
+                default -> new MockResponse().setResponseCode(404);
+            };
+        }
+        catch (Exception e)
+        {
+            return new MockResponse().setResponseCode(500).setBody("{\"error\":\"" + e.getMessage() + "\"}");
+        }
+    }
+
+    private MockResponse chat(JsonNode request)
+    {
+        String question = "";
+        List<String> toolResults = new ArrayList<>();
+        int promptChars = 0;
+        for (JsonNode message : request.path("messages"))
+        {
+            String content = message.path("content").asText("");
+            promptChars += content.length();
+            switch (message.path("role").asText())
+            {
+                case "user" -> question = content;
+                case "tool" -> toolResults.add(content);
+                default ->
+                {
+                }
+            }
+        }
+
+        List<ToolCall> plan = planFor(question);
+        ObjectNode message = OBJECT_MAPPER.createObjectNode().put("role", "assistant");
+        if (toolResults.size() < plan.size())
+        {
+            ToolCall next = plan.get(toolResults.size());
+            String argument = next.argumentFromPreviousResult() && !toolResults.isEmpty()
+                    ? toolResults.getLast()
+                    : next.argument();
+            message.put("content", "");
+            message.putArray("tool_calls").addObject().putObject("function")
+                    .put("name", next.tool())
+                    .putObject("arguments").put(next.argumentName(), argument);
+        }
+        else
+        {
+            message.put("content", toolResults.isEmpty()
+                    ? "I can help with geography, weather and CDQ product questions."
+                    : "Based on the available information: " + String.join(" ", toolResults));
+        }
+
+        int evalCount = Math.max(1, message.path("content").asText().length() / 4);
+        MockResponse response = request.path("stream").asBoolean(false)
+                ? streamed(message, promptChars / 4, evalCount)
+                : blocking(message, promptChars / 4, evalCount);
+        return response.setHeadersDelay(chatLatency.sampleMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static MockResponse blocking(ObjectNode message, int promptEvalCount, int evalCount)
+    {
+        ObjectNode body = OBJECT_MAPPER.createObjectNode()
+                .put("model", "stub")
+                .put("done", true)
+                .put("done_reason", "stop")
+                .put("prompt_eval_count", promptEvalCount)
+                .put("eval_count", evalCount);
+        body.set("message", message);
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(body.toString());
+    }
+
+    // One chunk per word like a real stream, then the final chunk with token counts
+    private static MockResponse streamed(ObjectNode message, int promptEvalCount, int evalCount)
+    {
+        StringBuilder body = new StringBuilder();
+        if (message.has("tool_calls"))
+        {
+            body.append(OBJECT_MAPPER.createObjectNode().put("model", "stub").put("done", false).set("message", message)).append('\n');
+        }
+        else
+        {
+            for (String word : message.path("content").asText().split("(?<= )"))
+            {
+                ObjectNode chunk = OBJECT_MAPPER.createObjectNode().put("model", "stub").put("done", false);
+                chunk.putObject("message").put("role", "assistant").put("content", word);
+                body.append(chunk).append('\n');
+            }
+        }
+        ObjectNode done = OBJECT_MAPPER.createObjectNode()
+                .put("model", "stub")
+                .put("done", true)
+                .put("done_reason", "stop")
+                .put("prompt_eval_count", promptEvalCount)
+                .put("eval_count", evalCount);
+        done.putObject("message").put("role", "assistant").put("content", "");
+        body.append(done).append('\n');
+
+        return new MockResponse()
+                .setHeader("Content-Type", "application/x-ndjson")
+                .setBody(body.toString());
+    }
+
+    // Same text, same vector: keeps the semantic and embedding caches behaving as they would with a real model
+    private MockResponse embed(JsonNode request)
+    {
+        ArrayNode embeddings = OBJECT_MAPPER.createArrayNode();
+        for (JsonNode input : request.path("input"))
+        {
+            SplittableRandom random = new SplittableRandom(input.asText().hashCode());
+            ArrayNode vector = embeddings.addArray();
+            for (int i = 0; i < EMBEDDING_DIMENSION; i++)
+            {
+                vector.add((float) (random.nextDouble() * 2 - 1));
+            }
+        }
+
+        ObjectNode body = OBJECT_MAPPER.createObjectNode().put("model", "stub");
+        body.set("embeddings", embeddings);
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(body.toString())
+                .setHeadersDelay(embeddingLatency.sampleMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    static List<ToolCall> planFor(String question)
+    {
+        String lower = question.toLowerCase(Locale.ROOT);
+        String entity = entityOf(question);
+
+        boolean weather = lower.contains("temperature") || lower.contains("weather") || lower.contains("warm");
+        if (lower.contains("capital") && weather)
+        {
+            return List.of(
+                    new ToolCall("getCapitalCity", "countryName", entity, false),
+                    new ToolCall("getCurrentTemperature", "cityName", null, true));
+        }
+        if (lower.contains("capital"))
+        {
+            return List.of(new ToolCall("getCapitalCity", "countryName", entity, false));
+        }
+        if (weather)
+        {
+            return List.of(new ToolCall("getCurrentTemperature", "cityName", entity, false));
+        }
+        if (lower.contains("cdq") || lower.contains("aml") || lower.contains("fraud") || lower.contains("compliance"))
+        {
+            return List.of(new ToolCall("searchCDQProductKnowledge", "query", question, false));
+        }
+        if (lower.contains("about"))
+        {
+            return List.of(new ToolCall("getCityInformation", "cityName", entity, false));
+        }
+        return List.of();
+    }
+
+    private static String entityOf(String question)
+    {
+        Matcher matcher = ENTITY.matcher(question);
+        String entity = "Germany";
+        while (matcher.find())
+        {
+            entity = matcher.group(1);
+        }
+        return entity;
+    }
+
+    record ToolCall(String tool, String argumentName, String argument, boolean argumentFromPreviousResult)
+    {
+    }
+}
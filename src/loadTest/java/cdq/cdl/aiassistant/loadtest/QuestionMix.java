@@ -0,0 +1,94 @@
+package cdq.cdl.aiassistant.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Generated question mix for --questions=generated: every phrasing crossed with every country, city and product topic,
+// several hundred distinct questions, so a run of a few minutes mostly measures misses of the semantic and embedding
+// caches instead of replaying a dozen cached answers. Entities follow "of", "in" or "about" so OllamaStub finds them.
+final class QuestionMix
+{
+    private static final List<String> CAPITAL = List.of(
+            "What is the capital of %s?",
+            "Which city is the capital of %s?",
+            "Can you tell me the capital city of %s?",
+            "I need the name of the capital of %s");
+
+    private static final List<String> CAPITAL_WEATHER = List.of(
+            "What is the temperature of the capital of %s currently?",
+            "How warm is it right now in the capital of %s?",
+            "Is the weather nice in the capital of %s today?");
+
+    private static final List<String> CITY_WEATHER = List.of(
+            "What is the temperature in %s?",
+            "How warm is it in %s right now?",
+            "Tell me the current weather in %s",
+            "Do I need a jacket in %s today, what is the temperature?");
+
+    private static final List<String> CITY_INFORMATION = List.of(
+            "Tell me about %s",
+            "What do you know about %s?",
+            "Give me some facts about %s");
+
+    // Cities beyond the capitals only reach the weather stub, which answers for any name
+    private static final List<String> CITIES = List.of(
+            "Hamburg", "Munich", "Cologne", "Frankfurt", "Lyon", "Marseille", "Barcelona", "Valencia", "Milan",
+            "Naples", "Krakow", "Gdansk", "Zurich", "Geneva", "Salzburg", "Graz", "Rotterdam", "Utrecht", "Osaka",
+            "Kyoto", "Toronto", "Montreal", "Vancouver");
+
+    private static final List<String> PRODUCT = List.of(
+            "What is CDQ %s?",
+            "How does CDQ %s work?",
+            "Which problems does CDQ %s solve for compliance teams?",
+            "What are the main features of CDQ %s?",
+            "How is CDQ %s priced and licensed?");
+
+    private static final List<String> PRODUCT_TOPICS = List.of(
+            "Fraud Guard", "bank account validation", "trust scores", "AML screening", "sanctions list screening",
+            "data sharing", "business partner data quality");
+
+    private static final List<String> GENERAL = List.of(
+            "What can you help me with?",
+            "Which kinds of questions can you answer?",
+            "Hello, who are you?");
+
+    private QuestionMix()
+    {
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<String> generate()
+    {
+        List<String> countries = new ArrayList<>();
+        List<String> capitals = new ArrayList<>();
+        for (Map<String, Object> country : RestCountriesStub.COUNTRIES)
+        {
+            countries.add(((Map<String, Object>) country.get("name")).get("common").toString());
+            capitals.add(((List<String>) country.get("capital")).getFirst());
+        }
+
+        List<String> cities = new ArrayList<>(capitals);
+        cities.addAll(CITIES);
+
+        List<String> questions = new ArrayList<>();
+        addAll(questions, CAPITAL, countries);
+        addAll(questions, CAPITAL_WEATHER, countries);
+        addAll(questions, CITY_WEATHER, cities);
+        addAll(questions, CITY_INFORMATION, capitals);
+        addAll(questions, PRODUCT, PRODUCT_TOPICS);
+        questions.addAll(GENERAL);
+        return questions;
+    }
+
+    private static void addAll(List<String> questions, List<String> templates, List<String> values)
+    {
+        for (String template : templates)
+        {
+            for (String value : values)
+            {
+                questions.add(template.formatted(value));
+            }
+        }
+    }
+}
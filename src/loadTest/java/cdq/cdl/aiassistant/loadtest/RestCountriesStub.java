@@ -0,0 +1,108 @@
+package cdq.cdl.aiassistant.loadtest;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+// Answers /name/{country}, /capital/{city} and /all from a small fixed dataset
+class RestCountriesStub extends Dispatcher
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static final List<Map<String, Object>> COUNTRIES = List.of(
+            country("Germany", "Federal Republic of Germany", "DE", "Berlin", "Europe", 83_240_525, "EUR"),
+            country("France", "French Republic", "FR", "Paris", "Europe", 67_391_582, "EUR"),
+            country("Spain", "Kingdom of Spain", "ES", "Madrid", "Europe", 47_351_567, "EUR"),
+            country("Italy", "Italian Republic", "IT", "Rome", "Europe", 59_554_023, "EUR"),
+            country("Poland", "Republic of Poland", "PL", "Warsaw", "Europe", 37_950_802, "PLN"),
+            country("Switzerland", "Swiss Confederation", "CH", "Bern", "Europe", 8_654_622, "CHF"),
+            country("Austria", "Republic of Austria", "AT", "Vienna", "Europe", 8_917_205, "EUR"),
+            country("Netherlands", "Kingdom of the Netherlands", "NL", "Amsterdam", "Europe", 16_655_799, "EUR"),
+            country("Japan", "Japan", "JP", "Tokyo", "Asia", 125_836_021, "JPY"),
+            country("Canada", "Canada", "CA", "Ottawa", "Americas", 38_005_238, "CAD"));
+
+    private final LatencyDistribution latency;
+
+    RestCountriesStub(LatencyDistribution latency)
+    {
+        this.latency = latency;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) throws InterruptedException
+    {
+        String path = request.getRequestUrl().encodedPath();
+        String value = URLDecoder.decode(path.substring(path.lastIndexOf('/') + 1), StandardCharsets.UTF_8);
+
+        Optional<Object> body;
+        if (path.endsWith("/all"))
+        {
+            body = Optional.of(COUNTRIES);
+        }
+        else if (path.contains("/name/"))
+        {
+            body = find("name", value);
+        }
+        else if (path.contains("/capital/"))
+        {
+            body = find("capital", value);
+        }
+        else
+        {
+            body = Optional.empty();
+        }
+
+        MockResponse response = body
+                .map(RestCountriesStub::json)
+                .orElseGet(() -> new MockResponse().setResponseCode(404).setBody("{\"status\":404,\"message\":\"Not Found\"}"));
+        return response
+                .setHeader("Content-Type", "application/json")
+                .setHeadersDelay(latency.sampleMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<Object> find(String field, String value)
+    {
+        return COUNTRIES.stream()
+                .filter(country -> field.equals("name")
+                        ? ((Map<String, Object>) country.get("name")).get("common").toString().equalsIgnoreCase(value)
+                        : ((List<String>) country.get("capital")).stream().anyMatch(value::equalsIgnoreCase))
+                .findFirst()
+                .map(List::of);
+    }
+
+    private static MockResponse json(Object body)
+    {
+        try
+        {
+            return new MockResponse().setBody(OBJECT_MAPPER.writeValueAsString(body));
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Object> country(String common, String official, String code, String capital,
+                                               String region, long population, String currency)
+    {
+        Map<String, Object> country = new LinkedHashMap<>();
+        country.put("name", Map.of("common", common, "official", official));
+        country.put("altSpellings", List.of(code, official));
+        country.put("capital", List.of(capital));
+        country.put("region", region);
+        country.put("population", population);
+        country.put("currencies", Map.of(currency, Map.of("name", currency)));
+        return country;
+    }
+}
@@ -0,0 +1,86 @@
+package cdq.cdl.aiassistant.chat.application;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.BatchAnswerHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Answers a batch of questions with bounded parallelism, reporting each answer as soon as it completes
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchQuestionAnsweringService
+{
+    private final QuestionAnsweringService questionAnsweringService;
+
+    @Value("${chat.batch.parallelism:4}")
+    private int parallelism;
+
+    @Value("${chat.batch.max-questions:1000}")
+    private int maxQuestions;
+
+    public void handleAll(List<UserQuestion> questions, BatchAnswerHandler handler)
+    {
+        if (questions.isEmpty())
+        {
+            throw new IllegalArgumentException("Batch must contain at least one question");
+        }
+        if (questions.size() > maxQuestions)
+        {
+            throw new IllegalArgumentException("Batch must not contain more than " + maxQuestions + " questions");
+        }
+
+        log.info("Answering batch of {} questions with parallelism {}", questions.size(), parallelism);
+        Thread.ofVirtual().name("chat-batch").start(() -> answerAll(questions, handler));
+    }
+
+    private void answerAll(List<UserQuestion> questions, BatchAnswerHandler handler)
+    {
+        Semaphore slots = new Semaphore(parallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (int i = 0; i < questions.size(); i++)
+            {
+                // Dispatching waits for a free slot, so at most `parallelism` questions are in flight
+                slots.acquire();
+                if (handler.isCancelled())
+                {
+                    log.info("Batch cancelled by the client, skipping {} remaining questions", questions.size() - i);
+                    executor.shutdownNow();
+                    break;
+                }
+                int index = i;
+                executor.execute(() ->
+                {
+                    try
+                    {
+                        handler.onAnswer(index, questionAnsweringService.handle(questions.get(index)));
+                    }
+                    catch (Exception e)
+                    {
+                        log.warn("Batch question {} failed: [{}]", index, e.getMessage());
+                        handler.onFailure(index, e);
+                    }
+                    finally
+                    {
+                        slots.release();
+                    }
+                });
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            log.warn("Batch processing interrupted");
+        }
+        handler.onComplete();
+    }
+}
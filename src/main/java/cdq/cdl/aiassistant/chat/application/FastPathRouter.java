@@ -0,0 +1,161 @@
+package cdq.cdl.aiassistant.chat.application;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import cdq.cdl.aiassistant.chat.domain.model.Temperature;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.CountriesPort;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveCountriesPort;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveWeatherPort;
+import cdq.cdl.aiassistant.chat.domain.port.WeatherPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+// Answers questions that match a single, unambiguous intent straight from the ports, without an LLM round trip.
+// Anything else, including compound questions and failed lookups, falls through to the model.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class FastPathRouter
+{
+    private static final String PLACE = "([\\p{L}][\\p{L} .'-]{0,60}?)";
+
+    private static final Pattern CAPITAL = Pattern.compile(
+            "^(?:what(?:'s| is) )?(?:the )?capital(?: city)? of " + PLACE + "\\s*\\??$",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    private static final Pattern TEMPERATURE = Pattern.compile(
+            "^(?:what(?:'s| is) )?(?:the )?(?:current )?(?:temperature|weather) in " + PLACE
+                    + "(?: right now| now| today)?\\s*\\??$",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    // Words that mean the place is itself a question for another tool, e.g. "temperature in the capital of Spain"
+    private static final Pattern COMPOUND = Pattern.compile(
+            "\\b(?:of|and|or|capital|vs|versus)\\b|,",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    private final CountriesPort countriesPort;
+    private final WeatherPort weatherPort;
+    private final ReactiveCountriesPort reactiveCountriesPort;
+    private final ReactiveWeatherPort reactiveWeatherPort;
+
+    @Value("${chat.fast-path.enabled:true}")
+    private boolean enabled;
+
+    Optional<AssistantAnswer> tryAnswer(UserQuestion question)
+    {
+        try
+        {
+            return intentOf(question).map(intent -> switch (intent)
+            {
+                case CapitalIntent capital -> capitalAnswer(capital.country(), countriesPort.getCapitalOf(capital.country()));
+                case TemperatureIntent weather ->
+                        temperatureAnswer(weather.city(), weatherPort.getCurrentTemperature(weather.city()));
+            });
+        }
+        catch (Exception e)
+        {
+            log.debug("Fast path lookup failed, falling back to the model: [{}]", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    // Same routing on the reactive ports, so the reactive pipeline never blocks on a lookup
+    Mono<AssistantAnswer> tryAnswerReactive(UserQuestion question)
+    {
+        return Mono.defer(() -> Mono.justOrEmpty(intentOf(question)))
+                .flatMap(intent -> switch (intent)
+                {
+                    case CapitalIntent capital -> reactiveCountriesPort.getCapitalOf(capital.country())
+                            .map(city -> capitalAnswer(capital.country(), city));
+                    case TemperatureIntent weather -> reactiveWeatherPort.getCurrentTemperature(weather.city())
+                            .map(temperature -> temperatureAnswer(weather.city(), temperature));
+                })
+                .onErrorResume(e ->
+                {
+                    log.debug("Fast path lookup failed, falling back to the model: [{}]", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Optional<Intent> intentOf(UserQuestion question)
+    {
+        if (!enabled)
+        {
+            return Optional.empty();
+        }
+
+        String text = question.value().trim().replaceAll("\\s+", " ");
+        Optional<String> place = placeOf(CAPITAL, text);
+        if (place.isPresent())
+        {
+            return Optional.of(new CapitalIntent(Country.of(place.get())));
+        }
+        return placeOf(TEMPERATURE, text).map(city -> new TemperatureIntent(City.of(city)));
+    }
+
+    private AssistantAnswer capitalAnswer(Country country, City capital)
+    {
+        return answer("The capital of %s is %s.".formatted(capitalizeWords(country.name()), capital.name()));
+    }
+
+    private AssistantAnswer temperatureAnswer(City city, Temperature temperature)
+    {
+        return answer(String.format(Locale.ROOT, "The current temperature in %s is %.1f°C.",
+                capitalizeWords(city.name()), temperature.celsius()));
+    }
+
+    private static Optional<String> placeOf(Pattern pattern, String text)
+    {
+        Matcher matcher = pattern.matcher(text);
+        if (!matcher.matches())
+        {
+            return Optional.empty();
+        }
+
+        String place = matcher.group(1).trim();
+        if (place.toLowerCase(Locale.ROOT).startsWith("the "))
+        {
+            place = place.substring(4);
+        }
+        return COMPOUND.matcher(place).find() || place.isBlank() ? Optional.empty() : Optional.of(place);
+    }
+
+    private AssistantAnswer answer(String text)
+    {
+        log.info("Answered on the fast path: [{}]", text);
+        return AssistantAnswer.fromFastPath(text);
+    }
+
+    private static String capitalizeWords(String value)
+    {
+        return Arrays.stream(value.split(" "))
+                .map(StringUtils::capitalize)
+                .collect(Collectors.joining(" "));
+    }
+
+    private sealed interface Intent permits CapitalIntent, TemperatureIntent
+    {
+    }
+
+    private record CapitalIntent(Country country) implements Intent
+    {
+    }
+
+    private record TemperatureIntent(City city) implements Intent
+    {
+    }
+}
@@ -1,10 +1,17 @@
 package cdq.cdl.aiassistant.chat.application;
 
+import java.util.Optional;
+
 import org.springframework.stereotype.Service;
 
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
 import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.ConversationTurn;
 import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
 import cdq.cdl.aiassistant.chat.domain.port.AiReasoningPort;
+import cdq.cdl.aiassistant.chat.domain.port.AnswerStreamHandler;
+import cdq.cdl.aiassistant.chat.domain.port.ConversationPort;
+import cdq.cdl.aiassistant.chat.domain.port.StreamingAiReasoningPort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -14,18 +21,76 @@ import lombok.extern.slf4j.Slf4j;
 public class QuestionAnsweringService
 {
     private final AiReasoningPort aiAgent;
+    private final StreamingAiReasoningPort streamingAiAgent;
+    private final FastPathRouter fastPathRouter;
+    private final ConversationPort conversations;
+
+    // Follow-ups continue a conversation the server issued, any other question starts one with itself as first turn
+    public ConversationTurn converse(UserQuestion question)
+    {
+        if (!question.isPartOfConversation())
+        {
+            AssistantAnswer answer = handle(question);
+            return new ConversationTurn(conversations.start(question, answer), answer);
+        }
+
+        if (!conversations.exists(question.conversationId()))
+        {
+            throw new IllegalArgumentException("Unknown conversation, ask without a conversation id to start a new one");
+        }
+        return new ConversationTurn(question.conversationId(), handle(question));
+    }
 
     public AssistantAnswer handle(UserQuestion question)
     {
+        // Turns of a conversation always reach the model, so the conversation memory never misses one of them
+        if (!question.isPartOfConversation())
+        {
+            Optional<AssistantAnswer> fastPathAnswer = fastPathRouter.tryAnswer(question);
+            if (fastPathAnswer.isPresent())
+            {
+                return fastPathAnswer.get();
+            }
+        }
+
         try
         {
             return aiAgent.answer(question);
         }
+        catch (AiCapacityExceededException e)
+        {
+            // Surfaced to the caller so it can be answered with a retryable status instead of an apology
+            throw e;
+        }
         catch (Exception e)
         {
             log.error("Error handling question: [{}]", question.value(), e);
             return new AssistantAnswer("I apologize, but I encountered an error: " + e.getMessage());
         }
     }
-}
 
+    public void stream(UserQuestion question, AnswerStreamHandler handler)
+    {
+        Optional<AssistantAnswer> fastPathAnswer = fastPathRouter.tryAnswer(question);
+        if (fastPathAnswer.isPresent())
+        {
+            handler.onToken(fastPathAnswer.get().value());
+            handler.onComplete(fastPathAnswer.get());
+            return;
+        }
+
+        try
+        {
+            streamingAiAgent.streamAnswer(question, handler);
+        }
+        catch (AiCapacityExceededException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            log.error("Error streaming answer for question: [{}]", question.value(), e);
+            handler.onError(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package cdq.cdl.aiassistant.chat.application;
+
+import org.springframework.stereotype.Service;
+
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveAiReasoningPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveQuestionAnsweringService
+{
+    private final ReactiveAiReasoningPort aiAgent;
+    private final FastPathRouter fastPathRouter;
+
+    // Routed like QuestionAnsweringService: the fast path first, then the model behind the semantic cache
+    public Mono<AssistantAnswer> handle(UserQuestion question)
+    {
+        return fastPathRouter.tryAnswerReactive(question)
+                .switchIfEmpty(Mono.defer(() -> aiAgent.answer(question)))
+                .onErrorResume(e -> !(e instanceof AiCapacityExceededException), e ->
+                {
+                    log.error("Error handling question: [{}]", question.value(), e);
+                    return Mono.just(new AssistantAnswer("I apologize, but I encountered an error: " + e.getMessage()));
+                });
+    }
+}
@@ -0,0 +1,9 @@
+package cdq.cdl.aiassistant.chat.domain.exception;
+
+public class AiCapacityExceededException extends RuntimeException
+{
+    public AiCapacityExceededException(String message)
+    {
+        super(message);
+    }
+}
@@ -2,7 +2,7 @@ package cdq.cdl.aiassistant.chat.domain.model;
 
 import org.apache.commons.lang3.StringUtils;
 
-public record AssistantAnswer(String value)
+public record AssistantAnswer(String value, boolean fastPath)
 {
     public AssistantAnswer
     {
@@ -12,8 +12,18 @@ public record AssistantAnswer(String value)
         }
     }
 
+    public AssistantAnswer(String value)
+    {
+        this(value, false);
+    }
+
     public static AssistantAnswer of(String answer)
     {
         return new AssistantAnswer(answer.trim());
     }
+
+    public static AssistantAnswer fromFastPath(String answer)
+    {
+        return new AssistantAnswer(answer.trim(), true);
+    }
 }
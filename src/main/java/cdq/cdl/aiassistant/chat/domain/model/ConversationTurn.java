@@ -0,0 +1,5 @@
+package cdq.cdl.aiassistant.chat.domain.model;
+
+public record ConversationTurn(String conversationId, AssistantAnswer answer)
+{
+}
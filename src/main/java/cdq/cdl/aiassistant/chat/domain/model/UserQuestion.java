@@ -1,20 +1,45 @@
 package cdq.cdl.aiassistant.chat.domain.model;
 
+import java.util.regex.Pattern;
+
 import org.apache.commons.lang3.StringUtils;
 
-public record UserQuestion(String value)
+// A conversation id makes the question a follow-up: earlier turns of that conversation are part of the prompt.
+// Ids are random UUIDs issued by the server, so they cannot be guessed to read someone else's conversation.
+public record UserQuestion(String value, String conversationId)
 {
+    private static final Pattern CONVERSATION_ID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
     public UserQuestion
     {
         if (StringUtils.isEmpty(value))
         {
             throw new IllegalArgumentException("Question must not be empty");
         }
+        if (conversationId != null && !CONVERSATION_ID.matcher(conversationId).matches())
+        {
+            throw new IllegalArgumentException("Conversation id must be an id issued by the server");
+        }
+    }
+
+    public UserQuestion(String value)
+    {
+        this(value, null);
     }
 
     public static UserQuestion of(String question)
+    {
+        return of(question, null);
+    }
+
+    public static UserQuestion of(String question, String conversationId)
     {
         String trimmed = question == null ? null : question.trim();
-        return new UserQuestion(trimmed);
+        return new UserQuestion(trimmed, StringUtils.trimToNull(conversationId));
+    }
+
+    public boolean isPartOfConversation()
+    {
+        return conversationId != null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package cdq.cdl.aiassistant.chat.domain.port;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+
+public interface AnswerStreamHandler
+{
+    void onToken(String token);
+
+    void onComplete(AssistantAnswer answer);
+
+    void onError(Throwable error);
+}
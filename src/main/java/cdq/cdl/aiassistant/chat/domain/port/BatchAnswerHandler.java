@@ -0,0 +1,18 @@
+package cdq.cdl.aiassistant.chat.domain.port;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+
+public interface BatchAnswerHandler
+{
+    void onAnswer(int index, AssistantAnswer answer);
+
+    void onFailure(int index, Throwable error);
+
+    void onComplete();
+
+    // Once true, questions that have not started are not answered anymore and running ones are interrupted
+    default boolean isCancelled()
+    {
+        return false;
+    }
+}
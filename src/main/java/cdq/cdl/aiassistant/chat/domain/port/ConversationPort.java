@@ -0,0 +1,12 @@
+package cdq.cdl.aiassistant.chat.domain.port;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+
+public interface ConversationPort
+{
+    // Issues a new conversation id with an already answered question as its first turn
+    String start(UserQuestion question, AssistantAnswer answer);
+
+    boolean exists(String conversationId);
+}
@@ -0,0 +1,10 @@
+package cdq.cdl.aiassistant.chat.domain.port;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAiReasoningPort
+{
+    Mono<AssistantAnswer> answer(UserQuestion question);
+}
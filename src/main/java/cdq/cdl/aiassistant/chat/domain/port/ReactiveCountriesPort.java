@@ -0,0 +1,13 @@
+package cdq.cdl.aiassistant.chat.domain.port;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.CityInformation;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCountriesPort
+{
+    Mono<City> getCapitalOf(Country country);
+
+    Mono<CityInformation> getCityInformation(City city);
+}
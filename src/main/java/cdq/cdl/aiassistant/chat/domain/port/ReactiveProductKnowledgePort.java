@@ -0,0 +1,8 @@
+package cdq.cdl.aiassistant.chat.domain.port;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductKnowledgePort
+{
+    Mono<String> search(String query);
+}
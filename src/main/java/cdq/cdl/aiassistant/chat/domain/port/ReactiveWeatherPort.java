@@ -0,0 +1,10 @@
+package cdq.cdl.aiassistant.chat.domain.port;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.Temperature;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveWeatherPort
+{
+    Mono<Temperature> getCurrentTemperature(City city);
+}
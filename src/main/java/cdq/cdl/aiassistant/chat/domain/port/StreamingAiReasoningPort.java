@@ -0,0 +1,8 @@
+package cdq.cdl.aiassistant.chat.domain.port;
+
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+
+public interface StreamingAiReasoningPort
+{
+    void streamAnswer(UserQuestion question, AnswerStreamHandler handler);
+}
@@ -1,13 +1,22 @@
 package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest;
 
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import cdq.cdl.aiassistant.chat.application.BatchQuestionAnsweringService;
 import cdq.cdl.aiassistant.chat.application.QuestionAnsweringService;
-import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.ConversationTurn;
 import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -15,13 +24,47 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/chats")
 public class ChatApi
 {
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final QuestionAnsweringService service;
+    private final BatchQuestionAnsweringService batchService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${chat.streaming.timeout:180s}")
+    private Duration streamingTimeout;
+
+    @Value("${chat.batch.timeout:30m}")
+    private Duration batchTimeout;
 
     @PostMapping
     public ChatResponse askQuestion(@RequestBody ChatRequest request)
     {
-        UserQuestion question = UserQuestion.of(request.question());
-        AssistantAnswer answer = service.handle(question);
-        return new ChatResponse(answer.value());
+        ConversationTurn turn = service.converse(request.toQuestion());
+        return ChatResponse.from(turn);
+    }
+
+    @PostMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnswer(@RequestBody ChatRequest request)
+    {
+        UserQuestion question = request.toStatelessQuestion();
+        SseEmitter emitter = new SseEmitter(streamingTimeout.toMillis());
+        service.stream(question, new SseAnswerStreamHandler(emitter));
+        return emitter;
+    }
+
+    @PostMapping(path = "/batch", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter answerBatch(@RequestBody ChatBatchRequest request)
+    {
+        if (request.questions() == null)
+        {
+            throw new IllegalArgumentException("Questions must not be empty");
+        }
+
+        List<UserQuestion> questions = request.questions().stream()
+                .map(UserQuestion::of)
+                .toList();
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeout.toMillis());
+        batchService.handleAll(questions, new NdjsonBatchAnswerHandler(emitter, objectMapper));
+        return emitter;
     }
 }
@@ -0,0 +1,7 @@
+package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest;
+
+import java.util.List;
+
+public record ChatBatchRequest(List<String> questions)
+{
+}
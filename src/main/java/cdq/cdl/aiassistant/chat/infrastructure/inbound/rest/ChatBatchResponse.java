@@ -0,0 +1,8 @@
+package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatBatchResponse(int index, String answer, Boolean fastPath, String error)
+{
+}
@@ -1,5 +1,23 @@
 package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest;
 
-public record ChatRequest(String question)
+import org.apache.commons.lang3.StringUtils;
+
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+
+public record ChatRequest(String question, String conversationId)
 {
+    UserQuestion toQuestion()
+    {
+        return UserQuestion.of(question, conversationId);
+    }
+
+    // Streamed and reactive answers are not recorded in a conversation, so an id there would be silently ignored
+    UserQuestion toStatelessQuestion()
+    {
+        if (StringUtils.isNotBlank(conversationId))
+        {
+            throw new IllegalArgumentException("Conversations are only supported by POST /api/chats");
+        }
+        return UserQuestion.of(question);
+    }
 }
@@ -1,5 +1,19 @@
 package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest;
 
-public record ChatResponse(String answer)
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.ConversationTurn;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatResponse(String answer, boolean fastPath, String conversationId)
 {
-}
\ No newline at end of file
+    static ChatResponse from(AssistantAnswer answer)
+    {
+        return new ChatResponse(answer.value(), answer.fastPath(), null);
+    }
+
+    static ChatResponse from(ConversationTurn turn)
+    {
+        return new ChatResponse(turn.answer().value(), turn.answer().fastPath(), turn.conversationId());
+    }
+}
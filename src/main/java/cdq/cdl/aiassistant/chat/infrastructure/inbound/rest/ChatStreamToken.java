@@ -0,0 +1,5 @@
+package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest;
+
+public record ChatStreamToken(String token)
+{
+}
@@ -0,0 +1,84 @@
+package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest;
+
+import java.io.IOException;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.port.BatchAnswerHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+// Writes one JSON object per line; synchronized because answers complete on different threads
+@Slf4j
+class NdjsonBatchAnswerHandler implements BatchAnswerHandler
+{
+    private final ResponseBodyEmitter emitter;
+    private final ObjectMapper objectMapper;
+    private volatile boolean disconnected;
+
+    NdjsonBatchAnswerHandler(ResponseBodyEmitter emitter, ObjectMapper objectMapper)
+    {
+        this.emitter = emitter;
+        this.objectMapper = objectMapper;
+        emitter.onTimeout(() -> disconnected = true);
+        emitter.onError(error -> disconnected = true);
+    }
+
+    @Override
+    public boolean isCancelled()
+    {
+        return disconnected;
+    }
+
+    @Override
+    public synchronized void onAnswer(int index, AssistantAnswer answer)
+    {
+        send(new ChatBatchResponse(index, answer.value(), answer.fastPath(), null));
+    }
+
+    @Override
+    public synchronized void onFailure(int index, Throwable error)
+    {
+        String message = error instanceof AiCapacityExceededException
+                ? error.getMessage()
+                : "An unexpected error occurred";
+        send(new ChatBatchResponse(index, null, null, message));
+    }
+
+    @Override
+    public synchronized void onComplete()
+    {
+        if (!disconnected)
+        {
+            emitter.complete();
+        }
+    }
+
+    private void send(ChatBatchResponse response)
+    {
+        if (disconnected)
+        {
+            return;
+        }
+
+        try
+        {
+            emitter.send(objectMapper.writeValueAsString(response) + "\n", MediaType.TEXT_PLAIN);
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new IllegalStateException("Could not serialize batch response " + response.index(), e);
+        }
+        catch (IOException | IllegalStateException e)
+        {
+            // Client went away, the batch stops dispatching once it sees isCancelled()
+            log.debug("Could not send batch response {}: [{}]", response.index(), e.getMessage());
+            disconnected = true;
+            emitter.completeWithError(e);
+        }
+    }
+}
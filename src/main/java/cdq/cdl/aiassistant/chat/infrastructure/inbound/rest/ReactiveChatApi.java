@@ -0,0 +1,28 @@
+package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import cdq.cdl.aiassistant.chat.application.ReactiveQuestionAnsweringService;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+// The request thread is released as soon as the Mono is returned and only resumed to write the answer
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/reactive/chats")
+public class ReactiveChatApi
+{
+    private final ReactiveQuestionAnsweringService service;
+
+    @PostMapping
+    public Mono<ChatResponse> askQuestion(@RequestBody ChatRequest request)
+    {
+        UserQuestion question = request.toStatelessQuestion();
+        return service.handle(question)
+                .map(ChatResponse::from);
+    }
+}
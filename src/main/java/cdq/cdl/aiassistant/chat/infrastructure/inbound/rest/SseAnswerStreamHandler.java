@@ -0,0 +1,62 @@
+package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest;
+
+import java.io.IOException;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.port.AnswerStreamHandler;
+import cdq.cdl.aiassistant.chat.infrastructure.inbound.rest.dto.ErrorResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RequiredArgsConstructor
+@Slf4j
+class SseAnswerStreamHandler implements AnswerStreamHandler
+{
+    private final SseEmitter emitter;
+
+    @Override
+    public void onToken(String token)
+    {
+        send("token", new ChatStreamToken(token));
+    }
+
+    @Override
+    public void onComplete(AssistantAnswer answer)
+    {
+        if (send("done", ChatResponse.from(answer)))
+        {
+            emitter.complete();
+        }
+    }
+
+    @Override
+    public void onError(Throwable error)
+    {
+        String message = error instanceof AiCapacityExceededException
+                ? error.getMessage()
+                : "An unexpected error occurred";
+        if (send("error", new ErrorResponse(message)))
+        {
+            emitter.complete();
+        }
+    }
+
+    private boolean send(String eventName, Object data)
+    {
+        try
+        {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+            return true;
+        }
+        catch (IOException | IllegalStateException e)
+        {
+            // Client disconnected or emitter already completed, nothing left to deliver
+            log.debug("Could not send [{}] event: [{}]", eventName, e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
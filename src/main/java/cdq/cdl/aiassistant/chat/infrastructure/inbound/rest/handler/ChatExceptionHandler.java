@@ -1,11 +1,13 @@
 package cdq.cdl.aiassistant.chat.infrastructure.inbound.rest.handler;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
 import cdq.cdl.aiassistant.chat.infrastructure.inbound.rest.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,6 +24,16 @@ public class ChatExceptionHandler
                 .body(new ErrorResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(AiCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleAiCapacityExceededException(AiCapacityExceededException ex)
+    {
+        log.warn("Rejected request, assistant at capacity: [{}]", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ErrorResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponse> handleHttpMessageNotReadableException(HttpMessageNotReadableException ex)
     {
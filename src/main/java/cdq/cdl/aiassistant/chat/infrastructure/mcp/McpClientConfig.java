@@ -1,5 +1,6 @@
 package cdq.cdl.aiassistant.chat.infrastructure.mcp;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -9,11 +10,12 @@ class McpClientConfig
 {
 
     @Bean
-    McpHttpClient mcpHttpClient(WebClient.Builder builder)
+    McpHttpClient mcpHttpClient(WebClient.Builder builder,
+                                @Value("${external-api.weather.mcp.base-url:http://localhost:3333/mcp}") String baseUrl)
     {
         return new McpHttpClient(
                 builder
-                        .baseUrl("http://localhost:3333/mcp")
+                        .baseUrl(baseUrl)
                         .build()
         );
     }
@@ -7,6 +7,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
 
 @RequiredArgsConstructor
 public class McpHttpClient
@@ -15,34 +16,39 @@ public class McpHttpClient
 
     public JsonNode callTool(String toolName, Map<String, Object> arguments)
     {
-        try
-        {
-            var request = Map.of(
-                    "jsonrpc", "2.0",
-                    "id", UUID.randomUUID().toString(),
-                    "method", "tools/call",
-                    "params", Map.of(
-                            "name", toolName,
-                            "arguments", arguments
-                    )
-            );
-
-            JsonNode response = webClient.post()
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .block();
-
-            if (response == null || response.has("error"))
-            {
-                throw new IllegalStateException("MCP error: " + response);
-            }
-
-            return response.get("result");
-        }
-        catch (Exception e)
+        return callToolAsync(toolName, arguments).block();
+    }
+
+    public Mono<JsonNode> callToolAsync(String toolName, Map<String, Object> arguments)
+    {
+        return webClient.post()
+                .bodyValue(toolCallRequest(toolName, arguments))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("MCP error: null")))
+                .flatMap(response -> Mono.justOrEmpty(resultOf(response)))
+                .onErrorMap(e -> new IllegalStateException("Failed to call MCP tool " + toolName, e));
+    }
+
+    static Map<String, Object> toolCallRequest(String toolName, Map<String, Object> arguments)
+    {
+        return Map.of(
+                "jsonrpc", "2.0",
+                "id", UUID.randomUUID().toString(),
+                "method", "tools/call",
+                "params", Map.of(
+                        "name", toolName,
+                        "arguments", arguments
+                )
+        );
+    }
+
+    static JsonNode resultOf(JsonNode response)
+    {
+        if (response.has("error"))
         {
-            throw new IllegalStateException("Failed to call MCP tool " + toolName, e);
+            throw new IllegalStateException("MCP error: " + response);
         }
+        return response.get("result");
     }
 }
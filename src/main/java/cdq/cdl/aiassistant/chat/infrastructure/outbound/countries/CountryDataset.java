@@ -0,0 +1,84 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.countries;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.countries.model.RestCountryResponse;
+
+// Immutable snapshot of all countries with hash indexes by name and by capital; a refresh swaps in a new instance
+class CountryDataset
+{
+    static final CountryDataset EMPTY = new CountryDataset(Map.of(), Map.of(), 0);
+
+    private final Map<String, RestCountryResponse> byName;
+    private final Map<String, RestCountryResponse> byCapital;
+    private final int size;
+
+    private CountryDataset(Map<String, RestCountryResponse> byName, Map<String, RestCountryResponse> byCapital, int size)
+    {
+        this.byName = byName;
+        this.byCapital = byCapital;
+        this.size = size;
+    }
+
+    static CountryDataset of(List<RestCountryResponse> countries)
+    {
+        Map<String, RestCountryResponse> byName = new HashMap<>();
+        Map<String, RestCountryResponse> byCapital = new HashMap<>();
+
+        // Common names are indexed first so they win over an official name or alt spelling of another country
+        countries.forEach(country -> index(byName, country.name().common(), country));
+        countries.forEach(country -> index(byName, country.name().official(), country));
+        countries.forEach(country -> indexAll(byName, country.altSpellings(), country));
+        countries.forEach(country -> indexAll(byCapital, country.capital(), country));
+
+        return new CountryDataset(Map.copyOf(byName), Map.copyOf(byCapital), countries.size());
+    }
+
+    Optional<RestCountryResponse> findByName(String name)
+    {
+        return Optional.ofNullable(byName.get(normalize(name)));
+    }
+
+    Optional<RestCountryResponse> findByCapital(String capital)
+    {
+        return Optional.ofNullable(byCapital.get(normalize(capital)));
+    }
+
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    private static void indexAll(Map<String, RestCountryResponse> index, List<String> keys, RestCountryResponse country)
+    {
+        if (keys != null)
+        {
+            keys.forEach(key -> index(index, key, country));
+        }
+    }
+
+    private static void index(Map<String, RestCountryResponse> index, String key, RestCountryResponse country)
+    {
+        if (key != null && !key.isBlank())
+        {
+            index.putIfAbsent(normalize(key), country);
+        }
+    }
+
+    // Case and accent insensitive, so "bogota" finds "Bogotá"
+    static String normalize(String value)
+    {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,160 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.countries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.CityInformation;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import cdq.cdl.aiassistant.chat.domain.port.CountriesPort;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.countries.model.RestCountryResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+// Serves geography lookups from an in-memory copy of the whole dataset, which changes maybe once a year
+@Component
+@Primary
+@ConditionalOnProperty(name = "external-api.rest-countries.mode", havingValue = "preloaded")
+@Slf4j
+class PreloadedCountriesAdapter implements CountriesPort
+{
+    static final String ALL_COUNTRIES_URI = "/all?fields=name,altSpellings,capital,region,population,currencies";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final WebClient webClient;
+    private final RestCountriesAdapter liveAdapter;
+    private volatile CountryDataset dataset = CountryDataset.EMPTY;
+
+    @Autowired
+    public PreloadedCountriesAdapter(
+            WebClient.Builder webClientBuilder,
+            @Value("${external-api.rest-countries.base-url}") String baseUrl,
+            @Value("${external-api.rest-countries.snapshot-location:}") String snapshotLocation,
+            RestCountriesAdapter liveAdapter)
+    {
+        // The full dataset is larger than the default 256KB codec buffer
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+                .build();
+        this.liveAdapter = liveAdapter;
+
+        if (!snapshotLocation.isBlank())
+        {
+            loadSnapshot(new DefaultResourceLoader().getResource(snapshotLocation));
+        }
+    }
+
+    PreloadedCountriesAdapter(String baseUrl, String snapshotLocation, RestCountriesAdapter liveAdapter)
+    {
+        this(WebClient.builder(), baseUrl, snapshotLocation, liveAdapter);
+    }
+
+    @Override
+    public City getCapitalOf(Country country)
+    {
+        CountryDataset current = dataset;
+        if (current.isEmpty())
+        {
+            log.debug("Country dataset not loaded yet, delegating to the live API");
+            return liveAdapter.getCapitalOf(country);
+        }
+
+        // The live search also matches partial and native names the dataset does not list
+        return current.findByName(country.name())
+                .map(countryData -> RestCountriesAdapter.capitalOf(country, countryData))
+                .orElseGet(() ->
+                {
+                    log.debug("Country [{}] not in the dataset, delegating to the live API", country.name());
+                    return liveAdapter.getCapitalOf(country);
+                });
+    }
+
+    @Override
+    public CityInformation getCityInformation(City city)
+    {
+        CountryDataset current = dataset;
+        if (current.isEmpty())
+        {
+            log.debug("Country dataset not loaded yet, delegating to the live API");
+            return liveAdapter.getCityInformation(city);
+        }
+
+        return current.findByCapital(city.name())
+                .map(countryData -> RestCountriesAdapter.cityInformationOf(city, countryData))
+                .orElseGet(() ->
+                {
+                    log.debug("Capital [{}] not in the dataset, delegating to the live API", city.name());
+                    return liveAdapter.getCityInformation(city);
+                });
+    }
+
+    CountryDataset dataset()
+    {
+        return dataset;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadInBackground()
+    {
+        Thread.ofVirtual().name("country-dataset-load").start(this::refresh);
+    }
+
+    @Scheduled(cron = "${external-api.rest-countries.refresh-cron:0 0 4 * * SUN}")
+    void refresh()
+    {
+        try
+        {
+            RestCountryResponse[] countries = webClient.get()
+                    .uri(ALL_COUNTRIES_URI)
+                    .retrieve()
+                    .bodyToMono(RestCountryResponse[].class)
+                    .block();
+
+            if (countries == null || countries.length == 0)
+            {
+                log.warn("Rest countries API returned no countries, keeping {} loaded countries", dataset.size());
+                return;
+            }
+
+            dataset = CountryDataset.of(Arrays.asList(countries));
+            log.info("Loaded {} countries into the in-memory dataset", countries.length);
+        }
+        catch (Exception e)
+        {
+            log.warn("Could not refresh country dataset, keeping {} loaded countries: [{}]", dataset.size(), e.getMessage());
+        }
+    }
+
+    private void loadSnapshot(Resource snapshot)
+    {
+        try (InputStream input = snapshot.getInputStream())
+        {
+            RestCountryResponse[] countries = OBJECT_MAPPER.readValue(input, RestCountryResponse[].class);
+            dataset = CountryDataset.of(List.of(countries));
+            log.info("Loaded {} countries from snapshot [{}]", countries.length, snapshot.getDescription());
+        }
+        catch (IOException e)
+        {
+            log.warn("Could not read country snapshot [{}], the dataset will be loaded from the API: [{}]",
+                    snapshot.getDescription(), e.getMessage());
+        }
+    }
+}
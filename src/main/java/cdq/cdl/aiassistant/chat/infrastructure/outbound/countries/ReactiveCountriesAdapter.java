@@ -0,0 +1,69 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.countries;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.CityInformation;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveCountriesPort;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.countries.model.RestCountryResponse;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+// Non-blocking counterpart of the countries adapters: in-memory lookups when the dataset is preloaded, WebClient otherwise
+@Component
+@Slf4j
+class ReactiveCountriesAdapter implements ReactiveCountriesPort
+{
+    private final RestCountriesAdapter liveAdapter;
+    private final PreloadedCountriesAdapter preloadedAdapter;
+
+    ReactiveCountriesAdapter(RestCountriesAdapter liveAdapter, ObjectProvider<PreloadedCountriesAdapter> preloadedAdapter)
+    {
+        this.liveAdapter = liveAdapter;
+        this.preloadedAdapter = preloadedAdapter.getIfAvailable();
+    }
+
+    @Override
+    public Mono<City> getCapitalOf(Country country)
+    {
+        return findCountry(
+                dataset -> dataset.findByName(country.name()),
+                () -> liveAdapter.findCountryByName(country.name()),
+                "Country [" + country.name() + "]")
+                .map(countryData -> RestCountriesAdapter.capitalOf(country, countryData));
+    }
+
+    @Override
+    public Mono<CityInformation> getCityInformation(City city)
+    {
+        return findCountry(
+                dataset -> dataset.findByCapital(city.name()),
+                () -> liveAdapter.findCountryByCapital(city.name()),
+                "Capital [" + city.name() + "]")
+                .map(countryData -> RestCountriesAdapter.cityInformationOf(city, countryData));
+    }
+
+    private Mono<RestCountryResponse> findCountry(Function<CountryDataset, Optional<RestCountryResponse>> inMemoryLookup,
+                                                  Supplier<Mono<RestCountryResponse>> liveLookup,
+                                                  String lookup)
+    {
+        if (preloadedAdapter == null || preloadedAdapter.dataset().isEmpty())
+        {
+            return liveLookup.get();
+        }
+
+        // Names the dataset does not know (other languages, spellings) may still be found by the live API
+        return Mono.justOrEmpty(inMemoryLookup.apply(preloadedAdapter.dataset()))
+                .switchIfEmpty(Mono.defer(() ->
+                {
+                    log.debug("{} not in the dataset, delegating to the live API", lookup);
+                    return liveLookup.get();
+                }));
+    }
+}
@@ -1,5 +1,6 @@
 package cdq.cdl.aiassistant.chat.infrastructure.outbound.countries;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -10,6 +11,7 @@ import cdq.cdl.aiassistant.chat.domain.model.Country;
 import cdq.cdl.aiassistant.chat.domain.port.CountriesPort;
 import cdq.cdl.aiassistant.chat.infrastructure.outbound.countries.model.RestCountryResponse;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 
 @Component
 @Slf4j
@@ -17,9 +19,17 @@ class RestCountriesAdapter implements CountriesPort
 {
     private final WebClient webClient;
 
-    public RestCountriesAdapter(@Value("${external-api.rest-countries.base-url}") String baseUrl)
+    // The Boot-managed builder carries the observation customizer, so every call shows up as http.client.requests
+    @Autowired
+    public RestCountriesAdapter(WebClient.Builder webClientBuilder,
+                                @Value("${external-api.rest-countries.base-url}") String baseUrl)
     {
-        this.webClient = WebClient.builder().baseUrl(baseUrl).build();
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+    }
+
+    RestCountriesAdapter(String baseUrl)
+    {
+        this(WebClient.builder(), baseUrl);
     }
 
     @Override
@@ -27,8 +37,19 @@ class RestCountriesAdapter implements CountriesPort
     {
         log.info("Fetching capital for country: [{}]", country.name());
 
-        RestCountryResponse countryData = fetchCountryByName(country.name());
+        return capitalOf(country, fetchCountryByName(country.name()));
+    }
+
+    @Override
+    public CityInformation getCityInformation(City city)
+    {
+        log.info("Fetching information about city: [{}]", city.name());
+
+        return cityInformationOf(city, fetchCountryByCapital(city.name()));
+    }
 
+    static City capitalOf(Country country, RestCountryResponse countryData)
+    {
         if (countryData.capital() == null || countryData.capital().isEmpty())
         {
             throw new IllegalStateException("No capital found for country: " + country.name());
@@ -37,16 +58,13 @@ class RestCountriesAdapter implements CountriesPort
         return City.of(countryData.capital().getFirst());
     }
 
-    @Override
-    public CityInformation getCityInformation(City city)
+    static CityInformation cityInformationOf(City city, RestCountryResponse countryData)
     {
-        log.info("Fetching information about city: [{}]", city.name());
-
-        RestCountryResponse countryData = fetchCountryByCapital(city.name());
-
-        String currencyCode = countryData.currencies().keySet().stream()
-                .findFirst()
-                .orElse("Unknown");
+        String currencyCode = countryData.currencies() == null
+                ? "Unknown"
+                : countryData.currencies().keySet().stream()
+                        .findFirst()
+                        .orElse("Unknown");
 
         return new CityInformation(
                 city,
@@ -59,24 +77,32 @@ class RestCountriesAdapter implements CountriesPort
 
     private RestCountryResponse fetchCountryByName(String country)
     {
-        RestCountryResponse[] response = webClient.get()
+        return findCountryByName(country).block();
+    }
+
+    private RestCountryResponse fetchCountryByCapital(String capital)
+    {
+        return findCountryByCapital(capital).block();
+    }
+
+    Mono<RestCountryResponse> findCountryByName(String country)
+    {
+        return webClient.get()
                 .uri("/name/{country}", country)
                 .retrieve()
                 .bodyToMono(RestCountryResponse[].class)
-                .block();
-
-        return extractFirstCountry(response, "country", country);
+                .defaultIfEmpty(new RestCountryResponse[0])
+                .map(response -> extractFirstCountry(response, "country", country));
     }
 
-    private RestCountryResponse fetchCountryByCapital(String capital)
+    Mono<RestCountryResponse> findCountryByCapital(String capital)
     {
-        RestCountryResponse[] response = webClient.get()
+        return webClient.get()
                 .uri("/capital/{capital}", capital)
                 .retrieve()
                 .bodyToMono(RestCountryResponse[].class)
-                .block();
-
-        return extractFirstCountry(response, "capital", capital);
+                .defaultIfEmpty(new RestCountryResponse[0])
+                .map(response -> extractFirstCountry(response, "capital", capital));
     }
 
     private RestCountryResponse extractFirstCountry(RestCountryResponse[] response, String searchType, String searchValue)
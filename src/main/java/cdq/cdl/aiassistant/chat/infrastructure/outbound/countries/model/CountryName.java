@@ -1,5 +1,5 @@
 package cdq.cdl.aiassistant.chat.infrastructure.outbound.countries.model;
 
-public record CountryName(String common)
+public record CountryName(String common, String official)
 {
-}
\ No newline at end of file
+}
@@ -4,9 +4,10 @@ import java.util.List;
 import java.util.Map;
 
 public record RestCountryResponse(CountryName name,
+                                  List<String> altSpellings,
                                   List<String> capital,
                                   String region,
                                   long population,
                                   Map<String, Object> currencies)
 {
-}
\ No newline at end of file
+}
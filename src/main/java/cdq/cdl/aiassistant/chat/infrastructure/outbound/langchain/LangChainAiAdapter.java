@@ -1,11 +1,19 @@
 package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain;
 
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
 import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
 import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
 import cdq.cdl.aiassistant.chat.domain.port.AiReasoningPort;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.cache.CategorizedAnswer;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.cache.SemanticAnswerCache;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.memory.ConversationMemory;
 import cdq.cdl.aiassistant.shared.config.LangChain4jConfig;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.Result;
+import dev.langchain4j.service.tool.ToolExecution;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,6 +23,8 @@ import lombok.extern.slf4j.Slf4j;
 public class LangChainAiAdapter implements AiReasoningPort
 {
     private final LangChain4jConfig.AssistantAI assistantAI;
+    private final SemanticAnswerCache answerCache;
+    private final ConversationMemory conversationMemory;
 
     @Override
     public AssistantAnswer answer(UserQuestion question)
@@ -22,9 +32,11 @@ public class LangChainAiAdapter implements AiReasoningPort
         log.info("Processing question: [{}]", question.value());
         try
         {
-            String response = assistantAI.chat(question.value());
-
-            return new AssistantAnswer(response);
+            if (question.isPartOfConversation())
+            {
+                return answerInConversation(question);
+            }
+            return answerCache.getOrCompute(question, this::askAssistant);
         }
         catch (Exception e)
         {
@@ -32,5 +44,25 @@ public class LangChainAiAdapter implements AiReasoningPort
             throw e;
         }
     }
-}
 
+    // Follow-ups depend on the earlier turns, so they are neither answered from nor stored in the semantic cache
+    private AssistantAnswer answerInConversation(UserQuestion question)
+    {
+        String conversationId = question.conversationId();
+        Result<String> result = assistantAI.chat(conversationMemory.history(conversationId), question.value());
+        conversationMemory.record(conversationId, question.value(), result.content());
+        return new AssistantAnswer(result.content());
+    }
+
+    private CategorizedAnswer askAssistant(UserQuestion question)
+    {
+        Result<String> result = assistantAI.chat(question.value());
+
+        List<ToolExecution> toolExecutions = result.toolExecutions() == null ? List.of() : result.toolExecutions();
+        List<ToolExecutionRequest> toolRequests = toolExecutions.stream()
+                .map(ToolExecution::request)
+                .toList();
+
+        return CategorizedAnswer.of(new AssistantAnswer(result.content()), toolRequests);
+    }
+}
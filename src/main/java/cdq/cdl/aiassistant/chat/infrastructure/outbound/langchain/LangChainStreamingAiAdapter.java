@@ -0,0 +1,50 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain;
+
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.AnswerStreamHandler;
+import cdq.cdl.aiassistant.chat.domain.port.StreamingAiReasoningPort;
+import cdq.cdl.aiassistant.shared.config.LangChain4jConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LangChainStreamingAiAdapter implements StreamingAiReasoningPort
+{
+    private final LangChain4jConfig.StreamingAssistantAI streamingAssistantAI;
+
+    @Override
+    public void streamAnswer(UserQuestion question, AnswerStreamHandler handler)
+    {
+        log.info("Streaming answer for question: [{}]", question.value());
+
+        streamingAssistantAI.chat(question.value())
+                .onNext(handler::onToken)
+                .onToolExecuted(execution -> log.debug("Tool executed mid-stream: tool={}", execution.request().name()))
+                .onComplete(response -> complete(response.content().text(), handler))
+                .onError(error -> fail(error, handler))
+                .start();
+    }
+
+    private void complete(String text, AnswerStreamHandler handler)
+    {
+        try
+        {
+            handler.onComplete(AssistantAnswer.of(text));
+        }
+        catch (Exception e)
+        {
+            fail(e, handler);
+        }
+    }
+
+    private void fail(Throwable error, AnswerStreamHandler handler)
+    {
+        log.error("Streaming error [{}]", error.getMessage(), error);
+        handler.onError(error);
+    }
+}
@@ -0,0 +1,207 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.chat.request.json.JsonSchemaElementHelper;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Slf4j
+public class OllamaToolStreamingChatModel implements StreamingChatLanguageModel
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Handler callbacks execute tools that block, which must not happen on a Netty event loop thread
+    private static final Scheduler CALLBACK_SCHEDULER = Schedulers.fromExecutorService(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ollama-stream-", 0).factory()),
+            "ollama-stream");
+
+    private final WebClient webClient;
+    private final String modelName;
+    private final Double temperature;
+    private final Duration timeout;
+
+    public OllamaToolStreamingChatModel(WebClient webClient, String modelName, Double temperature, Duration timeout)
+    {
+        this.webClient = webClient;
+        this.modelName = modelName;
+        this.temperature = temperature;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler)
+    {
+        generate(messages, List.of(), handler);
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages,
+                         List<ToolSpecification> toolSpecifications,
+                         StreamingResponseHandler<AiMessage> handler)
+    {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("model", modelName);
+        request.put("messages", messages.stream().map(OllamaToolStreamingChatModel::toOllamaMessage).toList());
+        request.put("options", Map.of("temperature", temperature));
+        request.put("stream", true);
+        if (toolSpecifications != null && !toolSpecifications.isEmpty())
+        {
+            request.put("tools", toolSpecifications.stream().map(OllamaToolStreamingChatModel::toOllamaTool).toList());
+        }
+
+        // Tool calls arrive as their own chunk; AiServices executes them and calls us again to continue the stream
+        StreamState state = new StreamState();
+
+        webClient.post()
+                .uri("/api/chat")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(JsonNode.class)
+                .timeout(timeout)
+                .publishOn(CALLBACK_SCHEDULER)
+                .subscribe(
+                        chunk -> state.accept(chunk, handler),
+                        handler::onError,
+                        () -> handler.onComplete(state.toResponse()));
+    }
+
+    private static Map<String, Object> toOllamaMessage(ChatMessage message)
+    {
+        Map<String, Object> ollamaMessage = new LinkedHashMap<>();
+
+        if (message instanceof SystemMessage systemMessage)
+        {
+            ollamaMessage.put("role", "system");
+            ollamaMessage.put("content", systemMessage.text());
+        }
+        else if (message instanceof UserMessage userMessage)
+        {
+            ollamaMessage.put("role", "user");
+            ollamaMessage.put("content", userMessage.singleText());
+        }
+        else if (message instanceof AiMessage aiMessage)
+        {
+            ollamaMessage.put("role", "assistant");
+            ollamaMessage.put("content", aiMessage.text() == null ? "" : aiMessage.text());
+            if (aiMessage.hasToolExecutionRequests())
+            {
+                ollamaMessage.put("tool_calls", aiMessage.toolExecutionRequests().stream()
+                        .map(toolRequest -> Map.of("function", Map.of(
+                                "name", toolRequest.name(),
+                                "arguments", parseArguments(toolRequest.arguments()))))
+                        .toList());
+            }
+        }
+        else if (message instanceof ToolExecutionResultMessage toolResult)
+        {
+            ollamaMessage.put("role", "tool");
+            ollamaMessage.put("content", toolResult.text());
+        }
+        else
+        {
+            throw new IllegalArgumentException("Unsupported chat message type: " + message.type());
+        }
+
+        return ollamaMessage;
+    }
+
+    private static Map<String, Object> toOllamaTool(ToolSpecification specification)
+    {
+        Map<String, Object> parameters = specification.parameters() == null
+                ? Map.of("type", "object", "properties", Map.of())
+                : JsonSchemaElementHelper.toMap(specification.parameters());
+
+        Map<String, Object> function = new LinkedHashMap<>();
+        function.put("name", specification.name());
+        function.put("description", specification.description() == null ? "" : specification.description());
+        function.put("parameters", parameters);
+
+        return Map.of("type", "function", "function", function);
+    }
+
+    private static Object parseArguments(String arguments)
+    {
+        try
+        {
+            return OBJECT_MAPPER.readValue(arguments, Map.class);
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new IllegalStateException("Invalid tool arguments: " + arguments, e);
+        }
+    }
+
+    private static class StreamState
+    {
+        private final StringBuilder text = new StringBuilder();
+        private final List<ToolExecutionRequest> toolExecutionRequests = new ArrayList<>();
+        private TokenUsage tokenUsage;
+        private FinishReason finishReason;
+
+        void accept(JsonNode chunk, StreamingResponseHandler<AiMessage> handler)
+        {
+            JsonNode message = chunk.path("message");
+
+            String content = message.path("content").asText("");
+            if (!content.isEmpty())
+            {
+                text.append(content);
+                handler.onNext(content);
+            }
+
+            for (JsonNode toolCall : message.path("tool_calls"))
+            {
+                JsonNode function = toolCall.path("function");
+                toolExecutionRequests.add(ToolExecutionRequest.builder()
+                        .name(function.path("name").asText())
+                        .arguments(function.path("arguments").toString())
+                        .build());
+                log.debug("Model requested tool [{}] mid-stream", function.path("name").asText());
+            }
+
+            if (chunk.path("done").asBoolean(false))
+            {
+                tokenUsage = new TokenUsage(
+                        chunk.path("prompt_eval_count").asInt(0),
+                        chunk.path("eval_count").asInt(0));
+                finishReason = "length".equals(chunk.path("done_reason").asText()) ? FinishReason.LENGTH : FinishReason.STOP;
+            }
+        }
+
+        Response<AiMessage> toResponse()
+        {
+            if (!toolExecutionRequests.isEmpty())
+            {
+                AiMessage aiMessage = text.isEmpty()
+                        ? AiMessage.from(toolExecutionRequests)
+                        : AiMessage.from(text.toString(), toolExecutionRequests);
+                return Response.from(aiMessage, tokenUsage, FinishReason.TOOL_EXECUTION);
+            }
+            return Response.from(AiMessage.from(text.toString()), tokenUsage, finishReason);
+        }
+    }
+}
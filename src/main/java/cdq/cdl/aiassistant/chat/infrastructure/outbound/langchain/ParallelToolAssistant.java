@@ -0,0 +1,220 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.aop.support.AopUtils;
+
+import cdq.cdl.aiassistant.shared.config.LangChain4jConfig;
+import dev.langchain4j.agent.tool.Tool;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.agent.tool.ToolSpecifications;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import dev.langchain4j.service.Result;
+import dev.langchain4j.service.tool.DefaultToolExecutor;
+import dev.langchain4j.service.tool.ToolExecution;
+import dev.langchain4j.service.tool.ToolExecutor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Tool-calling loop like AiServices, except that all tool calls of one assistant message run concurrently.
+// Results are appended in request order, so a multi-tool turn takes as long as its slowest tool.
+@Slf4j
+public class ParallelToolAssistant implements LangChain4jConfig.AssistantAI
+{
+    private final ChatLanguageModel chatModel;
+    private final String systemPrompt;
+    private final List<ToolSpecification> toolSpecifications = new ArrayList<>();
+    private final Map<String, ToolExecutor> toolExecutors = new HashMap<>();
+    private final int maxToolRounds;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("tool-call-", 0).factory());
+    private final Semaphore concurrentToolCalls;
+
+    public ParallelToolAssistant(ChatLanguageModel chatModel,
+                                 String systemPrompt,
+                                 List<Object> tools,
+                                 int maxConcurrentToolCalls,
+                                 int maxToolRounds)
+    {
+        this.chatModel = chatModel;
+        this.systemPrompt = systemPrompt;
+        this.maxToolRounds = maxToolRounds;
+        this.concurrentToolCalls = new Semaphore(maxConcurrentToolCalls);
+
+        for (Object tool : tools)
+        {
+            register(tool);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Result<String> chat(String userMessage)
+    {
+        return chat(List.of(), userMessage);
+    }
+
+    @Override
+    public Result<String> chat(List<ChatMessage> history, String userMessage)
+    {
+        List<ChatMessage> messages = new ArrayList<>(history.size() + 2);
+        messages.add(SystemMessage.from(systemPrompt));
+        messages.addAll(history);
+        messages.add(UserMessage.from(userMessage));
+
+        List<ToolExecution> toolExecutions = new ArrayList<>();
+        Response<AiMessage> response = chatModel.generate(messages, toolSpecifications);
+        TokenUsage tokenUsage = response.tokenUsage();
+
+        int rounds = 0;
+        while (response.content().hasToolExecutionRequests())
+        {
+            if (++rounds > maxToolRounds)
+            {
+                throw new IllegalStateException("Exceeded " + maxToolRounds + " tool execution rounds");
+            }
+
+            AiMessage aiMessage = response.content();
+            messages.add(aiMessage);
+
+            for (ToolExecution execution : executeAll(aiMessage.toolExecutionRequests()))
+            {
+                toolExecutions.add(execution);
+                messages.add(ToolExecutionResultMessage.from(execution.request(), execution.result()));
+            }
+
+            response = chatModel.generate(messages, toolSpecifications);
+            tokenUsage = add(tokenUsage, response.tokenUsage());
+        }
+
+        return Result.<String>builder()
+                .content(response.content().text())
+                .tokenUsage(tokenUsage)
+                .finishReason(response.finishReason())
+                .toolExecutions(toolExecutions)
+                .build();
+    }
+
+    // Annotations are read from the target class, a proxy subclass does not redeclare them
+    private void register(Object tool)
+    {
+        Class<?> targetClass = AopUtils.getTargetClass(tool);
+        int registered = 0;
+        for (Method method : targetClass.getDeclaredMethods())
+        {
+            if (method.isAnnotationPresent(Tool.class))
+            {
+                ToolSpecification specification = ToolSpecifications.toolSpecificationFrom(method);
+                toolSpecifications.add(specification);
+                toolExecutors.put(specification.name(),
+                        new DefaultToolExecutor(tool, AopUtils.selectInvocableMethod(method, tool.getClass())));
+                registered++;
+            }
+        }
+
+        if (registered == 0)
+        {
+            throw new IllegalArgumentException("No @Tool methods found on " + targetClass.getName());
+        }
+    }
+
+    private List<ToolExecution> executeAll(List<ToolExecutionRequest> requests)
+    {
+        if (requests.size() == 1)
+        {
+            return List.of(execute(requests.getFirst()));
+        }
+
+        log.debug("Executing {} tool calls concurrently", requests.size());
+        List<Future<ToolExecution>> futures = requests.stream()
+                .map(request -> executor.submit(() -> executeBounded(request)))
+                .toList();
+
+        List<ToolExecution> executions = new ArrayList<>(requests.size());
+        for (Future<ToolExecution> future : futures)
+        {
+            executions.add(await(future));
+        }
+        return executions;
+    }
+
+    private ToolExecution executeBounded(ToolExecutionRequest request) throws InterruptedException
+    {
+        concurrentToolCalls.acquire();
+        try
+        {
+            return execute(request);
+        }
+        finally
+        {
+            concurrentToolCalls.release();
+        }
+    }
+
+    private ToolExecution execute(ToolExecutionRequest request)
+    {
+        ToolExecutor toolExecutor = toolExecutors.get(request.name());
+        // Unknown tools are reported back to the model, the same way AiServices does
+        String result = toolExecutor == null
+                ? "Error: there is no tool called " + request.name()
+                : toolExecutor.execute(request, "default");
+
+        return ToolExecution.builder()
+                .request(request)
+                .result(result)
+                .build();
+    }
+
+    private static ToolExecution await(Future<ToolExecution> future)
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tool calls", e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+            {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Tool call failed", e.getCause());
+        }
+    }
+
+    private static TokenUsage add(TokenUsage total, TokenUsage usage)
+    {
+        if (total == null)
+        {
+            return usage;
+        }
+        return usage == null ? total : total.add(usage);
+    }
+}
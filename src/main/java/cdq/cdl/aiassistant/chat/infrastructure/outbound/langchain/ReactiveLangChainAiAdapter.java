@@ -0,0 +1,126 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveAiReasoningPort;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.cache.CategorizedAnswer;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.cache.SemanticAnswerCache;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.ReactiveToolExecutor;
+import cdq.cdl.aiassistant.shared.config.LangChain4jConfig;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Tool-calling loop on top of the WebClient-based Ollama model, so no thread waits while the model or a tool is working,
+// nor for a bulkhead permit. Tool calls of one turn run concurrently and are appended in request order. Answers go
+// through the same semantic cache as the blocking adapter.
+@Component
+@Slf4j
+public class ReactiveLangChainAiAdapter implements ReactiveAiReasoningPort
+{
+    private final StreamingChatLanguageModel streamingChatModel;
+    private final ReactiveToolExecutor toolExecutor;
+    private final SemanticAnswerCache answerCache;
+    private final int maxToolRounds;
+
+    public ReactiveLangChainAiAdapter(StreamingChatLanguageModel streamingChatModel,
+                                      ReactiveToolExecutor toolExecutor,
+                                      SemanticAnswerCache answerCache,
+                                      @Value("${chat.tools.max-rounds:10}") int maxToolRounds)
+    {
+        this.streamingChatModel = streamingChatModel;
+        this.toolExecutor = toolExecutor;
+        this.answerCache = answerCache;
+        this.maxToolRounds = maxToolRounds;
+    }
+
+    @Override
+    public Mono<AssistantAnswer> answer(UserQuestion question)
+    {
+        log.info("Processing question reactively: [{}]", question.value());
+        return answerCache.getOrComputeReactive(question, this::askModel);
+    }
+
+    private Mono<CategorizedAnswer> askModel(UserQuestion question)
+    {
+        return Mono.defer(() ->
+        {
+            List<ChatMessage> messages = new ArrayList<>();
+            messages.add(SystemMessage.from(LangChain4jConfig.SYSTEM_PROMPT));
+            messages.add(UserMessage.from(question.value()));
+            List<ToolExecutionRequest> toolRequests = new ArrayList<>();
+
+            return converse(messages, toolRequests, 0)
+                    .map(answer -> CategorizedAnswer.of(new AssistantAnswer(answer), toolRequests));
+        });
+    }
+
+    private Mono<String> converse(List<ChatMessage> messages, List<ToolExecutionRequest> toolRequests, int round)
+    {
+        return generate(messages).flatMap(aiMessage ->
+        {
+            if (!aiMessage.hasToolExecutionRequests())
+            {
+                return Mono.justOrEmpty(aiMessage.text())
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException("Model returned an empty answer")));
+            }
+            if (round >= maxToolRounds)
+            {
+                return Mono.error(new IllegalStateException("Exceeded " + maxToolRounds + " tool execution rounds"));
+            }
+
+            messages.add(aiMessage);
+            toolRequests.addAll(aiMessage.toolExecutionRequests());
+            return Flux.fromIterable(aiMessage.toolExecutionRequests())
+                    .flatMapSequential(request -> toolExecutor.execute(request)
+                            .map(result -> ToolExecutionResultMessage.from(request, result)))
+                    .collectList()
+                    .flatMap(results ->
+                    {
+                        messages.addAll(results);
+                        return converse(messages, toolRequests, round + 1);
+                    });
+        });
+    }
+
+    // The bulkhead starts the call once a permit is free, so subscribing does not park the caller
+    private Mono<AiMessage> generate(List<ChatMessage> messages)
+    {
+        List<ChatMessage> snapshot = List.copyOf(messages);
+        return Mono.<AiMessage>create(sink -> streamingChatModel.generate(snapshot, toolExecutor.toolSpecifications(),
+                        new StreamingResponseHandler<>()
+                        {
+                            @Override
+                            public void onNext(String token)
+                            {
+                            }
+
+                            @Override
+                            public void onComplete(Response<AiMessage> response)
+                            {
+                                sink.success(response.content());
+                            }
+
+                            @Override
+                            public void onError(Throwable error)
+                            {
+                                sink.error(error);
+                            }
+                        }));
+    }
+}
@@ -0,0 +1,35 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.cache;
+
+import java.util.Collection;
+
+public enum AnswerCategory
+{
+    WEATHER,
+    PRODUCT,
+    GEOGRAPHY,
+    GENERAL;
+
+    // The most volatile tool used decides how long the whole answer stays valid
+    public static AnswerCategory fromToolNames(Collection<String> toolNames)
+    {
+        if (toolNames.contains("getCurrentTemperature"))
+        {
+            return WEATHER;
+        }
+        if (toolNames.contains("searchCDQProductKnowledge"))
+        {
+            return PRODUCT;
+        }
+        if (toolNames.contains("getCapitalCity") || toolNames.contains("getCityInformation"))
+        {
+            return GEOGRAPHY;
+        }
+        return GENERAL;
+    }
+
+    // Questions that differ only in the city or country embed almost identically, so these answers need entities
+    public boolean isEntitySpecific()
+    {
+        return this == WEATHER || this == GEOGRAPHY;
+    }
+}
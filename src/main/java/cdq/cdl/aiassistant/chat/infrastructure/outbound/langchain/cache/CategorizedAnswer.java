@@ -0,0 +1,56 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+
+// Entities are the countries and cities the answer was looked up for
+public record CategorizedAnswer(AssistantAnswer answer, AnswerCategory category, Set<String> entities)
+{
+    // Arguments of the weather and geography tools that name the city or country an answer is about
+    private static final Set<String> ENTITY_ARGUMENTS = Set.of("countryName", "cityName");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public CategorizedAnswer(AssistantAnswer answer, AnswerCategory category)
+    {
+        this(answer, category, Set.of());
+    }
+
+    public static CategorizedAnswer of(AssistantAnswer answer, List<ToolExecutionRequest> toolRequests)
+    {
+        Set<String> toolNames = toolRequests.stream()
+                .map(ToolExecutionRequest::name)
+                .collect(Collectors.toSet());
+        Set<String> entities = toolRequests.stream()
+                .flatMap(request -> entitiesOf(request).stream())
+                .collect(Collectors.toSet());
+        return new CategorizedAnswer(answer, AnswerCategory.fromToolNames(toolNames), entities);
+    }
+
+    // Unparseable arguments yield no entities, which keeps a weather or geography answer out of the cache
+    private static Set<String> entitiesOf(ToolExecutionRequest request)
+    {
+        try
+        {
+            Map<String, Object> arguments = request.arguments() == null || request.arguments().isBlank()
+                    ? Map.of()
+                    : OBJECT_MAPPER.readValue(request.arguments(), new TypeReference<>() {});
+            return arguments.entrySet().stream()
+                    .filter(argument -> ENTITY_ARGUMENTS.contains(argument.getKey()) && argument.getValue() != null)
+                    .map(argument -> argument.getValue().toString().strip())
+                    .filter(value -> !value.isEmpty())
+                    .collect(Collectors.toSet());
+        }
+        catch (JsonProcessingException e)
+        {
+            return Set.of();
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.rag.KnowledgeBaseUpdatedEvent;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// Answers questions from earlier answers to paraphrases of them. Weather and geography answers are only reused
+// for questions that name the same cities and countries, because "capital of Germany" and "capital of France"
+// are closer than the similarity threshold.
+@Component
+@Slf4j
+public class SemanticAnswerCache
+{
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final EmbeddingModel embeddingModel;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final int maxEntries;
+    private final Map<AnswerCategory, Duration> ttls;
+    private final Clock clock;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter expirations;
+    private final Counter capacityEvictions;
+
+    // Access-ordered, so the eldest entry is always the least recently used one
+    private final LinkedHashMap<Long, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long nextId;
+
+    @Autowired
+    public SemanticAnswerCache(
+            EmbeddingModel embeddingModel,
+            MeterRegistry meterRegistry,
+            @Value("${chat.answer-cache.enabled:true}") boolean enabled,
+            @Value("${chat.answer-cache.similarity-threshold:0.92}") double similarityThreshold,
+            @Value("${chat.answer-cache.max-entries:1000}") int maxEntries,
+            @Value("${chat.answer-cache.ttl.weather:5m}") Duration weatherTtl,
+            @Value("${chat.answer-cache.ttl.product:24h}") Duration productTtl,
+            @Value("${chat.answer-cache.ttl.geography:7d}") Duration geographyTtl,
+            @Value("${chat.answer-cache.ttl.general:1h}") Duration generalTtl)
+    {
+        this(embeddingModel, meterRegistry, enabled, similarityThreshold, maxEntries,
+                ttlsOf(weatherTtl, productTtl, geographyTtl, generalTtl), Clock.systemUTC());
+    }
+
+    SemanticAnswerCache(EmbeddingModel embeddingModel,
+                        MeterRegistry meterRegistry,
+                        boolean enabled,
+                        double similarityThreshold,
+                        int maxEntries,
+                        Map<AnswerCategory, Duration> ttls,
+                        Clock clock)
+    {
+        this.embeddingModel = embeddingModel;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntries = maxEntries;
+        this.ttls = ttls;
+        this.clock = clock;
+
+        this.hits = meterRegistry.counter("ai.answer.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("ai.answer.cache.requests", "result", "miss");
+        this.expirations = meterRegistry.counter("ai.answer.cache.evictions", "reason", "expired");
+        this.capacityEvictions = meterRegistry.counter("ai.answer.cache.evictions", "reason", "capacity");
+        meterRegistry.gauge("ai.answer.cache.size", entries, this::sizeOf);
+    }
+
+    public AssistantAnswer getOrCompute(UserQuestion question, Function<UserQuestion, CategorizedAnswer> answerer)
+    {
+        float[] vector = enabled ? embed(question) : null;
+        if (vector == null)
+        {
+            return answerer.apply(question).answer();
+        }
+
+        AssistantAnswer cached = lookup(vector, question);
+        if (cached != null)
+        {
+            return cached;
+        }
+
+        CategorizedAnswer computed = answerer.apply(question);
+        store(vector, computed);
+        return computed.answer();
+    }
+
+    // Same as getOrCompute for the reactive pipeline; only the embedding call blocks, so it runs on boundedElastic
+    public Mono<AssistantAnswer> getOrComputeReactive(UserQuestion question, Function<UserQuestion, Mono<CategorizedAnswer>> answerer)
+    {
+        if (!enabled)
+        {
+            return answerer.apply(question).map(CategorizedAnswer::answer);
+        }
+
+        return Mono.fromCallable(() -> Optional.ofNullable(embed(question)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(vector ->
+                {
+                    if (vector.isEmpty())
+                    {
+                        return answerer.apply(question).map(CategorizedAnswer::answer);
+                    }
+
+                    AssistantAnswer cached = lookup(vector.get(), question);
+                    if (cached != null)
+                    {
+                        return Mono.just(cached);
+                    }
+                    return answerer.apply(question)
+                            .doOnNext(computed -> store(vector.get(), computed))
+                            .map(CategorizedAnswer::answer);
+                });
+    }
+
+    @EventListener
+    public void onKnowledgeBaseUpdated(KnowledgeBaseUpdatedEvent event)
+    {
+        int removed = evictCategory(AnswerCategory.PRODUCT);
+        log.info("Knowledge base updated, evicted {} cached product answers", removed);
+    }
+
+    private float[] embed(UserQuestion question)
+    {
+        try
+        {
+            return normalize(embeddingModel.embed(question.value()).content().vector());
+        }
+        catch (Exception e)
+        {
+            log.warn("Could not embed question for semantic cache lookup, answering without cache: [{}]", e.getMessage());
+            return null;
+        }
+    }
+
+    private AssistantAnswer lookup(float[] vector, UserQuestion question)
+    {
+        AssistantAnswer cached = findSimilar(vector, fold(question.value()));
+        if (cached == null)
+        {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        log.debug("Semantic cache hit for question: [{}]", question.value());
+        return cached;
+    }
+
+    synchronized int size()
+    {
+        return entries.size();
+    }
+
+    private synchronized AssistantAnswer findSimilar(float[] vector, String foldedQuestion)
+    {
+        Instant now = clock.instant();
+        CacheEntry best = null;
+        double bestSimilarity = similarityThreshold;
+
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext())
+        {
+            CacheEntry entry = iterator.next();
+            if (entry.isExpired(now))
+            {
+                iterator.remove();
+                expirations.increment();
+                continue;
+            }
+
+            double similarity = dot(vector, entry.vector());
+            if (similarity >= bestSimilarity && mentionsAll(foldedQuestion, entry.entities()))
+            {
+                bestSimilarity = similarity;
+                best = entry;
+            }
+        }
+
+        if (best == null)
+        {
+            return null;
+        }
+
+        // Touch the entry so it moves to the most recently used end
+        entries.get(best.id());
+        return best.answer();
+    }
+
+    private synchronized void store(float[] vector, CategorizedAnswer computed)
+    {
+        Duration ttl = ttls.get(computed.category());
+        if (ttl == null || ttl.isZero() || ttl.isNegative())
+        {
+            return;
+        }
+        // Without the entities the answer could be served for any other city or country
+        if (computed.category().isEntitySpecific() && computed.entities().isEmpty())
+        {
+            return;
+        }
+
+        Set<String> entities = computed.entities().stream()
+                .map(SemanticAnswerCache::fold)
+                .collect(Collectors.toUnmodifiableSet());
+        long id = nextId++;
+        entries.put(id, new CacheEntry(id, vector, computed.answer(), computed.category(), entities, clock.instant().plus(ttl)));
+
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext())
+        {
+            iterator.next();
+            iterator.remove();
+            capacityEvictions.increment();
+        }
+    }
+
+    private synchronized int evictCategory(AnswerCategory category)
+    {
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.category() == category);
+        return before - entries.size();
+    }
+
+    private synchronized double sizeOf(Map<Long, CacheEntry> map)
+    {
+        return map.size();
+    }
+
+    // Whole words only, so "Rome" is not found in "Romeo"
+    private static boolean mentionsAll(String foldedQuestion, Set<String> foldedEntities)
+    {
+        for (String entity : foldedEntities)
+        {
+            int from = 0;
+            int index;
+            boolean found = false;
+            while (!found && (index = foldedQuestion.indexOf(entity, from)) >= 0)
+            {
+                int end = index + entity.length();
+                found = (index == 0 || !Character.isLetterOrDigit(foldedQuestion.charAt(index - 1)))
+                        && (end == foldedQuestion.length() || !Character.isLetterOrDigit(foldedQuestion.charAt(end)));
+                from = index + 1;
+            }
+            if (!found)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lower case without accents, so "Bogotá" and "bogota" are the same entity
+    private static String fold(String text)
+    {
+        String decomposed = Normalizer.normalize(text.strip(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static double dot(float[] a, float[] b)
+    {
+        if (a.length != b.length)
+        {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < a.length; i++)
+        {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private static float[] normalize(float[] vector)
+    {
+        double norm = 0;
+        for (float v : vector)
+        {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++)
+        {
+            normalized[i] = norm == 0 ? 0 : (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    private static Map<AnswerCategory, Duration> ttlsOf(Duration weather, Duration product, Duration geography, Duration general)
+    {
+        Map<AnswerCategory, Duration> ttls = new EnumMap<>(AnswerCategory.class);
+        ttls.put(AnswerCategory.WEATHER, weather);
+        ttls.put(AnswerCategory.PRODUCT, product);
+        ttls.put(AnswerCategory.GEOGRAPHY, geography);
+        ttls.put(AnswerCategory.GENERAL, general);
+        return ttls;
+    }
+
+    private record CacheEntry(long id,
+                              float[] vector,
+                              AssistantAnswer answer,
+                              AnswerCategory category,
+                              Set<String> entities,
+                              Instant expiresAt)
+    {
+        boolean isExpired(Instant now)
+        {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.ConversationPort;
+import cdq.cdl.aiassistant.shared.text.TokenEstimator;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// History of a conversation as it is sent to the model: questions and final answers only, tool calls are not kept
+// because a follow-up repeats the ones it needs. Once a conversation exceeds max-tokens, its oldest turns are
+// summarized in the background into one message of at most summary-tokens. Until that is done, history() drops
+// the oldest turns instead, so no prompt ever carries more than max-tokens of history.
+@Component
+@Slf4j
+public class ConversationMemory implements ConversationPort
+{
+    static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+
+    private static final String SUMMARY_INSTRUCTION = """
+            Summarize the following conversation between a user and an assistant in at most %d words.
+            Keep the names, places, products and numbers the user may refer back to. Reply with the summary only.
+            """;
+
+    // Role markers and separators the chat template adds around every message
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+    private static final int LOCK_STRIPES = 64;
+
+    private final ChatMemoryStore store;
+    private final ChatLanguageModel chatModel;
+    private final int maxTokens;
+    private final int summaryTokens;
+    private final Executor compactionExecutor;
+
+    private final Set<String> compacting = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final DistributionSummary historyTokens;
+    private final Counter compactions;
+    private final Counter failedCompactions;
+
+    @Autowired
+    public ConversationMemory(ChatMemoryStore store,
+                              ChatLanguageModel chatModel,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.memory.max-tokens:1000}") int maxTokens,
+                              @Value("${chat.memory.summary-tokens:250}") int summaryTokens)
+    {
+        this(store, chatModel, meterRegistry, maxTokens, summaryTokens,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("memory-compaction-", 0).factory()));
+    }
+
+    ConversationMemory(ChatMemoryStore store,
+                       ChatLanguageModel chatModel,
+                       MeterRegistry meterRegistry,
+                       int maxTokens,
+                       int summaryTokens,
+                       Executor compactionExecutor)
+    {
+        // The summary has to leave room for at least the latest turn
+        if (summaryTokens <= 0 || summaryTokens >= maxTokens / 2)
+        {
+            throw new IllegalArgumentException("chat.memory.summary-tokens must be positive and below half of max-tokens");
+        }
+        this.store = store;
+        this.chatModel = chatModel;
+        this.maxTokens = maxTokens;
+        this.summaryTokens = summaryTokens;
+        this.compactionExecutor = compactionExecutor;
+
+        for (int i = 0; i < locks.length; i++)
+        {
+            locks[i] = new ReentrantLock();
+        }
+
+        this.historyTokens = DistributionSummary.builder("chat.memory.history.tokens")
+                .description("Estimated tokens of conversation history sent with a question")
+                .register(meterRegistry);
+        this.compactions = meterRegistry.counter("chat.memory.compactions", "result", "success");
+        this.failedCompactions = meterRegistry.counter("chat.memory.compactions", "result", "failure");
+    }
+
+    @Override
+    public String start(UserQuestion question, AssistantAnswer answer)
+    {
+        String conversationId = UUID.randomUUID().toString();
+        record(conversationId, question.value(), answer.value());
+        return conversationId;
+    }
+
+    // Issued ids have at least their first turn stored until the conversation is purged
+    @Override
+    public boolean exists(String conversationId)
+    {
+        return !store.getMessages(conversationId).isEmpty();
+    }
+
+    public List<ChatMessage> history(String conversationId)
+    {
+        List<ChatMessage> history = withinLimit(store.getMessages(conversationId));
+        historyTokens.record(tokensOf(history));
+        return history;
+    }
+
+    public void record(String conversationId, String question, String answer)
+    {
+        List<ChatMessage> messages;
+        ReentrantLock lock = lockFor(conversationId);
+        lock.lock();
+        try
+        {
+            messages = new ArrayList<>(store.getMessages(conversationId));
+            messages.add(UserMessage.from(question));
+            messages.add(AiMessage.from(answer == null ? "" : answer));
+            store.updateMessages(conversationId, messages);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if (tokensOf(messages) > maxTokens && compacting.add(conversationId))
+        {
+            compactionExecutor.execute(() -> compact(conversationId));
+        }
+    }
+
+    void compact(String conversationId)
+    {
+        try
+        {
+            List<ChatMessage> snapshot = store.getMessages(conversationId);
+            int firstKept = firstKeptTurn(snapshot);
+            int firstTurn = hasSummary(snapshot) ? 1 : 0;
+            if (firstKept <= firstTurn)
+            {
+                return;
+            }
+
+            SystemMessage summary = SystemMessage.from(summarize(snapshot.subList(0, firstKept)));
+            if (replacePrefix(conversationId, snapshot.subList(0, firstKept), summary))
+            {
+                compactions.increment();
+                log.debug("Summarized {} message(s) of conversation [{}]", firstKept, conversationId);
+            }
+        }
+        catch (Exception e)
+        {
+            failedCompactions.increment();
+            log.warn("Failed to summarize conversation [{}], dropping its oldest turns instead: [{}]", conversationId, e.getMessage());
+        }
+        finally
+        {
+            compacting.remove(conversationId);
+        }
+    }
+
+    // Turns were only appended while the model was summarizing, unless the conversation was deleted meanwhile
+    private boolean replacePrefix(String conversationId, List<ChatMessage> summarized, SystemMessage summary)
+    {
+        ReentrantLock lock = lockFor(conversationId);
+        lock.lock();
+        try
+        {
+            List<ChatMessage> current = store.getMessages(conversationId);
+            if (current.size() < summarized.size() || !current.subList(0, summarized.size()).equals(summarized))
+            {
+                return false;
+            }
+
+            List<ChatMessage> compacted = new ArrayList<>(current.size() - summarized.size() + 1);
+            compacted.add(summary);
+            compacted.addAll(current.subList(summarized.size(), current.size()));
+            store.updateMessages(conversationId, compacted);
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private String summarize(List<ChatMessage> messages)
+    {
+        StringBuilder transcript = new StringBuilder();
+        for (ChatMessage message : messages)
+        {
+            String role = switch (message)
+            {
+                case UserMessage ignored -> "User: ";
+                case AiMessage ignored -> "Assistant: ";
+                default -> "";
+            };
+            transcript.append(role).append(textOf(message)).append("\n\n");
+        }
+
+        // Roughly three words per four estimated tokens, the result is cut to the limit if the model overshoots
+        String instruction = SUMMARY_INSTRUCTION.formatted(summaryTokens * 3 / 4);
+        String summary = chatModel.generate(SystemMessage.from(instruction), UserMessage.from(transcript.toString()))
+                .content()
+                .text();
+        return truncate(SUMMARY_PREFIX + summary.strip(), summaryTokens - MESSAGE_OVERHEAD_TOKENS);
+    }
+
+    // Index of the oldest turn that is kept verbatim: the newest turns that fit next to a summary of the others
+    private int firstKeptTurn(List<ChatMessage> messages)
+    {
+        int budget = maxTokens - summaryTokens;
+        int firstTurn = hasSummary(messages) ? 1 : 0;
+        int tokens = 0;
+        int firstKept = messages.size();
+
+        for (int i = messages.size() - 1; i >= firstTurn; i--)
+        {
+            tokens += tokensOf(messages.get(i));
+            if (tokens > budget)
+            {
+                break;
+            }
+            if (messages.get(i) instanceof UserMessage)
+            {
+                firstKept = i;
+            }
+        }
+        return firstKept;
+    }
+
+    // Drops whole turns from the start, never the summary, until the history fits into max-tokens
+    private List<ChatMessage> withinLimit(List<ChatMessage> messages)
+    {
+        int tokens = tokensOf(messages);
+        if (tokens <= maxTokens)
+        {
+            return messages;
+        }
+
+        int firstTurn = hasSummary(messages) ? 1 : 0;
+        int firstKept = firstTurn;
+        while (firstKept < messages.size() && (tokens > maxTokens || !(messages.get(firstKept) instanceof UserMessage)))
+        {
+            tokens -= tokensOf(messages.get(firstKept));
+            firstKept++;
+        }
+
+        List<ChatMessage> bounded = new ArrayList<>(messages.subList(0, firstTurn));
+        bounded.addAll(messages.subList(firstKept, messages.size()));
+        return bounded;
+    }
+
+    private ReentrantLock lockFor(String conversationId)
+    {
+        return locks[Math.floorMod(conversationId.hashCode(), locks.length)];
+    }
+
+    private static boolean hasSummary(List<ChatMessage> messages)
+    {
+        return !messages.isEmpty() && messages.getFirst() instanceof SystemMessage;
+    }
+
+    static int tokensOf(List<ChatMessage> messages)
+    {
+        int tokens = 0;
+        for (ChatMessage message : messages)
+        {
+            tokens += tokensOf(message);
+        }
+        return tokens;
+    }
+
+    private static int tokensOf(ChatMessage message)
+    {
+        return TokenEstimator.estimate(textOf(message)) + MESSAGE_OVERHEAD_TOKENS;
+    }
+
+    private static String textOf(ChatMessage message)
+    {
+        String text = switch (message)
+        {
+            case UserMessage user -> user.singleText();
+            case AiMessage ai -> ai.text();
+            case SystemMessage system -> system.text();
+            default -> throw new IllegalArgumentException("Unexpected message in conversation history: " + message.type());
+        };
+        return text == null ? "" : text;
+    }
+
+    private static String truncate(String text, int maxTokens)
+    {
+        if (TokenEstimator.estimate(text) <= maxTokens)
+        {
+            return text;
+        }
+
+        String[] words = text.split(" ");
+        StringBuilder truncated = new StringBuilder();
+        for (String word : words)
+        {
+            int length = truncated.length();
+            truncated.append(length == 0 ? "" : " ").append(word);
+            if (TokenEstimator.estimate(truncated) > maxTokens)
+            {
+                truncated.setLength(length);
+                break;
+            }
+        }
+        return truncated.toString();
+    }
+}
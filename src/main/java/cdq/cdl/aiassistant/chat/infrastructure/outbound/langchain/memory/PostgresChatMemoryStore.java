@@ -0,0 +1,233 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.memory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Write-behind store for conversation histories, one JSONB row per conversation. Once read, a conversation is
+// served from memory; updates only mark it dirty, and every flush writes all conversations changed since the last
+// one in a single JDBC batch. A crash loses at most the turns of one flush interval.
+@Component
+@Slf4j
+class PostgresChatMemoryStore implements ChatMemoryStore
+{
+    static final String TABLE = "chat_conversation_memory";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxCachedConversations;
+    private final Duration retention;
+
+    // Access-ordered, so the eldest entry is the least recently used conversation
+    private final LinkedHashMap<String, List<ChatMessage>> cache = new LinkedHashMap<>(16, 0.75f, true);
+    // Changed since the last flush and being written by the current one, an empty history deletes the row.
+    // Both are consulted before the cache, so evicting a conversation that is not written yet loses nothing.
+    private Map<String, List<ChatMessage>> dirty = new LinkedHashMap<>();
+    private Map<String, List<ChatMessage>> flushing = Map.of();
+
+    private volatile boolean available;
+
+    PostgresChatMemoryStore(JdbcTemplate jdbcTemplate,
+                            @Value("${chat.memory.max-cached-conversations:10000}") int maxCachedConversations,
+                            @Value("${chat.memory.retention:30d}") Duration retention)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxCachedConversations = maxCachedConversations;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    void ensureSchema()
+    {
+        try
+        {
+            jdbcTemplate.execute("""
+                    CREATE TABLE IF NOT EXISTS %s (
+                        conversation_id varchar(128) PRIMARY KEY,
+                        messages jsonb NOT NULL,
+                        updated_at timestamptz NOT NULL
+                    )
+                    """.formatted(TABLE));
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + TABLE + "_updated_at_idx ON " + TABLE + " (updated_at)");
+            available = true;
+        }
+        catch (Exception e)
+        {
+            log.warn("Could not create {}, conversations are kept in memory only: [{}]", TABLE, e.getMessage());
+        }
+    }
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId)
+    {
+        String conversationId = memoryId.toString();
+        synchronized (this)
+        {
+            List<ChatMessage> known = lookup(conversationId);
+            if (known != null)
+            {
+                return known;
+            }
+        }
+
+        List<ChatMessage> loaded = load(conversationId);
+        synchronized (this)
+        {
+            // An update that arrived while loading is newer than the row
+            List<ChatMessage> known = lookup(conversationId);
+            if (known != null)
+            {
+                return known;
+            }
+            cache(conversationId, loaded);
+            return loaded;
+        }
+    }
+
+    @Override
+    public synchronized void updateMessages(Object memoryId, List<ChatMessage> messages)
+    {
+        String conversationId = memoryId.toString();
+        List<ChatMessage> history = List.copyOf(messages);
+        dirty.put(conversationId, history);
+        cache(conversationId, history);
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId)
+    {
+        updateMessages(memoryId, List.of());
+    }
+
+    @Scheduled(fixedDelayString = "${chat.memory.flush-interval:1s}")
+    void flush()
+    {
+        Map<String, List<ChatMessage>> batch;
+        synchronized (this)
+        {
+            if (dirty.isEmpty())
+            {
+                return;
+            }
+            batch = dirty;
+            flushing = batch;
+            dirty = new LinkedHashMap<>();
+        }
+
+        try
+        {
+            write(batch);
+        }
+        catch (Exception e)
+        {
+            log.warn("Failed to write {} conversation(s), retrying with the next flush: [{}]", batch.size(), e.getMessage());
+            synchronized (this)
+            {
+                // Conversations updated in the meantime already carry the newer history
+                batch.forEach(dirty::putIfAbsent);
+            }
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                flushing = Map.of();
+            }
+        }
+    }
+
+    @Scheduled(cron = "${chat.memory.purge-cron:0 30 3 * * *}")
+    void purgeExpired()
+    {
+        if (!available)
+        {
+            return;
+        }
+        int purged = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE updated_at < now() - make_interval(secs => ?)",
+                retention.toSeconds());
+        log.info("Purged {} conversation(s) idle for more than {}", purged, retention);
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        flush();
+    }
+
+    private List<ChatMessage> lookup(String conversationId)
+    {
+        List<ChatMessage> messages = dirty.get(conversationId);
+        if (messages == null)
+        {
+            messages = flushing.get(conversationId);
+        }
+        return messages == null ? cache.get(conversationId) : messages;
+    }
+
+    private void cache(String conversationId, List<ChatMessage> messages)
+    {
+        cache.put(conversationId, messages);
+        if (cache.size() > maxCachedConversations)
+        {
+            cache.remove(cache.keySet().iterator().next());
+        }
+    }
+
+    private List<ChatMessage> load(String conversationId)
+    {
+        if (!available)
+        {
+            return List.of();
+        }
+        List<String> rows = jdbcTemplate.queryForList(
+                "SELECT messages::text FROM " + TABLE + " WHERE conversation_id = ?", String.class, conversationId);
+        return rows.isEmpty() ? List.of() : List.copyOf(ChatMessageDeserializer.messagesFromJson(rows.getFirst()));
+    }
+
+    private void write(Map<String, List<ChatMessage>> batch)
+    {
+        if (!available)
+        {
+            return;
+        }
+
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        batch.forEach((conversationId, messages) ->
+        {
+            if (messages.isEmpty())
+            {
+                deletes.add(new Object[]{conversationId});
+            }
+            else
+            {
+                upserts.add(new Object[]{conversationId, ChatMessageSerializer.messagesToJson(messages)});
+            }
+        });
+
+        if (!upserts.isEmpty())
+        {
+            jdbcTemplate.batchUpdate("INSERT INTO " + TABLE + " (conversation_id, messages, updated_at) VALUES (?, ?::jsonb, now()) "
+                    + "ON CONFLICT (conversation_id) DO UPDATE SET messages = excluded.messages, updated_at = excluded.updated_at", upserts);
+        }
+        if (!deletes.isEmpty())
+        {
+            jdbcTemplate.batchUpdate("DELETE FROM " + TABLE + " WHERE conversation_id = ?", deletes);
+        }
+        log.debug("Flushed {} conversation(s) to {}", batch.size(), TABLE);
+    }
+}
@@ -16,13 +16,14 @@ import lombok.extern.slf4j.Slf4j;
 public class GeographyTool
 {
     private final CountriesPort countriesPort;
+    private final ToolMetrics toolMetrics;
 
     @Tool("Get the capital city of a given countryName")
     public String getCapitalCity(String countryName)
     {
         log.debug("Tool execution started: tool=getCapitalCity, query=[{}]", countryName);
 
-        City capital = countriesPort.getCapitalOf(Country.of(countryName));
+        City capital = toolMetrics.record("getCapitalCity", () -> countriesPort.getCapitalOf(Country.of(countryName)));
 
         log.debug("Tool execution ended: tool=getCapitalCity, result=[{}]", capital.name());
         return capital.name();
@@ -33,7 +34,7 @@ public class GeographyTool
     {
         log.debug("Tool execution started: tool=getCityInformation, query=[{}]", cityName);
 
-        CityInformation info = countriesPort.getCityInformation(City.of(cityName));
+        CityInformation info = toolMetrics.record("getCityInformation", () -> countriesPort.getCityInformation(City.of(cityName)));
         String description = info.toDescription();
 
         log.debug("Tool execution ended: tool=getCityInformation, result=[{}]", description);
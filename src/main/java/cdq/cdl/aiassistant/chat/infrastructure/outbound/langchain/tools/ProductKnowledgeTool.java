@@ -14,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductKnowledgeTool
 {
     private final ProductKnowledgePort knowledgePort;
+    private final ToolMetrics toolMetrics;
 
     @Tool(value = "Search the CDQ product knowledge base for information about CDQ products and services. "
             + "ALWAYS use this tool when the question mentions: "
@@ -28,7 +29,7 @@ public class ProductKnowledgeTool
     {
         log.debug("Tool execution started: tool=searchProductKnowledge, query=[{}]", query);
 
-        String result = knowledgePort.search(query);
+        String result = toolMetrics.record("searchCDQProductKnowledge", () -> knowledgePort.search(query));
 
         log.debug("Tool execution ended: tool=searchProductKnowledge, result=[{}]", result);
         return result;
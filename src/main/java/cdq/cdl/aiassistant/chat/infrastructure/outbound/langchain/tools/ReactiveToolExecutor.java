@@ -0,0 +1,113 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.CityInformation;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveCountriesPort;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveProductKnowledgePort;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveWeatherPort;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.agent.tool.ToolSpecifications;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+// Executes the same tools as the @Tool beans, with their specifications, but through the reactive ports
+@Component
+@Slf4j
+public class ReactiveToolExecutor
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ReactiveCountriesPort countriesPort;
+    private final ReactiveWeatherPort weatherPort;
+    private final ReactiveProductKnowledgePort knowledgePort;
+    private final ToolMetrics toolMetrics;
+    private final List<ToolSpecification> toolSpecifications = new ArrayList<>();
+
+    public ReactiveToolExecutor(ReactiveCountriesPort countriesPort,
+                                ReactiveWeatherPort weatherPort,
+                                ReactiveProductKnowledgePort knowledgePort,
+                                ToolMetrics toolMetrics)
+    {
+        this.countriesPort = countriesPort;
+        this.weatherPort = weatherPort;
+        this.knowledgePort = knowledgePort;
+        this.toolMetrics = toolMetrics;
+
+        toolSpecifications.addAll(ToolSpecifications.toolSpecificationsFrom(GeographyTool.class));
+        toolSpecifications.addAll(ToolSpecifications.toolSpecificationsFrom(WeatherTool.class));
+        toolSpecifications.addAll(ToolSpecifications.toolSpecificationsFrom(ProductKnowledgeTool.class));
+    }
+
+    public List<ToolSpecification> toolSpecifications()
+    {
+        return toolSpecifications;
+    }
+
+    // Failures are returned as the tool result, the same way AiServices reports them back to the model
+    public Mono<String> execute(ToolExecutionRequest request)
+    {
+        log.debug("Reactive tool execution started: tool={}, arguments=[{}]", request.name(), request.arguments());
+
+        Mono<String> execution = Mono.defer(() -> dispatch(request.name(), parseArguments(request.arguments())));
+        return toolMetrics.record(meteredName(request.name()), execution)
+                .onErrorResume(e -> Mono.just(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage()));
+    }
+
+    private Mono<String> dispatch(String toolName, Map<String, Object> arguments)
+    {
+        return switch (toolName)
+        {
+            case "getCapitalCity" -> countriesPort.getCapitalOf(Country.of(argument(arguments, "countryName")))
+                    .map(City::name);
+            case "getCityInformation" -> countriesPort.getCityInformation(City.of(argument(arguments, "cityName")))
+                    .map(CityInformation::toDescription);
+            case "getCurrentTemperature" -> weatherPort.getCurrentTemperature(City.of(argument(arguments, "cityName")))
+                    .map(temperature -> String.valueOf(temperature.celsius()));
+            case "searchCDQProductKnowledge" -> knowledgePort.search(argument(arguments, "query"));
+            default -> Mono.just("Error: there is no tool called " + toolName);
+        };
+    }
+
+    // Names come from the model, so unknown ones share a tag instead of creating a meter each
+    private String meteredName(String toolName)
+    {
+        return toolSpecifications.stream().anyMatch(specification -> specification.name().equals(toolName))
+                ? toolName
+                : "unknown";
+    }
+
+    private static String argument(Map<String, Object> arguments, String name)
+    {
+        Object value = arguments.get(name);
+        if (value == null)
+        {
+            throw new IllegalArgumentException("Missing tool argument: " + name);
+        }
+        return value.toString();
+    }
+
+    private static Map<String, Object> parseArguments(String arguments)
+    {
+        try
+        {
+            return arguments == null || arguments.isBlank()
+                    ? Map.of()
+                    : OBJECT_MAPPER.readValue(arguments, new TypeReference<>() {});
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new IllegalArgumentException("Invalid tool arguments: " + arguments, e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+// tool.calls{tool, outcome}, shared by the @Tool beans and the reactive tool executor
+@Component
+@RequiredArgsConstructor
+public class ToolMetrics
+{
+    private final MeterRegistry meterRegistry;
+
+    <T> T record(String tool, Supplier<T> call)
+    {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try
+        {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        }
+        finally
+        {
+            sample.stop(timer(tool, outcome));
+        }
+    }
+
+    <T> Mono<T> record(String tool, Mono<T> call)
+    {
+        return Mono.defer(() ->
+        {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnSuccess(result -> sample.stop(timer(tool, "success")))
+                    .doOnError(error -> sample.stop(timer(tool, "error")));
+        });
+    }
+
+    private Timer timer(String tool, String outcome)
+    {
+        return meterRegistry.timer("tool.calls", "tool", tool, "outcome", outcome);
+    }
+}
@@ -15,13 +15,14 @@ import lombok.extern.slf4j.Slf4j;
 public class WeatherTool
 {
     private final WeatherPort weatherPort;
+    private final ToolMetrics toolMetrics;
 
     @Tool("Get the current temperature in Celsius for a given city")
     public double getCurrentTemperature(String cityName)
     {
         log.debug("Tool execution started: tool=getCurrentTemperature, query=[{}]", cityName);
 
-        Temperature temperature = weatherPort.getCurrentTemperature(City.of(cityName));
+        Temperature temperature = toolMetrics.record("getCurrentTemperature", () -> weatherPort.getCurrentTemperature(City.of(cityName)));
 
         log.debug("Tool execution ended: tool=getCurrentTemperature, result=[{}°C]", temperature.celsius());
         return temperature.celsius();
@@ -0,0 +1,194 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.rag.PgVectorIngestionHelper.StoredChunk;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Syncs the chunks of a source by content hash: only new or changed chunks are embedded (in multi-input batches
+// with bounded parallelism) and streamed into pgvector via COPY, chunks that disappeared are deleted
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class BatchedKnowledgeIngestor
+{
+    private final EmbeddingModel embeddingModel;
+    private final PgVectorCopyWriter copyWriter;
+    private final PgVectorIngestionHelper ingestionHelper;
+
+    @Value("${rag.ingestion.embedding.batch-size:32}")
+    private int batchSize;
+
+    @Value("${rag.ingestion.embedding.parallelism:2}")
+    private int parallelism;
+
+    IngestionStats sync(String source, List<TextSegment> segments)
+    {
+        long start = System.nanoTime();
+
+        List<TextSegment> hashed = segments.stream()
+                .map(segment -> withSourceAndHash(segment, source))
+                .toList();
+        Set<String> currentHashes = new HashSet<>();
+        hashed.forEach(segment -> currentHashes.add(segment.metadata().getString(PgVectorIngestionHelper.CONTENT_HASH)));
+
+        // Keep one stored row per current hash, everything else (changed, removed, duplicated or legacy rows) is stale
+        Set<String> unchangedHashes = new HashSet<>();
+        List<String> staleIds = new ArrayList<>();
+        for (StoredChunk stored : ingestionHelper.storedChunks(source))
+        {
+            if (stored.contentHash() != null && currentHashes.contains(stored.contentHash()) && unchangedHashes.add(stored.contentHash()))
+            {
+                continue;
+            }
+            staleIds.add(stored.id());
+        }
+
+        Set<String> queued = new HashSet<>();
+        List<TextSegment> toEmbed = hashed.stream()
+                .filter(segment ->
+                {
+                    String hash = segment.metadata().getString(PgVectorIngestionHelper.CONTENT_HASH);
+                    return !unchangedHashes.contains(hash) && queued.add(hash);
+                })
+                .toList();
+
+        int embedded = toEmbed.isEmpty() && staleIds.isEmpty() ? 0 : embedAndReplace(staleIds, toEmbed);
+
+        IngestionStats stats = new IngestionStats(embedded, segments.size() - embedded, staleIds.size(),
+                Duration.ofNanos(System.nanoTime() - start));
+        log.info("Synced [{}]: {} chunks embedded, {} unchanged skipped, {} removed in {} ms ({} chunks/sec, batch size {}, parallelism {})",
+                source, stats.embedded(), stats.skipped(), stats.removed(), stats.duration().toMillis(),
+                String.format("%.1f", stats.chunksPerSecond()), batchSize, parallelism);
+        return stats;
+    }
+
+    // For sources that no longer exist, e.g. pages dropped from the site; every other source must be listed
+    IngestionStats removeSourcesOtherThan(Set<String> sources)
+    {
+        long start = System.nanoTime();
+        int removed = ingestionHelper.deleteSourcesOtherThan(sources);
+        if (removed > 0)
+        {
+            log.info("Removed {} chunks of sources that are no longer crawled", removed);
+        }
+        return new IngestionStats(0, 0, removed, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    boolean hasChunks(String source)
+    {
+        return !ingestionHelper.storedChunks(source).isEmpty();
+    }
+
+    boolean hasAnyChunks()
+    {
+        return ingestionHelper.hasAnyChunks();
+    }
+
+    private int embedAndReplace(Collection<String> staleIds, List<TextSegment> segments)
+    {
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism))
+        {
+            List<Future<List<EmbeddedChunk>>> batches = new ArrayList<>();
+            for (int from = 0; from < segments.size(); from += batchSize)
+            {
+                List<TextSegment> batch = segments.subList(from, Math.min(from + batchSize, segments.size()));
+                batches.add(executor.submit(() -> embed(batch)));
+            }
+
+            // Batches are written in submission order while later ones are still being embedded
+            return copyWriter.replace(staleIds, () -> awaitInOrder(batches));
+        }
+    }
+
+    private List<EmbeddedChunk> embed(List<TextSegment> batch)
+    {
+        List<Embedding> embeddings = embeddingModel.embedAll(batch).content();
+        if (embeddings.size() != batch.size())
+        {
+            throw new IllegalStateException("Expected " + batch.size() + " embeddings but got " + embeddings.size());
+        }
+
+        List<EmbeddedChunk> chunks = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++)
+        {
+            chunks.add(new EmbeddedChunk(UUID.randomUUID().toString(), embeddings.get(i), batch.get(i)));
+        }
+        return chunks;
+    }
+
+    private static Iterator<List<EmbeddedChunk>> awaitInOrder(List<Future<List<EmbeddedChunk>>> batches)
+    {
+        Iterator<Future<List<EmbeddedChunk>>> futures = batches.iterator();
+        return new Iterator<>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return futures.hasNext();
+            }
+
+            @Override
+            public List<EmbeddedChunk> next()
+            {
+                try
+                {
+                    return futures.next().get();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for embeddings", e);
+                }
+                catch (ExecutionException e)
+                {
+                    throw new IllegalStateException("Embedding batch failed", e.getCause());
+                }
+            }
+        };
+    }
+
+    private static TextSegment withSourceAndHash(TextSegment segment, String source)
+    {
+        Metadata metadata = segment.metadata().copy()
+                .put(PgVectorIngestionHelper.SOURCE, source)
+                .put(PgVectorIngestionHelper.CONTENT_HASH, contentHash(segment.text()));
+        return TextSegment.from(segment.text(), metadata);
+    }
+
+    static String contentHash(String text)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
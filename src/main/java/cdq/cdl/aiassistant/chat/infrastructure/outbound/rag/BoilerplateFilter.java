@@ -0,0 +1,67 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Rejects navigation, cookie banners and similar page chrome during ingestion. Built once from configuration:
+// phrases anywhere in the text go through one Aho-Corasick pass, whole-text navigation labels are a set lookup
+// and only the optional extra patterns are regular expressions, compiled here rather than per call.
+@Component
+class BoilerplateFilter
+{
+    private final PhraseMatcher phrases;
+    private final Set<String> navigationLabels;
+    private final int longestNavigationLabel;
+    private final List<Pattern> patterns;
+
+    BoilerplateFilter(@Value("${rag.ingestion.boilerplate.phrases}") List<String> phrases,
+                      @Value("${rag.ingestion.boilerplate.navigation-labels:}") List<String> navigationLabels,
+                      @Value("${rag.ingestion.boilerplate.patterns:}") List<String> patterns)
+    {
+        this.phrases = new PhraseMatcher(phrases.stream()
+                .filter(phrase -> !phrase.isBlank())
+                .toList());
+        this.navigationLabels = navigationLabels.stream()
+                .map(String::strip)
+                .map(String::toLowerCase)
+                .filter(label -> !label.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.longestNavigationLabel = this.navigationLabels.stream()
+                .mapToInt(String::length)
+                .max()
+                .orElse(0);
+        this.patterns = patterns.stream()
+                .filter(pattern -> !pattern.isBlank())
+                .map(pattern -> Pattern.compile(pattern, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE))
+                .toList();
+    }
+
+    boolean isRelevant(String text)
+    {
+        if (phrases.containsAny(text))
+        {
+            return false;
+        }
+
+        // Labels are short, so most paragraphs skip the lower-casing entirely
+        String stripped = text.strip();
+        if (stripped.length() <= longestNavigationLabel && navigationLabels.contains(stripped.toLowerCase()))
+        {
+            return false;
+        }
+
+        for (Pattern pattern : patterns)
+        {
+            if (pattern.matcher(text).find())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
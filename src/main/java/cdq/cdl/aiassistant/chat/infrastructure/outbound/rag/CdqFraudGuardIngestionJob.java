@@ -1,18 +1,28 @@
 package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
 
-import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import dev.langchain4j.data.document.Document;
-import dev.langchain4j.store.embedding.EmbeddingStoreIngestor;
-import jakarta.annotation.PostConstruct;
+import dev.langchain4j.data.segment.TextSegment;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,186 +34,362 @@ class CdqFraudGuardIngestionJob
     @Value("${rag.ingestion.cdq-fraud-guard.url}")
     private String fraudGuardUrl;
 
-    private final EmbeddingStoreIngestor ingestor;
-    private final PgVectorIngestionHelper ingestionHelper;
+    // Every crawled page is synced as its own source, so a changed page only re-embeds its own chunks
+    @Value("${rag.ingestion.crawler.seeds:${rag.ingestion.cdq-fraud-guard.url}}")
+    private List<String> seeds;
 
-    @PostConstruct
-    void ingest()
+    @Value("${rag.ingestion.crawler.sitemaps:}")
+    private List<String> sitemaps;
+
+    @Value("${rag.ingestion.enabled:true}")
+    private boolean ingestionEnabled;
+
+    // A failed ingestion without servable content is retried, doubling the delay up to max-backoff
+    @Value("${rag.ingestion.retry.initial-backoff:30s}")
+    private Duration initialRetryBackoff;
+
+    @Value("${rag.ingestion.retry.max-backoff:10m}")
+    private Duration maxRetryBackoff;
+
+    private final BatchedKnowledgeIngestor ingestor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KnowledgeBaseStatus status;
+    private final BoilerplateFilter boilerplateFilter;
+    private final KnowledgeCrawler crawler;
+    private final TextChunker chunker;
+    private final NearDuplicateFilter nearDuplicates;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("knowledge-ingestion").daemon(true).factory());
+
+    // Only touched on the ingestion thread
+    private Duration retryBackoff;
+
+    // Runs after the context is ready so startup never waits for scraping and embedding
+    @EventListener(ApplicationReadyEvent.class)
+    void startIngestion()
     {
-        if (ingestionHelper.tableExistsAndNotEmpty())
+        if (!ingestionEnabled)
         {
-            log.info("Vector table already exists and is not empty, skipping ingestion");
+            log.info("Knowledge ingestion disabled, serving the vector store as is");
+            status.markReady();
             return;
         }
 
-        log.info("Starting CDQ Fraud Guard content ingestion from [{}]", fraudGuardUrl);
+        retryBackoff = initialRetryBackoff;
+        executor.execute(this::runStartupIngestion);
+    }
 
-        try
+    // Refreshes share the single ingestion thread, so they never overlap with each other or the startup run
+    @Scheduled(cron = "${rag.ingestion.refresh-cron:-}")
+    void refresh()
+    {
+        if (ingestionEnabled)
         {
-            org.jsoup.nodes.Document doc = Jsoup.connect(fraudGuardUrl)
-                    .userAgent("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7)")
-                    .timeout(10000)
-                    .get();
+            executor.execute(this::runIngestion);
+        }
+    }
 
-            List<String> textChunks = new ArrayList<>();
+    private void runStartupIngestion()
+    {
+        serveExistingContent();
+        runIngestion();
+    }
 
-            // Extract title and meta description
-            String title = doc.title();
-            String metaDescription = doc.select("meta[name=description]").attr("content");
+    // Rows of a previous run are searchable while they are re-synced, a failed sync then keeps them
+    private void serveExistingContent()
+    {
+        try
+        {
+            if (!status.isReady() && ingestor.hasAnyChunks())
+            {
+                log.info("Serving previously ingested knowledge while it is re-synced");
+                status.markReady();
+            }
+        }
+        catch (Exception e)
+        {
+            log.warn("Could not check for previously ingested knowledge: [{}]", e.getMessage());
+        }
+    }
 
-            if (!title.isEmpty() && !metaDescription.isEmpty())
+    private void runIngestion()
+    {
+        try
+        {
+            IngestionStats stats = ingest();
+            status.recordSync(stats);
+            status.markReady();
+            retryBackoff = initialRetryBackoff;
+        }
+        catch (Exception e)
+        {
+            if (status.isReady())
             {
-                textChunks.add("OVERVIEW: " + title + "\n\n" + metaDescription);
-                log.debug("Extracted title: [{}]", title);
+                log.error("Knowledge base refresh failed, keeping the current content", e);
+                return;
             }
+            log.error("Knowledge base ingestion failed, retrying in {}", retryBackoff, e);
+            status.markFailed(e);
+            executor.schedule(this::runStartupIngestion, retryBackoff.toMillis(), TimeUnit.MILLISECONDS);
+            retryBackoff = min(retryBackoff.multipliedBy(2), maxRetryBackoff);
+        }
+    }
+
+    private static Duration min(Duration a, Duration b)
+    {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        executor.shutdownNow();
+    }
 
-            // Remove header, navigation, footer, and other non-content elements
-            doc.select("header, nav, footer, .header, .navigation, .nav, .menu, .footer").remove();
-            doc.select("[role=navigation], [role=banner], [role=contentinfo]").remove();
-            doc.select(".cookie, .cookies, #cookie-banner, .gdpr").remove();
+    IngestionStats ingest() throws InterruptedException
+    {
+        log.info("Starting knowledge ingestion from {} seed(s) and {} sitemap(s)", seeds.size(), sitemaps.size());
 
-            // Target main content areas only
-            Elements mainContent = doc.select("main, article, .content, .main-content, [role=main]");
+        AtomicReference<IngestionStats> total = new AtomicReference<>(IngestionStats.NONE);
+        int[] pages = new int[CrawledPage.Status.values().length];
+        Set<String> crawledSources = new HashSet<>();
 
-            if (mainContent.isEmpty())
+        boolean complete = crawler.crawl(uris(seeds), uris(sitemaps), page ->
+        {
+            pages[page.status().ordinal()]++;
+            if (!page.isGone())
             {
-                // Fallback but still exclude common non-content areas
-                mainContent = doc.select("body");
-                mainContent.select("header, nav, footer, aside, .sidebar").remove();
-                log.debug("Fallback to body element for content extraction (with filters)");
+                crawledSources.add(page.url().toString());
             }
-
-            // Extract structured sections with headings + paragraphs (exclude nav-related sections)
-            Elements sections = mainContent.select("section:not([class*='nav']):not([class*='menu']), div[class*='section']:not([class*='nav']), div[class*='feature'], div[class*='block']");
-
-            for (Element section : sections)
+            switch (page.status())
             {
-                String sectionText = extractSectionContent(section);
-                if (sectionText.length() > 100)
+                case FETCHED ->
                 {
-                    textChunks.add(sectionText);
+                    List<TextSegment> segments = chunksOf(page.document()).stream()
+                            .map(TextSegment::from)
+                            .toList();
+                    total.accumulateAndGet(ingestor.sync(page.url().toString(), segments), IngestionStats::plus);
+                    crawler.remember(page);
                 }
+                case NOT_MODIFIED -> log.debug("Skipping unchanged page [{}]", page.url());
+                case FAILED -> log.warn("Failed to crawl [{}]: {}", page.url(), page.failure());
             }
+        });
+
+        int fetched = pages[CrawledPage.Status.FETCHED.ordinal()];
+        int unchanged = pages[CrawledPage.Status.NOT_MODIFIED.ordinal()];
+        int failed = pages[CrawledPage.Status.FAILED.ordinal()];
+
+        if (fetched == 0 && unchanged == 0)
+        {
+            return syncFallback();
+        }
 
-            // Fallback: extract all meaningful paragraphs if sections didn't work well
-            if (textChunks.size() < 5)
+        // Pages that dropped out of the sitemap or the links would otherwise be served forever. A crawl cut short by
+        // max-pages has not seen every page, so it leaves the other sources alone.
+        if (complete)
+        {
+            total.accumulateAndGet(ingestor.removeSourcesOtherThan(crawledSources), IngestionStats::plus);
+        }
+        else
+        {
+            log.warn("Crawl reached the page limit, keeping chunks of pages it did not reach");
+        }
+
+        IngestionStats stats = total.get();
+        publishIfChanged(stats);
+
+        log.info("Crawled {} page(s) ({} unchanged, {} failed) into vector store: {} embedded, {} skipped, {} removed",
+                fetched, unchanged, failed, stats.embedded(), stats.skipped(), stats.removed());
+        return stats;
+    }
+
+    private IngestionStats syncFallback()
+    {
+        if (seeds.stream().anyMatch(ingestor::hasChunks) || ingestor.hasChunks(fraudGuardUrl))
+        {
+            log.error("No page could be crawled. Keeping previously ingested content.");
+            return IngestionStats.NONE;
+        }
+
+        log.error("No page could be crawled. Using fallback content.");
+
+        TextSegment fallbackSegment = TextSegment.from("""
+                CDQ Fraud Guard is an AML (Anti-Money Laundering) solution that helps financial institutions
+                detect money laundering risks, monitor transactions, and ensure compliance with global regulations.
+                
+                Key features include real-time transaction monitoring, risk assessment, regulatory compliance automation,
+                and machine learning-based fraud detection.
+                """);
+        IngestionStats stats = ingestor.sync(fraudGuardUrl, List.of(fallbackSegment));
+        publishIfChanged(stats);
+        return stats;
+    }
+
+    private static List<URI> uris(List<String> values)
+    {
+        return values.stream()
+                .map(String::strip)
+                .filter(value -> !value.isEmpty())
+                .map(URI::create)
+                .toList();
+    }
+
+    // Extraction passes overlap, so chunking runs on their combined output before near duplicates are dropped
+    List<String> chunksOf(Document doc)
+    {
+        return nearDuplicates.distinct(chunker.split(extractChunks(doc, boilerplateFilter)));
+    }
+
+    // Mutates the document: navigation and cookie banners are removed before the content is read
+    static List<String> extractChunks(Document doc, BoilerplateFilter filter)
+    {
+        List<String> textChunks = new ArrayList<>();
+
+        // Extract title and meta description
+        String title = doc.title();
+        String metaDescription = doc.select("meta[name=description]").attr("content");
+
+        if (!title.isEmpty() && !metaDescription.isEmpty())
+        {
+            textChunks.add("OVERVIEW: " + title + "\n\n" + metaDescription);
+            log.debug("Extracted title: [{}]", title);
+        }
+
+        // Remove header, navigation, footer, and other non-content elements
+        doc.select("header, nav, footer, .header, .navigation, .nav, .menu, .footer").remove();
+        doc.select("[role=navigation], [role=banner], [role=contentinfo]").remove();
+        doc.select(".cookie, .cookies, #cookie-banner, .gdpr").remove();
+
+        // Target main content areas only
+        Elements mainContent = doc.select("main, article, .content, .main-content, [role=main]");
+
+        if (mainContent.isEmpty())
+        {
+            // Fallback but still exclude common non-content areas
+            mainContent = doc.select("body");
+            mainContent.select("header, nav, footer, aside, .sidebar").remove();
+            log.debug("Fallback to body element for content extraction (with filters)");
+        }
+
+        // Extract structured sections with headings + paragraphs (exclude nav-related sections)
+        Elements sections = mainContent.select("section:not([class*='nav']):not([class*='menu']), div[class*='section']:not([class*='nav']), div[class*='feature'], div[class*='block']");
+
+        for (Element section : sections)
+        {
+            String sectionText = extractSectionContent(section, filter);
+            if (sectionText.length() > 100)
             {
-                log.debug("Section extraction yielded few results, using paragraph fallback");
-                Elements paragraphs = mainContent.select("p");
-                StringBuilder content = new StringBuilder();
+                textChunks.add(sectionText);
+            }
+        }
 
-                for (Element p : paragraphs)
-                {
-                    String text = p.text().trim();
-                    // More lenient filtering
-                    if (text.length() > 30 && isRelevantContent(text))
-                    {
-                        content.append(text).append("\n\n");
-                    }
-                }
+        // Fallback: extract all meaningful paragraphs if sections didn't work well
+        if (textChunks.size() < 5)
+        {
+            log.debug("Section extraction yielded few results, using paragraph fallback");
+            Elements paragraphs = mainContent.select("p");
+            StringBuilder content = new StringBuilder();
 
-                if (!content.isEmpty())
+            for (Element p : paragraphs)
+            {
+                String text = p.text().trim();
+                // More lenient filtering
+                if (text.length() > 30 && filter.isRelevant(text))
                 {
-                    textChunks.addAll(splitIntoChunks(content.toString()));
+                    content.append(text).append("\n\n");
                 }
             }
 
-            // Extract lists (often contain key features and benefits)
-            Elements lists = mainContent.select("ul, ol");
-            for (Element list : lists)
+            // Split later by the chunker along paragraph and sentence boundaries
+            if (!content.isEmpty())
             {
-                StringBuilder listContent = new StringBuilder("KEY POINTS:\n");
-                Elements items = list.select("li");
+                textChunks.add(content.toString());
+            }
+        }
 
-                for (Element item : items)
-                {
-                    String itemText = item.text().trim();
-                    if (itemText.length() > 10 && isRelevantContent(itemText))
-                    {
-                        listContent.append("• ").append(itemText).append("\n");
-                    }
-                }
+        // Extract lists (often contain key features and benefits)
+        Elements lists = mainContent.select("ul, ol");
+        for (Element list : lists)
+        {
+            StringBuilder listContent = new StringBuilder("KEY POINTS:\n");
+            Elements items = list.select("li");
 
-                if (listContent.length() > 50)
+            for (Element item : items)
+            {
+                String itemText = item.text().trim();
+                if (itemText.length() > 10 && filter.isRelevant(itemText))
                 {
-                    textChunks.add(listContent.toString());
+                    listContent.append("• ").append(itemText).append("\n");
                 }
             }
 
-            // Extract all headings with their full context
-            Elements headings = mainContent.select("h1, h2, h3, h4");
-            for (Element heading : headings)
+            if (listContent.length() > 50)
             {
-                String headingText = heading.text().trim();
-                if (headingText.length() > 10 && isRelevantContent(headingText))
-                {
-                    StringBuilder headingContext = new StringBuilder("SECTION: ")
-                            .append(headingText).append("\n\n");
+                textChunks.add(listContent.toString());
+            }
+        }
+
+        // Extract all headings with their full context
+        Elements headings = mainContent.select("h1, h2, h3, h4");
+        for (Element heading : headings)
+        {
+            String headingText = heading.text().trim();
+            if (headingText.length() > 10 && filter.isRelevant(headingText))
+            {
+                StringBuilder headingContext = new StringBuilder("SECTION: ")
+                        .append(headingText).append("\n\n");
 
-                    // Get all following siblings until next heading
-                    Element sibling = heading.nextElementSibling();
-                    int siblingCount = 0;
+                // Get all following siblings until next heading
+                Element sibling = heading.nextElementSibling();
+                int siblingCount = 0;
 
-                    while (sibling != null && siblingCount < 5)
+                while (sibling != null && siblingCount < 5)
+                {
+                    if (sibling.tagName().matches("h[1-6]"))
                     {
-                        if (sibling.tagName().matches("h[1-6]"))
-                        {
-                            break;
-                        }
-
-                        String siblingText = sibling.text().trim();
-                        if (siblingText.length() > 20 && isRelevantContent(siblingText))
-                        {
-                            headingContext.append(siblingText).append("\n");
-                        }
-
-                        sibling = sibling.nextElementSibling();
-                        siblingCount++;
+                        break;
                     }
 
-                    if (headingContext.length() > 50)
+                    String siblingText = sibling.text().trim();
+                    if (siblingText.length() > 20 && filter.isRelevant(siblingText))
                     {
-                        textChunks.add(headingContext.toString());
+                        headingContext.append(siblingText).append("\n");
                     }
+
+                    sibling = sibling.nextElementSibling();
+                    siblingCount++;
                 }
-            }
 
-            if (textChunks.isEmpty())
-            {
-                log.warn("No content extracted from website");
+                if (headingContext.length() > 50)
+                {
+                    textChunks.add(headingContext.toString());
+                }
             }
+        }
 
-            List<String> uniqueChunks = textChunks.stream()
-                    .map(String::trim)
-                    .filter(s -> s.length() > 50)
-                    .distinct()
-                    .toList();
-
-            List<Document> documents = uniqueChunks.stream()
-                    .map(Document::from)
-                    .toList();
-
-            ingestor.ingest(documents);
+        if (textChunks.isEmpty())
+        {
+            log.warn("No content extracted from website");
+        }
 
-            log.info("Successfully ingested {} CDQ Fraud Guard documents into vector store", documents.size());
+        return textChunks.stream()
+                .map(String::trim)
+                .filter(s -> s.length() > 50)
+                .distinct()
+                .toList();
+    }
 
-        }
-        catch (IOException e)
+    private void publishIfChanged(IngestionStats stats)
+    {
+        if (stats.changed())
         {
-            log.error("Failed to scrape CDQ Fraud Guard page: {}. Using fallback content.", e.getMessage());
-
-            Document fallbackDoc = Document.from("""
-                    CDQ Fraud Guard is an AML (Anti-Money Laundering) solution that helps financial institutions
-                    detect money laundering risks, monitor transactions, and ensure compliance with global regulations.
-                    
-                    Key features include real-time transaction monitoring, risk assessment, regulatory compliance automation,
-                    and machine learning-based fraud detection.
-                    """);
-            ingestor.ingest(fallbackDoc);
+            eventPublisher.publishEvent(new KnowledgeBaseUpdatedEvent(stats.embedded() + stats.removed()));
         }
     }
 
-    private String extractSectionContent(Element section)
+    private static String extractSectionContent(Element section, BoilerplateFilter filter)
     {
         StringBuilder content = new StringBuilder();
 
@@ -219,7 +405,7 @@ class CdqFraudGuardIngestionJob
         for (Element p : paragraphs)
         {
             String text = p.text().trim();
-            if (text.length() > 20 && isRelevantContent(text))
+            if (text.length() > 20 && filter.isRelevant(text))
             {
                 content.append(text).append("\n");
             }
@@ -227,44 +413,4 @@ class CdqFraudGuardIngestionJob
 
         return content.toString().trim();
     }
-
-    private boolean isRelevantContent(String text)
-    {
-        String lower = text.toLowerCase();
-
-        // Filter out navigation, menu, and boilerplate text
-        return !lower.contains("cookie")
-                && !lower.contains("accept all")
-                && !lower.contains("privacy policy")
-                && !lower.contains("terms of service")
-                && !lower.contains("© 20")
-                && !lower.contains("all rights reserved")
-                && !lower.contains("sign in")
-                && !lower.contains("log in")
-                && !lower.contains("login")
-                && !lower.contains("register")
-                && !lower.contains("subscribe")
-                && !lower.contains("newsletter")
-                && !lower.contains("contact us")
-                && !lower.contains("get in touch")
-                && !lower.contains("request demo")
-                && !lower.contains("follow us")
-                && !lower.contains("social media")
-                && !lower.matches("^(home|about|about us|contact|products|services|solutions|careers|blog|company|resources|support|platform|news|events|industries)$")
-                && !lower.matches(".*\\(opens in new (window|tab)\\).*");
-    }
-
-    private List<String> splitIntoChunks(String text)
-    {
-        List<String> chunks = new ArrayList<>();
-        int maxLength = 600;
-
-        for (int i = 0; i < text.length(); i += maxLength)
-        {
-            int end = Math.min(i + maxLength, text.length());
-            chunks.add(text.substring(i, end).trim());
-        }
-
-        return chunks;
-    }
-}
\ No newline at end of file
+}
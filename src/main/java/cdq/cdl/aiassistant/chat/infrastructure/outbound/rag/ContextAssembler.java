@@ -0,0 +1,145 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.shared.text.TokenEstimator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Post-retrieval stage of every product knowledge adapter: the over-fetched candidates are re-ranked with
+// maximal marginal relevance, lambda * relevance - (1 - lambda) * max similarity to an already selected chunk,
+// and selected until the token budget is used up, so the model gets a few different chunks instead of
+// ten variations of the best one. Chunks that no longer fit are skipped in favour of smaller ones; when not even
+// one fits, the most relevant chunk is cut to the budget rather than sending no context at all.
+@Component
+class ContextAssembler
+{
+    private final int candidates;
+    private final double lambda;
+    private final int tokenBudget;
+    private final DistributionSummary tokensSent;
+    private final DistributionSummary tokensSaved;
+
+    ContextAssembler(@Value("${rag.retrieval.context.candidates:20}") int candidates,
+                     @Value("${rag.retrieval.context.mmr-lambda:0.7}") double lambda,
+                     @Value("${rag.retrieval.context.token-budget:600}") int tokenBudget,
+                     MeterRegistry meterRegistry)
+    {
+        if (lambda < 0 || lambda > 1)
+        {
+            throw new IllegalArgumentException("MMR lambda must be between 0 and 1, got " + lambda);
+        }
+        this.candidates = candidates;
+        this.lambda = lambda;
+        this.tokenBudget = tokenBudget;
+        this.tokensSent = DistributionSummary.builder("rag.context.tokens")
+                .register(meterRegistry);
+        // Compared with the top MAX_RESULTS candidates that used to be sent as they were
+        this.tokensSaved = DistributionSummary.builder("rag.context.tokens.saved")
+                .register(meterRegistry);
+    }
+
+    int candidates()
+    {
+        return candidates;
+    }
+
+    // Candidates in retrieval order, relevance on a 0..1 scale comparable to cosine similarity
+    String assemble(List<Candidate> retrieved)
+    {
+        if (retrieved.isEmpty())
+        {
+            return PgVectorKnowledgeAdapter.NO_RESULTS;
+        }
+
+        int size = retrieved.size();
+        float[][] vectors = new float[size][];
+        int[] tokens = new int[size];
+        int baselineTokens = 0;
+        for (int i = 0; i < size; i++)
+        {
+            vectors[i] = HnswIndex.normalize(retrieved.get(i).vector());
+            tokens[i] = TokenEstimator.estimate(retrieved.get(i).text());
+            if (i < PgVectorKnowledgeAdapter.MAX_RESULTS)
+            {
+                baselineTokens += tokens[i];
+            }
+        }
+
+        List<String> selected = new ArrayList<>();
+        boolean[] taken = new boolean[size];
+        double[] redundancy = new double[size];
+        int remaining = tokenBudget;
+
+        while (true)
+        {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i++)
+            {
+                if (taken[i] || tokens[i] > remaining)
+                {
+                    continue;
+                }
+                double score = lambda * retrieved.get(i).relevance() - (1 - lambda) * redundancy[i];
+                if (score > bestScore)
+                {
+                    bestScore = score;
+                    best = i;
+                }
+            }
+            if (best < 0)
+            {
+                break;
+            }
+
+            taken[best] = true;
+            selected.add(retrieved.get(best).text());
+            remaining -= tokens[best];
+            for (int i = 0; i < size; i++)
+            {
+                if (!taken[i])
+                {
+                    redundancy[i] = Math.max(redundancy[i], HnswIndex.dot(vectors[best], vectors[i]));
+                }
+            }
+        }
+
+        if (selected.isEmpty())
+        {
+            String truncated = TokenEstimator.truncate(retrieved.get(mostRelevant(retrieved)).text(), tokenBudget);
+            if (!truncated.isBlank())
+            {
+                selected.add(truncated);
+                remaining -= TokenEstimator.estimate(truncated);
+            }
+        }
+
+        int sent = tokenBudget - remaining;
+        tokensSent.record(sent);
+        tokensSaved.record(Math.max(0, baselineTokens - sent));
+
+        return selected.isEmpty() ? PgVectorKnowledgeAdapter.NO_RESULTS : String.join("\n\n", selected);
+    }
+
+    private static int mostRelevant(List<Candidate> retrieved)
+    {
+        int best = 0;
+        for (int i = 1; i < retrieved.size(); i++)
+        {
+            if (retrieved.get(i).relevance() > retrieved.get(best).relevance())
+            {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    record Candidate(String text, float[] vector, double relevance)
+    {
+    }
+}
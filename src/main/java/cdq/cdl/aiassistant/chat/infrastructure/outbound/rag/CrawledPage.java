@@ -0,0 +1,38 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.net.URI;
+import java.util.List;
+
+import org.jsoup.nodes.Document;
+
+// document is only set for FETCHED pages, failure only for FAILED ones
+record CrawledPage(URI url, Status status, Document document, String etag, String lastModified, List<URI> links, String failure)
+{
+    enum Status
+    {
+        FETCHED,
+        NOT_MODIFIED,
+        FAILED
+    }
+
+    // The page itself is gone, any other failure may be transient
+    boolean isGone()
+    {
+        return status == Status.FAILED && ("HTTP 404".equals(failure) || "HTTP 410".equals(failure));
+    }
+
+    static CrawledPage fetched(URI url, Document document, String etag, String lastModified, List<URI> links)
+    {
+        return new CrawledPage(url, Status.FETCHED, document, etag, lastModified, links, null);
+    }
+
+    static CrawledPage notModified(URI url, List<URI> links)
+    {
+        return new CrawledPage(url, Status.NOT_MODIFIED, null, null, null, links, null);
+    }
+
+    static CrawledPage failed(URI url, String failure)
+    {
+        return new CrawledPage(url, Status.FAILED, null, null, null, List.of(), failure);
+    }
+}
@@ -0,0 +1,8 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+
+record EmbeddedChunk(String id, Embedding embedding, TextSegment segment)
+{
+}
@@ -0,0 +1,266 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+// Hierarchical navigable small world graph over L2-normalized vectors, scored by cosine similarity.
+// Built single-threaded and then only read, so concurrent searches need no locking.
+class HnswIndex
+{
+    private final int dimension;
+    private final int maxConnections;
+    private final int maxConnectionsLayer0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    private final List<float[]> vectors = new ArrayList<>();
+    // links.get(node)[layer] holds the neighbour ids of a node on that layer
+    private final List<int[][]> links = new ArrayList<>();
+    private int entryPoint = -1;
+    private int topLayer = -1;
+
+    HnswIndex(int dimension, int maxConnections, int efConstruction, long seed)
+    {
+        this.dimension = dimension;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsLayer0 = maxConnections * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(maxConnections);
+        this.random = new SplittableRandom(seed);
+    }
+
+    int size()
+    {
+        return vectors.size();
+    }
+
+    // The stored copy is L2-normalized
+    float[] vector(int node)
+    {
+        return vectors.get(node);
+    }
+
+    int add(float[] vector)
+    {
+        if (vector.length != dimension)
+        {
+            throw new IllegalArgumentException("Expected vector of dimension " + dimension + " but got " + vector.length);
+        }
+
+        int node = vectors.size();
+        int level = randomLevel();
+        vectors.add(normalize(vector));
+
+        int[][] nodeLinks = new int[level + 1][];
+        for (int layer = 0; layer <= level; layer++)
+        {
+            nodeLinks[layer] = new int[0];
+        }
+        links.add(nodeLinks);
+
+        if (entryPoint < 0)
+        {
+            entryPoint = node;
+            topLayer = level;
+            return node;
+        }
+
+        float[] query = vectors.get(node);
+        int current = entryPoint;
+        for (int layer = topLayer; layer > level; layer--)
+        {
+            current = greedyClosest(query, current, layer);
+        }
+
+        for (int layer = Math.min(level, topLayer); layer >= 0; layer--)
+        {
+            List<Scored> candidates = searchLayer(query, current, efConstruction, layer);
+            int limit = layer == 0 ? maxConnectionsLayer0 : maxConnections;
+
+            int[] neighbours = candidates.stream()
+                    .limit(limit)
+                    .mapToInt(Scored::node)
+                    .toArray();
+            nodeLinks[layer] = neighbours;
+
+            for (int neighbour : neighbours)
+            {
+                connect(neighbour, node, layer, limit);
+            }
+            current = candidates.getFirst().node();
+        }
+
+        if (level > topLayer)
+        {
+            topLayer = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    List<Scored> search(float[] query, int k, int ef)
+    {
+        if (entryPoint < 0)
+        {
+            return List.of();
+        }
+
+        float[] normalizedQuery = normalize(query);
+        int current = entryPoint;
+        for (int layer = topLayer; layer > 0; layer--)
+        {
+            current = greedyClosest(normalizedQuery, current, layer);
+        }
+
+        List<Scored> results = searchLayer(normalizedQuery, current, Math.max(ef, k), 0);
+        return results.size() > k ? results.subList(0, k) : results;
+    }
+
+    private int greedyClosest(float[] query, int start, int layer)
+    {
+        int current = start;
+        float currentScore = dot(query, vectors.get(current));
+        boolean improved = true;
+
+        while (improved)
+        {
+            improved = false;
+            for (int neighbour : links.get(current)[layer])
+            {
+                float score = dot(query, vectors.get(neighbour));
+                if (score > currentScore)
+                {
+                    currentScore = score;
+                    current = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Returns up to ef nodes sorted from most to least similar
+    private List<Scored> searchLayer(float[] query, int start, int ef, int layer)
+    {
+        BitSet visited = new BitSet(vectors.size());
+        PriorityQueue<Scored> candidates = new PriorityQueue<>(Comparator.comparingDouble(Scored::score).reversed());
+        PriorityQueue<Scored> results = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+
+        Scored first = new Scored(start, dot(query, vectors.get(start)));
+        visited.set(start);
+        candidates.add(first);
+        results.add(first);
+
+        while (!candidates.isEmpty())
+        {
+            Scored candidate = candidates.poll();
+            if (results.size() >= ef && candidate.score() < results.peek().score())
+            {
+                break;
+            }
+
+            int[][] candidateLinks = links.get(candidate.node());
+            if (layer >= candidateLinks.length)
+            {
+                continue;
+            }
+
+            for (int neighbour : candidateLinks[layer])
+            {
+                if (visited.get(neighbour))
+                {
+                    continue;
+                }
+                visited.set(neighbour);
+
+                float score = dot(query, vectors.get(neighbour));
+                if (results.size() < ef || score > results.peek().score())
+                {
+                    Scored scored = new Scored(neighbour, score);
+                    candidates.add(scored);
+                    results.add(scored);
+                    if (results.size() > ef)
+                    {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Scored> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingDouble(Scored::score).reversed());
+        return sorted;
+    }
+
+    private void connect(int node, int newNeighbour, int layer, int limit)
+    {
+        int[] existing = links.get(node)[layer];
+        int[] extended = new int[existing.length + 1];
+        System.arraycopy(existing, 0, extended, 0, existing.length);
+        extended[existing.length] = newNeighbour;
+
+        if (extended.length > limit)
+        {
+            // Keep only the closest neighbours of the node once it exceeds its connection budget
+            float[] base = vectors.get(node);
+            extended = Arrays.stream(extended)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble((Integer id) -> dot(base, vectors.get(id))).reversed())
+                    .limit(limit)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        links.get(node)[layer] = extended;
+    }
+
+    private int randomLevel()
+    {
+        double uniform = 1.0 - random.nextDouble();
+        return (int) Math.floor(-Math.log(uniform) * levelMultiplier);
+    }
+
+    // Four independent accumulators break the loop-carried dependency so the JIT can pipeline the multiply-adds
+    static float dot(float[] a, float[] b)
+    {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        int bound = a.length - (a.length % 4);
+        for (; i < bound; i += 4)
+        {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++)
+        {
+            s0 += a[i] * b[i];
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    static float[] normalize(float[] vector)
+    {
+        float norm = (float) Math.sqrt(dot(vector, vector));
+        float[] normalized = new float[vector.length];
+        if (norm == 0f)
+        {
+            return normalized;
+        }
+        for (int i = 0; i < vector.length; i++)
+        {
+            normalized[i] = vector[i] / norm;
+        }
+        return normalized;
+    }
+
+    record Scored(int node, float score)
+    {
+    }
+}
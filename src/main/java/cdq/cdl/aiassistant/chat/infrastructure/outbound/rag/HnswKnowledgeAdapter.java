@@ -0,0 +1,50 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.port.ProductKnowledgePort;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Primary
+@ConditionalOnExpression("${rag.retrieval.in-memory-index.enabled:false} and !${rag.retrieval.hybrid.enabled:false}")
+@RequiredArgsConstructor
+@Slf4j
+class HnswKnowledgeAdapter implements ProductKnowledgePort
+{
+    private final InMemoryKnowledgeIndex index;
+    private final PgVectorKnowledgeAdapter pgVectorAdapter;
+    private final EmbeddingModel embeddingModel;
+    private final ContextAssembler contextAssembler;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public String search(String query)
+    {
+        if (!index.isReady())
+        {
+            log.debug("In-memory index not ready, delegating search to pgvector");
+            return pgVectorAdapter.search(query);
+        }
+
+        float[] queryVector = embeddingModel.embed(query).content().vector();
+
+        // Same relevance scale as the pgvector store: (1 + cosine) / 2
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<InMemoryKnowledgeIndex.Match> candidates = index.search(queryVector, contextAssembler.candidates());
+        sample.stop(meterRegistry.timer("rag.search", "store", "hnsw", "outcome", "success"));
+
+        return contextAssembler.assemble(candidates.stream()
+                .filter(match -> (1 + match.cosineSimilarity()) / 2 >= PgVectorKnowledgeAdapter.MIN_SCORE)
+                .map(match -> new ContextAssembler.Candidate(match.text(), match.vector(), match.cosineSimilarity()))
+                .toList());
+    }
+}
@@ -0,0 +1,144 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.port.ProductKnowledgePort;
+import com.pgvector.PGvector;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+// Vector and full-text search in one statement, merged with reciprocal rank fusion: every chunk scores
+// 1 / (rrf-k + rank) per ranking it appears in, so a chunk that literally contains a rare query term can
+// outrank chunks that are only semantically close. Takes precedence over the in-memory HNSW index.
+// The fused candidates go through the ContextAssembler like every other search.
+@Component
+@Primary
+@ConditionalOnProperty(name = "rag.retrieval.hybrid.enabled", havingValue = "true")
+@Slf4j
+class HybridKnowledgeAdapter implements ProductKnowledgePort
+{
+    // Scores follow the pgvector store: (2 - cosine distance) / 2 >= MIN_SCORE
+    private static final String HYBRID_SQL = """
+            WITH semantic AS (
+                SELECT embedding_id, text, embedding, row_number() OVER (ORDER BY distance) AS rank
+                FROM (
+            %3$s
+                ) nearest
+                WHERE distance <= 2 - 2 * ?
+            ),
+            lexical AS (
+                SELECT embedding_id, text, embedding, row_number() OVER (ORDER BY relevance DESC) AS rank
+                FROM (
+                    SELECT embedding_id, text, embedding, ts_rank_cd(%1$s, query) AS relevance
+                    FROM cdq_product_knowledge, websearch_to_tsquery('%2$s'::regconfig, ?) query
+                    WHERE %1$s @@ query
+                    ORDER BY relevance DESC
+                    LIMIT ?
+                ) matching
+            )
+            SELECT coalesce(semantic.text, lexical.text) AS text,
+                   coalesce(semantic.embedding, lexical.embedding)::text AS embedding,
+                   coalesce(1.0 / (? + semantic.rank), 0) + coalesce(1.0 / (? + lexical.rank), 0) AS score
+            FROM semantic
+            FULL OUTER JOIN lexical ON semantic.embedding_id = lexical.embedding_id
+            ORDER BY score DESC
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KnowledgeTextSearchSchema schema;
+    private final VectorSearchTuning tuning;
+    private final VectorStorage storage;
+    private final PgVectorKnowledgeAdapter pgVectorAdapter;
+    private final EmbeddingModel embeddingModel;
+    private final KnowledgeBaseStatus status;
+    private final ContextAssembler contextAssembler;
+    private final MeterRegistry meterRegistry;
+    private final int candidates;
+    private final int rrfK;
+    private final String sql;
+
+    HybridKnowledgeAdapter(JdbcTemplate jdbcTemplate,
+                           KnowledgeTextSearchSchema schema,
+                           VectorSearchTuning tuning,
+                           VectorStorage storage,
+                           PgVectorKnowledgeAdapter pgVectorAdapter,
+                           EmbeddingModel embeddingModel,
+                           KnowledgeBaseStatus status,
+                           ContextAssembler contextAssembler,
+                           MeterRegistry meterRegistry,
+                           @Value("${rag.retrieval.hybrid.candidates:20}") int candidates,
+                           @Value("${rag.retrieval.hybrid.rrf-k:60}") int rrfK)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema;
+        this.tuning = tuning;
+        this.storage = storage;
+        this.pgVectorAdapter = pgVectorAdapter;
+        this.embeddingModel = embeddingModel;
+        this.status = status;
+        this.contextAssembler = contextAssembler;
+        this.meterRegistry = meterRegistry;
+        this.candidates = candidates;
+        this.rrfK = rrfK;
+        this.sql = HYBRID_SQL.formatted(KnowledgeTextSearchSchema.COLUMN, schema.textSearchConfig(),
+                storage.nearestNeighboursSql("embedding_id, text, embedding"));
+    }
+
+    @Override
+    public String search(String query)
+    {
+        if (!status.isReady())
+        {
+            return PgVectorKnowledgeAdapter.unavailable(status);
+        }
+        if (!schema.isAvailable())
+        {
+            log.debug("Full-text column missing, delegating search to pgvector");
+            return pgVectorAdapter.search(query);
+        }
+
+        String queryVector = PgVectorCopyWriter.vectorLiteral(embeddingModel.embed(query).content().vector());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        List<ContextAssembler.Candidate> fused;
+        try
+        {
+            Object[] args = Stream.of(
+                            Arrays.stream(storage.nearestNeighboursArgs(queryVector, candidates)),
+                            Stream.of(PgVectorKnowledgeAdapter.MIN_SCORE, query, candidates, rrfK, rrfK, contextAssembler.candidates()))
+                    .flatMap(Function.identity())
+                    .toArray();
+            fused = tuning.apply(storage.indexRows(candidates), () -> jdbcTemplate.query(sql,
+                    (rs, row) -> new ContextAssembler.Candidate(
+                            rs.getString("text"),
+                            new PGvector(rs.getString("embedding")).toArray(),
+                            rs.getDouble("score")),
+                    args));
+            outcome = "success";
+        }
+        finally
+        {
+            sample.stop(meterRegistry.timer("rag.search", "store", "hybrid", "outcome", outcome));
+        }
+
+        // RRF scores are tiny and only meaningful relative to each other, MMR needs relevance on a 0..1 scale
+        double topScore = fused.isEmpty() ? 1 : fused.getFirst().relevance();
+        return contextAssembler.assemble(fused.stream()
+                .map(candidate -> new ContextAssembler.Candidate(
+                        candidate.text(), candidate.vector(), candidate.relevance() / topScore))
+                .toList());
+    }
+}
@@ -0,0 +1,114 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.pgvector.PGvector;
+import lombok.extern.slf4j.Slf4j;
+
+// Mirrors cdq_product_knowledge into an HNSW graph so product searches skip the database round trip.
+// Hybrid retrieval needs the full-text column in Postgres, so the in-memory copy is only kept without it.
+@Component
+@ConditionalOnExpression("${rag.retrieval.in-memory-index.enabled:false} and !${rag.retrieval.hybrid.enabled:false}")
+@Slf4j
+class InMemoryKnowledgeIndex
+{
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxConnections;
+    private final int efConstruction;
+    private final int efSearch;
+
+    private volatile Snapshot snapshot;
+
+    InMemoryKnowledgeIndex(
+            JdbcTemplate jdbcTemplate,
+            @Value("${rag.retrieval.in-memory-index.m:16}") int maxConnections,
+            @Value("${rag.retrieval.in-memory-index.ef-construction:100}") int efConstruction,
+            @Value("${rag.retrieval.in-memory-index.ef-search:64}") int efSearch)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxConnections = maxConnections;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadOnStartup()
+    {
+        reload();
+    }
+
+    @EventListener
+    void onKnowledgeBaseUpdated(KnowledgeBaseUpdatedEvent event)
+    {
+        reload();
+    }
+
+    boolean isReady()
+    {
+        Snapshot current = snapshot;
+        return current != null && current.index().size() > 0;
+    }
+
+    List<Match> search(float[] queryVector, int maxResults)
+    {
+        Snapshot current = snapshot;
+        if (current == null)
+        {
+            return List.of();
+        }
+
+        return current.index().search(queryVector, maxResults, efSearch).stream()
+                .map(scored -> new Match(current.texts().get(scored.node()), current.index().vector(scored.node()), scored.score()))
+                .toList();
+    }
+
+    synchronized void reload()
+    {
+        long start = System.nanoTime();
+        try
+        {
+            List<String> texts = new ArrayList<>();
+            List<float[]> vectors = new ArrayList<>();
+
+            jdbcTemplate.query("SELECT embedding::text AS embedding, text FROM cdq_product_knowledge", rs ->
+            {
+                vectors.add(new PGvector(rs.getString("embedding")).toArray());
+                texts.add(rs.getString("text"));
+            });
+
+            if (vectors.isEmpty())
+            {
+                log.info("Vector table is empty, in-memory index stays unavailable");
+                snapshot = null;
+                return;
+            }
+
+            HnswIndex index = new HnswIndex(vectors.getFirst().length, maxConnections, efConstruction, 42L);
+            vectors.forEach(index::add);
+
+            // Swap atomically so in-flight searches keep using the previous graph
+            snapshot = new Snapshot(index, List.copyOf(texts));
+            log.info("Loaded {} vectors into in-memory HNSW index in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        catch (Exception e)
+        {
+            log.warn("Could not load in-memory vector index, falling back to pgvector: [{}]", e.getMessage());
+        }
+    }
+
+    record Match(String text, float[] vector, float cosineSimilarity)
+    {
+    }
+
+    private record Snapshot(HnswIndex index, List<String> texts)
+    {
+    }
+}
@@ -0,0 +1,28 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.time.Duration;
+
+record IngestionStats(int embedded, int skipped, int removed, Duration duration)
+{
+    static final IngestionStats NONE = new IngestionStats(0, 0, 0, Duration.ZERO);
+
+    IngestionStats plus(IngestionStats other)
+    {
+        return new IngestionStats(
+                embedded + other.embedded,
+                skipped + other.skipped,
+                removed + other.removed,
+                duration.plus(other.duration));
+    }
+
+    boolean changed()
+    {
+        return embedded > 0 || removed > 0;
+    }
+
+    double chunksPerSecond()
+    {
+        long millis = Math.max(1, duration.toMillis());
+        return embedded * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,49 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+@Component("knowledgeBase")
+@RequiredArgsConstructor
+class KnowledgeBaseHealthIndicator implements HealthIndicator
+{
+    private final KnowledgeBaseStatus status;
+
+    @Override
+    public Health health()
+    {
+        return switch (status.state())
+        {
+            case READY -> withLastSync(Health.up()
+                    .withDetail("since", status.since()))
+                    .build();
+            case WARMING -> Health.outOfService()
+                    .withDetail("status", "knowledge base warming")
+                    .withDetail("since", status.since())
+                    .build();
+            case FAILED -> Health.down()
+                    .withDetail("status", "knowledge base ingestion failed")
+                    .withDetail("reason", String.valueOf(status.failureReason()))
+                    .build();
+        };
+    }
+
+    private Health.Builder withLastSync(Health.Builder builder)
+    {
+        IngestionStats lastSync = status.lastSync();
+        if (lastSync != null)
+        {
+            builder.withDetail("lastSync", Map.of(
+                    "embedded", lastSync.embedded(),
+                    "skipped", lastSync.skipped(),
+                    "removed", lastSync.removed(),
+                    "durationMs", lastSync.duration().toMillis()));
+        }
+        return builder;
+    }
+}
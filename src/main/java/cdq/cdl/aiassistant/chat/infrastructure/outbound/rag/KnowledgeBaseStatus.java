@@ -0,0 +1,68 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.time.Instant;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public class KnowledgeBaseStatus
+{
+    public enum State
+    {
+        WARMING,
+        READY,
+        FAILED
+    }
+
+    private volatile State state = State.WARMING;
+    private volatile Instant since = Instant.now();
+    private volatile String failureReason;
+    private volatile IngestionStats lastSync;
+
+    public State state()
+    {
+        return state;
+    }
+
+    public Instant since()
+    {
+        return since;
+    }
+
+    public String failureReason()
+    {
+        return failureReason;
+    }
+
+    IngestionStats lastSync()
+    {
+        return lastSync;
+    }
+
+    public boolean isReady()
+    {
+        return state == State.READY;
+    }
+
+    void markReady()
+    {
+        transitionTo(State.READY, null);
+    }
+
+    void recordSync(IngestionStats stats)
+    {
+        this.lastSync = stats;
+    }
+
+    void markFailed(Throwable cause)
+    {
+        transitionTo(State.FAILED, cause.getMessage());
+    }
+
+    private void transitionTo(State newState, String reason)
+    {
+        this.failureReason = reason;
+        this.since = Instant.now();
+        this.state = newState;
+    }
+}
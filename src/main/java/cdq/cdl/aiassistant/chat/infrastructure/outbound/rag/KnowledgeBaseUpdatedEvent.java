@@ -0,0 +1,5 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+public record KnowledgeBaseUpdatedEvent(int documentCount)
+{
+}
@@ -0,0 +1,404 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Fetches seed pages, sitemap entries and (up to max-depth) same-host links on virtual threads.
+// Politeness: at most per-host-concurrency requests per host, started at least per-host-delay apart.
+// Validators of pages that were ingested are kept, so unchanged pages come back as 304 and are skipped.
+@Component
+@Slf4j
+class KnowledgeCrawler
+{
+    private static final Pattern NON_HTML = Pattern.compile(".*\\.(pdf|png|jpe?g|gif|svg|webp|zip|mp4|css|js|xml|ico)$",
+            Pattern.CASE_INSENSITIVE);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Semaphore permits;
+    private final int perHostConcurrency;
+    private final Duration perHostDelay;
+    private final int maxPages;
+    private final int maxDepth;
+    private final Duration timeout;
+    private final String userAgent;
+
+    private final Map<String, HostGate> hosts = new ConcurrentHashMap<>();
+    private final Map<URI, PageState> pageStates = new ConcurrentHashMap<>();
+
+    KnowledgeCrawler(@Value("${rag.ingestion.crawler.max-concurrency:8}") int maxConcurrency,
+                     @Value("${rag.ingestion.crawler.per-host-concurrency:2}") int perHostConcurrency,
+                     @Value("${rag.ingestion.crawler.per-host-delay:250ms}") Duration perHostDelay,
+                     @Value("${rag.ingestion.crawler.max-pages:500}") int maxPages,
+                     @Value("${rag.ingestion.crawler.max-depth:0}") int maxDepth,
+                     @Value("${rag.ingestion.crawler.timeout:10s}") Duration timeout,
+                     @Value("${rag.ingestion.crawler.user-agent:Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7)}") String userAgent)
+    {
+        this.permits = new Semaphore(maxConcurrency);
+        this.perHostConcurrency = perHostConcurrency;
+        this.perHostDelay = perHostDelay;
+        this.maxPages = maxPages;
+        this.maxDepth = maxDepth;
+        this.timeout = timeout;
+        this.userAgent = userAgent;
+    }
+
+    // Pages are handed to onPage on the calling thread as they arrive, so extraction and embedding of one page
+    // overlap with fetching the next ones. An exception from onPage stops the crawl. Returns false when max-pages
+    // cut the crawl short, so pages that were not handed to onPage may still exist.
+    boolean crawl(List<URI> seeds, List<URI> sitemaps, Consumer<CrawledPage> onPage) throws InterruptedException
+    {
+        Set<URI> startUrls = new LinkedHashSet<>(seeds);
+        for (URI sitemap : sitemaps)
+        {
+            startUrls.addAll(sitemapUrls(sitemap, 0));
+        }
+
+        Set<URI> scheduled = ConcurrentHashMap.newKeySet();
+        AtomicInteger pending = new AtomicInteger();
+        BlockingQueue<CrawledPage> results = new LinkedBlockingQueue<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            Crawl crawl = new Crawl(executor, scheduled, pending, results);
+            startUrls.forEach(url -> crawl.submit(url, 0));
+
+            try
+            {
+                while (pending.get() > 0)
+                {
+                    CrawledPage page = results.take();
+                    try
+                    {
+                        onPage.accept(page);
+                    }
+                    finally
+                    {
+                        pending.decrementAndGet();
+                    }
+                }
+            }
+            finally
+            {
+                executor.shutdownNow();
+            }
+            return !crawl.truncated;
+        }
+    }
+
+    // Called once a fetched page is safely ingested: only then may the next crawl skip it when it is unchanged
+    void remember(CrawledPage page)
+    {
+        if (page.status() == CrawledPage.Status.FETCHED && (page.etag() != null || page.lastModified() != null))
+        {
+            pageStates.put(page.url(), new PageState(page.etag(), page.lastModified(), page.links()));
+        }
+    }
+
+    private class Crawl
+    {
+        private final ExecutorService executor;
+        private final Set<URI> scheduled;
+        private final AtomicInteger pending;
+        private final BlockingQueue<CrawledPage> results;
+        private final AtomicInteger reserved = new AtomicInteger();
+        private volatile boolean truncated;
+
+        Crawl(ExecutorService executor, Set<URI> scheduled, AtomicInteger pending, BlockingQueue<CrawledPage> results)
+        {
+            this.executor = executor;
+            this.scheduled = scheduled;
+            this.pending = pending;
+            this.results = results;
+        }
+
+        // Children are submitted before their parent is queued, so pending never drops to zero while work remains.
+        // Every submitted task queues exactly one result, a failed page if anything throws, or the crawl would wait
+        // for it forever.
+        void submit(URI url, int depth)
+        {
+            if (!scheduled.add(url))
+            {
+                return;
+            }
+            if (!reserveSlot())
+            {
+                truncated = true;
+                return;
+            }
+
+            pending.incrementAndGet();
+            try
+            {
+                executor.execute(() -> results.add(crawl(url, depth)));
+            }
+            catch (RejectedExecutionException e)
+            {
+                pending.decrementAndGet();
+            }
+        }
+
+        private CrawledPage crawl(URI url, int depth)
+        {
+            try
+            {
+                CrawledPage page = fetch(url);
+                if (depth < maxDepth)
+                {
+                    page.links().forEach(link -> submit(link, depth + 1));
+                }
+                return page;
+            }
+            catch (RuntimeException e)
+            {
+                log.warn("Could not crawl [{}]: {}", url, e.getMessage());
+                return CrawledPage.failed(url, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+            }
+        }
+
+        // Checking the page count and adding to it in one step, concurrent link extraction cannot exceed max-pages
+        private boolean reserveSlot()
+        {
+            return reserved.getAndUpdate(count -> count < maxPages ? count + 1 : count) < maxPages;
+        }
+    }
+
+    private CrawledPage fetch(URI url)
+    {
+        HostGate gate = hosts.computeIfAbsent(url.getHost(), host -> new HostGate(perHostConcurrency, perHostDelay));
+        try
+        {
+            gate.acquire();
+            try
+            {
+                permits.acquire();
+                try
+                {
+                    return request(url);
+                }
+                finally
+                {
+                    permits.release();
+                }
+            }
+            finally
+            {
+                gate.release();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return CrawledPage.failed(url, "interrupted");
+        }
+    }
+
+    private CrawledPage request(URI url) throws InterruptedException
+    {
+        HttpRequest.Builder request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("User-Agent", userAgent)
+                .header("Accept", "text/html,application/xhtml+xml")
+                .GET();
+
+        PageState previous = pageStates.get(url);
+        if (previous != null)
+        {
+            if (previous.etag() != null)
+            {
+                request.header("If-None-Match", previous.etag());
+            }
+            if (previous.lastModified() != null)
+            {
+                request.header("If-Modified-Since", previous.lastModified());
+            }
+        }
+
+        try
+        {
+            HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body())
+            {
+                if (response.statusCode() == 304 && previous != null)
+                {
+                    log.debug("Page [{}] not modified", url);
+                    return CrawledPage.notModified(url, previous.links());
+                }
+                if (response.statusCode() != 200)
+                {
+                    return CrawledPage.failed(url, "HTTP " + response.statusCode());
+                }
+                String contentType = response.headers().firstValue("Content-Type").orElse("text/html");
+                if (!contentType.contains("html"))
+                {
+                    return CrawledPage.failed(url, "not HTML: " + contentType);
+                }
+
+                Document document = Jsoup.parse(body, null, response.uri().toString());
+                return CrawledPage.fetched(
+                        url,
+                        document,
+                        response.headers().firstValue("ETag").orElse(null),
+                        response.headers().firstValue("Last-Modified").orElse(null),
+                        maxDepth > 0 ? linksOf(document, url) : List.of());
+            }
+        }
+        catch (IOException e)
+        {
+            return CrawledPage.failed(url, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+
+    // Sitemap indexes are followed one level deep
+    private List<URI> sitemapUrls(URI sitemap, int level) throws InterruptedException
+    {
+        HostGate gate = hosts.computeIfAbsent(sitemap.getHost(), host -> new HostGate(perHostConcurrency, perHostDelay));
+        String xml;
+        gate.acquire();
+        try
+        {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(sitemap).timeout(timeout).header("User-Agent", userAgent).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200)
+            {
+                log.warn("Could not load sitemap [{}]: HTTP {}", sitemap, response.statusCode());
+                return List.of();
+            }
+            xml = response.body();
+        }
+        catch (IOException e)
+        {
+            log.warn("Could not load sitemap [{}]: {}", sitemap, e.getMessage());
+            return List.of();
+        }
+        finally
+        {
+            gate.release();
+        }
+
+        Document document = Jsoup.parse(xml, sitemap.toString(), Parser.xmlParser());
+        List<URI> urls = new ArrayList<>();
+        document.select("url > loc").eachText().forEach(loc -> toUri(loc).ifPresent(urls::add));
+        if (level == 0)
+        {
+            for (String nested : document.select("sitemap > loc").eachText())
+            {
+                Optional<URI> uri = toUri(nested);
+                if (uri.isPresent())
+                {
+                    urls.addAll(sitemapUrls(uri.get(), level + 1));
+                }
+            }
+        }
+        return urls;
+    }
+
+    private static List<URI> linksOf(Document document, URI page)
+    {
+        Set<URI> links = new LinkedHashSet<>();
+        for (String href : document.select("a[href]").eachAttr("abs:href"))
+        {
+            toUri(href)
+                    .filter(link -> page.getHost().equalsIgnoreCase(link.getHost()))
+                    .filter(link -> link.getScheme().startsWith("http"))
+                    .filter(link -> link.getPath() == null || !NON_HTML.matcher(link.getPath()).matches())
+                    .ifPresent(links::add);
+        }
+        links.remove(page);
+        return List.copyOf(links);
+    }
+
+    // Fragments point into the same page, so they are dropped to avoid fetching it twice
+    private static Optional<URI> toUri(String value)
+    {
+        try
+        {
+            URI uri = new URI(value.strip());
+            return Optional.of(new URI(uri.getScheme(), uri.getAuthority(), uri.getPath(), uri.getQuery(), null));
+        }
+        catch (URISyntaxException | RuntimeException e)
+        {
+            return Optional.empty();
+        }
+    }
+
+    private record PageState(String etag, String lastModified, List<URI> links)
+    {
+    }
+
+    private static class HostGate
+    {
+        private final Semaphore permits;
+        private final long delayNanos;
+        private long nextStart;
+
+        HostGate(int concurrency, Duration delay)
+        {
+            this.permits = new Semaphore(concurrency);
+            this.delayNanos = delay.toNanos();
+            this.nextStart = System.nanoTime();
+        }
+
+        void acquire() throws InterruptedException
+        {
+            permits.acquire();
+            long wait;
+            synchronized (this)
+            {
+                long now = System.nanoTime();
+                long start = Math.max(now, nextStart);
+                nextStart = start + delayNanos;
+                wait = start - now;
+            }
+            try
+            {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            catch (InterruptedException e)
+            {
+                permits.release();
+                throw e;
+            }
+        }
+
+        void release()
+        {
+            permits.release();
+        }
+    }
+}
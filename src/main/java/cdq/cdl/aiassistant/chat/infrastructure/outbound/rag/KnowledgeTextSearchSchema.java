@@ -0,0 +1,257 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Adds a tsvector column with a GIN index to cdq_product_knowledge without locking the table for longer than a
+// catalog change: the column is a plain one (a generated column would rewrite the table), a trigger fills it for
+// every written row, so the COPY writer and the LangChain4j store need not know about it, existing rows are
+// backfilled in small batches and the index is built with CREATE INDEX CONCURRENTLY. The text search configuration
+// the column was computed with is kept as its column comment; when it changes, the trigger is replaced and every row
+// is recomputed in batches. Tables that still have the generated column of earlier versions keep it while its
+// expression uses the configured text search configuration, and are switched to the trigger otherwise. Runs on its
+// own thread after startup, hybrid search delegates to pgvector until it is done. The embedding store is injected
+// only so the table exists before it is altered.
+@Component
+@ConditionalOnProperty(name = "rag.retrieval.hybrid.enabled", havingValue = "true")
+@Slf4j
+class KnowledgeTextSearchSchema
+{
+    static final String COLUMN = "text_search";
+
+    private static final String INDEX = "cdq_product_knowledge_text_search_idx";
+    private static final String TRIGGER = "cdq_product_knowledge_text_search";
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+    private static final Duration BACKFILL_PAUSE = Duration.ofSeconds(1);
+    private static final String FIRST_ID = "00000000-0000-0000-0000-000000000000";
+    private static final Pattern CONFIG_NAME = Pattern.compile("[a-z_]+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String textSearchConfig;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("text-search-schema").daemon(true).factory());
+
+    private volatile boolean available;
+
+    KnowledgeTextSearchSchema(JdbcTemplate jdbcTemplate,
+                              EmbeddingStore<TextSegment> embeddingStore,
+                              @Value("${rag.retrieval.hybrid.text-search-config:english}") String textSearchConfig)
+    {
+        // Interpolated into DDL, so only plain configuration names are accepted
+        if (!CONFIG_NAME.matcher(textSearchConfig).matches())
+        {
+            throw new IllegalArgumentException("Invalid text search configuration: " + textSearchConfig);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.textSearchConfig = textSearchConfig;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void onStartup()
+    {
+        executor.execute(this::ensureSchema);
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    void ensureSchema()
+    {
+        try
+        {
+            if (!hasGeneratedColumnWithConfig())
+            {
+                addTriggerMaintainedColumn();
+                String storedConfig = storedConfig();
+                if (!textSearchConfig.equals(storedConfig))
+                {
+                    recompute(storedConfig);
+                }
+                backfill();
+                jdbcTemplate.execute("COMMENT ON COLUMN cdq_product_knowledge.%s IS '%s'".formatted(COLUMN, textSearchConfig));
+            }
+            ensureIndex();
+            available = true;
+            log.info("Full-text search column and index on cdq_product_knowledge are ready");
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (Exception e)
+        {
+            log.warn("Could not create full-text search column, hybrid retrieval falls back to vector search: [{}]", e.getMessage());
+        }
+    }
+
+    boolean isAvailable()
+    {
+        return available;
+    }
+
+    String textSearchConfig()
+    {
+        return textSearchConfig;
+    }
+
+    // A generated column computed with another configuration is turned into a plain one, which only changes the
+    // catalog, so the trigger can take over and recompute it
+    private boolean hasGeneratedColumnWithConfig()
+    {
+        String expression = jdbcTemplate.query("""
+                        SELECT generation_expression FROM information_schema.columns
+                        WHERE table_name = 'cdq_product_knowledge' AND column_name = ? AND is_generated = 'ALWAYS'
+                        """,
+                rs -> rs.next() ? rs.getString(1) : null,
+                COLUMN);
+        if (expression == null)
+        {
+            return false;
+        }
+        if (expression.contains("'" + textSearchConfig + "'::regconfig"))
+        {
+            return true;
+        }
+
+        log.info("Generated full-text search column does not use text search configuration {}, switching to a trigger",
+                textSearchConfig);
+        jdbcTemplate.execute("ALTER TABLE cdq_product_knowledge ALTER COLUMN " + COLUMN + " DROP EXPRESSION");
+        return false;
+    }
+
+    // The trigger exists before the backfill starts, so a row written in between is covered by one of them
+    private void addTriggerMaintainedColumn()
+    {
+        jdbcTemplate.execute("ALTER TABLE cdq_product_knowledge ADD COLUMN IF NOT EXISTS " + COLUMN + " tsvector");
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE FUNCTION %1$s() RETURNS trigger LANGUAGE plpgsql AS $$
+                BEGIN
+                    NEW.%2$s := to_tsvector('%3$s'::regconfig, coalesce(NEW.text, ''));
+                    RETURN NEW;
+                END
+                $$
+                """.formatted(TRIGGER, COLUMN, textSearchConfig));
+        jdbcTemplate.execute("""
+                CREATE OR REPLACE TRIGGER %1$s BEFORE INSERT OR UPDATE OF text ON cdq_product_knowledge
+                FOR EACH ROW EXECUTE FUNCTION %1$s()
+                """.formatted(TRIGGER));
+    }
+
+    // Written once every row is computed with it, so an interrupted recompute starts over on the next startup
+    private String storedConfig()
+    {
+        return jdbcTemplate.query("""
+                        SELECT col_description(a.attrelid, a.attnum) FROM pg_attribute a
+                        WHERE a.attrelid = 'cdq_product_knowledge'::regclass AND a.attname = ?
+                        """,
+                rs -> rs.next() ? rs.getString(1) : null,
+                COLUMN);
+    }
+
+    // Walks the table in embedding_id order, rows written meanwhile already get the new configuration from the trigger
+    private void recompute(String storedConfig)
+    {
+        log.info("Computing full-text search column with text search configuration {} (was {})",
+                textSearchConfig, storedConfig == null ? "unknown" : storedConfig);
+
+        String sql = """
+                WITH batch AS (
+                    SELECT embedding_id FROM cdq_product_knowledge
+                    WHERE embedding_id > ?::uuid ORDER BY embedding_id LIMIT ? FOR UPDATE
+                )
+                UPDATE cdq_product_knowledge k SET %1$s = to_tsvector('%2$s'::regconfig, coalesce(k.text, ''))
+                FROM batch WHERE k.embedding_id = batch.embedding_id
+                RETURNING k.embedding_id::text
+                """.formatted(COLUMN, textSearchConfig);
+
+        long total = 0;
+        String lastId = FIRST_ID;
+        List<String> updated;
+        do
+        {
+            updated = jdbcTemplate.queryForList(sql, String.class, lastId, BACKFILL_BATCH_SIZE);
+            total += updated.size();
+            // Lowercase hex text sorts like Postgres compares uuids, byte by byte
+            lastId = updated.stream().max(Comparator.naturalOrder()).orElse(lastId);
+        }
+        while (updated.size() == BACKFILL_BATCH_SIZE);
+
+        log.info("Recomputed full-text search column for {} row(s)", total);
+    }
+
+    // Short batches only lock the rows they update, ingestion and searches keep running meanwhile. Rows locked by a
+    // writer are skipped by a batch, so the backfill only ends once no row without a value is left.
+    private void backfill() throws InterruptedException
+    {
+        String sql = """
+                UPDATE cdq_product_knowledge SET %1$s = to_tsvector('%2$s'::regconfig, coalesce(text, ''))
+                WHERE embedding_id IN (
+                    SELECT embedding_id FROM cdq_product_knowledge WHERE %1$s IS NULL LIMIT ? FOR UPDATE SKIP LOCKED
+                )
+                """.formatted(COLUMN, textSearchConfig);
+
+        long total = 0;
+        while (true)
+        {
+            int updated = jdbcTemplate.update(sql, BACKFILL_BATCH_SIZE);
+            total += updated;
+            if (updated == 0)
+            {
+                Long missing = jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM cdq_product_knowledge WHERE " + COLUMN + " IS NULL", Long.class);
+                if (missing == null || missing == 0)
+                {
+                    break;
+                }
+                log.debug("{} row(s) without full-text search value are locked, retrying", missing);
+                Thread.sleep(BACKFILL_PAUSE);
+            }
+        }
+
+        if (total > 0)
+        {
+            log.info("Backfilled full-text search column for {} row(s)", total);
+        }
+    }
+
+    private void ensureIndex()
+    {
+        Boolean valid = jdbcTemplate.query("""
+                        SELECT i.indisvalid
+                        FROM pg_index i
+                        JOIN pg_class c ON c.oid = i.indexrelid
+                        WHERE c.relname = ?
+                        """,
+                rs -> rs.next() ? rs.getBoolean(1) : null,
+                INDEX);
+
+        // An interrupted concurrent build leaves an invalid index behind that IF NOT EXISTS would keep
+        if (Boolean.FALSE.equals(valid))
+        {
+            log.info("Dropping invalid full-text index {}", INDEX);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + INDEX);
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + INDEX
+                + " ON cdq_product_knowledge USING GIN (" + COLUMN + ")");
+    }
+}
@@ -0,0 +1,134 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Drops chunks whose 64-bit SimHash is within max-distance bits of an earlier chunk, so the same paragraph
+// extracted by the section, paragraph and heading passes is embedded once. The first occurrence wins.
+// Candidates are found through max-distance + 1 bands of the hash: two hashes that differ in at most
+// max-distance bits agree on at least one band, so only chunks sharing a band are compared.
+@Component
+class NearDuplicateFilter
+{
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int SHINGLE_SIZE = 3;
+
+    private final int maxDistance;
+    private final int bands;
+
+    NearDuplicateFilter(@Value("${rag.ingestion.chunking.near-duplicate-distance:10}") int maxDistance)
+    {
+        if (maxDistance < 0 || maxDistance > 31)
+        {
+            throw new IllegalArgumentException("Near duplicate distance must be between 0 and 31 bits, got " + maxDistance);
+        }
+        this.maxDistance = maxDistance;
+        this.bands = maxDistance + 1;
+    }
+
+    List<String> distinct(List<String> chunks)
+    {
+        List<String> kept = new ArrayList<>();
+        Map<Long, List<Long>> byBand = new HashMap<>();
+
+        for (String chunk : chunks)
+        {
+            long hash = simHash(chunk);
+            if (!hasNearDuplicate(hash, byBand))
+            {
+                kept.add(chunk);
+                for (int band = 0; band < bands; band++)
+                {
+                    byBand.computeIfAbsent(bandKey(hash, band), key -> new ArrayList<>()).add(hash);
+                }
+            }
+        }
+        return kept;
+    }
+
+    private boolean hasNearDuplicate(long hash, Map<Long, List<Long>> byBand)
+    {
+        for (int band = 0; band < bands; band++)
+        {
+            for (long candidate : byBand.getOrDefault(bandKey(hash, band), List.of()))
+            {
+                if (Long.bitCount(hash ^ candidate) <= maxDistance)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // The band index goes into the top bits so equal bits in different bands never share a key
+    private long bandKey(long hash, int band)
+    {
+        int width = Long.SIZE / bands;
+        int from = band * width;
+        int to = band == bands - 1 ? Long.SIZE : from + width;
+        long mask = to - from == Long.SIZE ? -1L : ((1L << (to - from)) - 1);
+        return ((long) band << 56) ^ ((hash >>> from) & mask);
+    }
+
+    // Word shingles rather than single words, so reordered or reworded text moves the hash
+    static long simHash(String text)
+    {
+        String[] words = NON_WORD.split(text.toLowerCase(Locale.ROOT).strip());
+        int[] weights = new int[Long.SIZE];
+        int shingles = Math.max(1, words.length - SHINGLE_SIZE + 1);
+
+        for (int i = 0; i < shingles; i++)
+        {
+            long feature = 0xcbf29ce484222325L;
+            for (int j = i; j < Math.min(words.length, i + SHINGLE_SIZE); j++)
+            {
+                feature = fnv1a(feature, words[j]);
+            }
+            feature = mix(feature);
+            for (int bit = 0; bit < Long.SIZE; bit++)
+            {
+                weights[bit] += ((feature >>> bit) & 1) == 1 ? 1 : -1;
+            }
+        }
+
+        long hash = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++)
+        {
+            if (weights[bit] > 0)
+            {
+                hash |= 1L << bit;
+            }
+        }
+        return hash;
+    }
+
+    // FNV alone leaves the low bits of short inputs poorly mixed, which would bias the SimHash bit votes
+    private static long mix(long hash)
+    {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static long fnv1a(long hash, String word)
+    {
+        for (int i = 0; i < word.length(); i++)
+        {
+            hash ^= word.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // Word separator, so "ab c" and "a bc" hash differently
+        hash ^= ' ';
+        return hash * 0x100000001b3L;
+    }
+}
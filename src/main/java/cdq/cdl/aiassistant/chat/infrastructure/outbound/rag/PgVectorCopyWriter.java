@@ -0,0 +1,148 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Deletes stale chunks and streams new ones into cdq_product_knowledge with the COPY protocol inside a single transaction
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class PgVectorCopyWriter
+{
+    private static final String COPY_SQL =
+            "COPY cdq_product_knowledge (embedding_id, embedding, text, metadata) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String DELETE_SQL = "DELETE FROM cdq_product_knowledge WHERE embedding_id = ANY (?)";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final DataSource dataSource;
+
+    int replace(Collection<String> staleIds, Iterable<List<EmbeddedChunk>> batches)
+    {
+        try (Connection connection = dataSource.getConnection())
+        {
+            connection.setAutoCommit(false);
+            try
+            {
+                delete(connection, staleIds);
+                int written = copy(connection, batches);
+                connection.commit();
+                return written;
+            }
+            catch (Exception e)
+            {
+                connection.rollback();
+                throw e;
+            }
+            finally
+            {
+                connection.setAutoCommit(true);
+            }
+        }
+        catch (SQLException e)
+        {
+            throw new IllegalStateException("Failed to bulk write embeddings into cdq_product_knowledge", e);
+        }
+    }
+
+    private void delete(Connection connection, Collection<String> ids) throws SQLException
+    {
+        if (ids.isEmpty())
+        {
+            return;
+        }
+
+        try (PreparedStatement ps = connection.prepareStatement(DELETE_SQL))
+        {
+            Array uuids = connection.createArrayOf("uuid", ids.toArray());
+            ps.setArray(1, uuids);
+            int deleted = ps.executeUpdate();
+            log.debug("Deleted {} stale chunks", deleted);
+        }
+    }
+
+    private int copy(Connection connection, Iterable<List<EmbeddedChunk>> batches) throws SQLException
+    {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        int written = 0;
+        try
+        {
+            for (List<EmbeddedChunk> batch : batches)
+            {
+                StringBuilder rows = new StringBuilder();
+                for (EmbeddedChunk chunk : batch)
+                {
+                    rows.append(toCsvRow(chunk));
+                }
+                byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                written += batch.size();
+            }
+            copyIn.endCopy();
+            return written;
+        }
+        finally
+        {
+            if (copyIn.isActive())
+            {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    static String toCsvRow(EmbeddedChunk chunk)
+    {
+        return chunk.id() + ","
+                + quote(vectorLiteral(chunk.embedding().vector())) + ","
+                + quote(chunk.segment().text()) + ","
+                + quote(metadataJson(chunk)) + "\n";
+    }
+
+    static String vectorLiteral(float[] vector)
+    {
+        StringBuilder literal = new StringBuilder(vector.length * 10).append('[');
+        for (int i = 0; i < vector.length; i++)
+        {
+            if (i > 0)
+            {
+                literal.append(',');
+            }
+            literal.append(vector[i]);
+        }
+        return literal.append(']').toString();
+    }
+
+    private static String metadataJson(EmbeddedChunk chunk)
+    {
+        try
+        {
+            return OBJECT_MAPPER.writeValueAsString(chunk.segment().metadata().toMap());
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new IllegalStateException("Could not serialize metadata of chunk " + chunk.id(), e);
+        }
+    }
+
+    private static String quote(String value)
+    {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
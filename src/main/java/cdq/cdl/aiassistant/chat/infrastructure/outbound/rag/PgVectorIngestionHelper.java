@@ -3,6 +3,10 @@ package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import javax.sql.DataSource;
 
@@ -16,38 +20,85 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PgVectorIngestionHelper
 {
+    static final String SOURCE = "source";
+    static final String CONTENT_HASH = "content_hash";
+
     private final DataSource dataSource;
 
-    boolean tableExistsAndNotEmpty()
+    boolean hasAnyChunks()
+    {
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement ps = conn.prepareStatement("SELECT EXISTS (SELECT 1 FROM cdq_product_knowledge)");
+                ResultSet rs = ps.executeQuery())
+        {
+            return rs.next() && rs.getBoolean(1);
+        }
+        catch (SQLException e)
+        {
+            throw new IllegalStateException("Could not check cdq_product_knowledge for stored chunks", e);
+        }
+    }
+
+    // Rows written before chunks carried a source are treated as part of every source so they get cleaned up
+    List<StoredChunk> storedChunks(String source)
     {
         String sql = """
-                SELECT EXISTS (
-                    SELECT 1
-                    FROM information_schema.tables
-                    WHERE table_schema = 'public'
-                      AND table_name = ?
-                )
-                AND EXISTS (
-                    SELECT 1 FROM %s LIMIT 1
-                )
-                """.formatted("cdq_product_knowledge");
+                SELECT embedding_id::text, metadata->>'%s'
+                FROM cdq_product_knowledge
+                WHERE metadata IS NULL
+                   OR metadata->>'%s' IS NULL
+                   OR metadata->>'%s' = ?
+                """.formatted(CONTENT_HASH, SOURCE, SOURCE);
 
         try (Connection conn = dataSource.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sql))
         {
+            ps.setString(1, source);
 
-            ps.setString(1, "cdq_product_knowledge");
-
+            List<StoredChunk> chunks = new ArrayList<>();
             try (ResultSet rs = ps.executeQuery())
             {
-                return rs.next() && rs.getBoolean(1);
+                while (rs.next())
+                {
+                    chunks.add(new StoredChunk(rs.getString(1), rs.getString(2)));
+                }
             }
+            return chunks;
+        }
+        catch (SQLException e)
+        {
+            // Assuming an empty table here would re-embed and duplicate every chunk
+            throw new IllegalStateException("Could not read stored chunks of " + source + " from cdq_product_knowledge", e);
+        }
+    }
 
+    // Rows without a source are left to storedChunks, which hands them to the next synced source for cleanup
+    int deleteSourcesOtherThan(Collection<String> sources)
+    {
+        if (sources.isEmpty())
+        {
+            throw new IllegalArgumentException("Refusing to delete the chunks of every source");
         }
-        catch (Exception e)
+
+        String sql = """
+                DELETE FROM cdq_product_knowledge
+                WHERE metadata->>'%1$s' IS NOT NULL
+                  AND NOT (metadata->>'%1$s' = ANY (?))
+                """.formatted(SOURCE);
+
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql))
+        {
+            ps.setArray(1, conn.createArrayOf("text", sources.toArray()));
+            return ps.executeUpdate();
+        }
+        catch (SQLException e)
         {
-            log.warn("Could not determine table state for {}, assuming empty", "cdq_product_knowledge", e);
-            return false;
+            throw new IllegalStateException("Could not delete chunks of removed sources from cdq_product_knowledge", e);
         }
     }
+
+    record StoredChunk(String id, String contentHash)
+    {
+    }
 }
@@ -1,51 +1,110 @@
 package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import cdq.cdl.aiassistant.chat.domain.port.ProductKnowledgePort;
-import dev.langchain4j.data.embedding.Embedding;
-import dev.langchain4j.data.segment.TextSegment;
+import com.pgvector.PGvector;
 import dev.langchain4j.model.embedding.EmbeddingModel;
-import dev.langchain4j.store.embedding.EmbeddingMatch;
-import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
-import dev.langchain4j.store.embedding.EmbeddingSearchResult;
-import dev.langchain4j.store.embedding.EmbeddingStore;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Component
-@RequiredArgsConstructor
 class PgVectorKnowledgeAdapter implements ProductKnowledgePort
 {
-    private final EmbeddingStore<TextSegment> embeddingStore;
+    // Same score threshold as the LangChain4j store, the query is issued here so the index settings of
+    // VectorSearchTuning apply to the connection that runs it and VectorStorage decides how the index is used
+    private static final String SEARCH_SQL = """
+            SELECT text, embedding::text AS embedding, distance
+            FROM (
+            %s
+            ) nearest
+            WHERE (2 - distance) / 2 >= ?
+            ORDER BY distance
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VectorSearchTuning tuning;
+    private final VectorStorage storage;
     private final EmbeddingModel embeddingModel;
+    private final KnowledgeBaseStatus status;
+    private final ContextAssembler contextAssembler;
+    private final MeterRegistry meterRegistry;
+    private final String searchSql;
+
+    // Number of chunks that used to be sent as they were, the baseline of rag.context.tokens.saved
+    static final int MAX_RESULTS = 10;
+    static final double MIN_SCORE = 0.1;
+    static final String NO_RESULTS = "No relevant information found";
+    static final String NOT_READY = "The CDQ product knowledge base is still warming up and cannot be searched yet. "
+            + "Tell the user that product information will be available shortly.";
+    static final String INGESTION_FAILED = "The CDQ product knowledge base could not be loaded and cannot be searched right now. "
+            + "Tell the user that product information is temporarily unavailable.";
 
-    private static final int MAX_RESULTS = 10;
-    private static final double MIN_SCORE = 0.1;
+    PgVectorKnowledgeAdapter(JdbcTemplate jdbcTemplate,
+                             VectorSearchTuning tuning,
+                             VectorStorage storage,
+                             EmbeddingModel embeddingModel,
+                             KnowledgeBaseStatus status,
+                             ContextAssembler contextAssembler,
+                             MeterRegistry meterRegistry)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tuning = tuning;
+        this.storage = storage;
+        this.embeddingModel = embeddingModel;
+        this.status = status;
+        this.contextAssembler = contextAssembler;
+        this.meterRegistry = meterRegistry;
+        this.searchSql = SEARCH_SQL.formatted(storage.nearestNeighboursSql("text, embedding"));
+    }
 
     @Override
     public String search(String query)
     {
-        Embedding queryEmbedding = embeddingModel.embed(query).content();
+        if (!status.isReady())
+        {
+            return unavailable(status);
+        }
+
+        float[] queryVector = embeddingModel.embed(query).content().vector();
 
-        EmbeddingSearchRequest searchRequest = EmbeddingSearchRequest.builder()
-                .queryEmbedding(queryEmbedding)
-                .maxResults(MAX_RESULTS)
-                .minScore(MIN_SCORE)
-                .build();
+        return contextAssembler.assemble(timedSearch(PgVectorCopyWriter.vectorLiteral(queryVector)));
+    }
 
-        EmbeddingSearchResult<TextSegment> searchResult = embeddingStore.search(searchRequest);
-        List<EmbeddingMatch<TextSegment>> matches = searchResult.matches();
+    static String unavailable(KnowledgeBaseStatus status)
+    {
+        return status.state() == KnowledgeBaseStatus.State.FAILED ? INGESTION_FAILED : NOT_READY;
+    }
 
-        if (matches == null || matches.isEmpty())
+    // Only the pgvector query, the query embedding is timed separately as embedding.calls
+    private List<ContextAssembler.Candidate> timedSearch(String queryVector)
+    {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try
         {
-            return "No relevant information found";
+            int limit = contextAssembler.candidates();
+            Object[] args = Stream.concat(
+                            Arrays.stream(storage.nearestNeighboursArgs(queryVector, limit)),
+                            Stream.of(MIN_SCORE))
+                    .toArray();
+            List<ContextAssembler.Candidate> candidates = tuning.apply(storage.indexRows(limit), () -> jdbcTemplate.query(searchSql,
+                    (rs, row) -> new ContextAssembler.Candidate(
+                            rs.getString("text"),
+                            new PGvector(rs.getString("embedding")).toArray(),
+                            1 - rs.getDouble("distance")),
+                    args));
+            outcome = "success";
+            return candidates;
+        }
+        finally
+        {
+            sample.stop(meterRegistry.timer("rag.search", "store", "pgvector", "outcome", outcome));
         }
-
-        return matches.stream()
-                .map(m -> m.embedded().text())
-                .collect(Collectors.joining("\n\n"));
     }
 }
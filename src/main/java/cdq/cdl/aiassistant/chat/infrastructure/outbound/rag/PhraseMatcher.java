@@ -0,0 +1,157 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+// Aho-Corasick automaton over lower-cased phrases: one pass over the text finds whether any phrase occurs,
+// however many phrases there are. Immutable after construction.
+class PhraseMatcher
+{
+    private static final int ASCII = 128;
+
+    // Maps a character to its column in the transition table, -1 for characters that occur in no phrase
+    private final int[] asciiSymbols = new int[ASCII];
+    private final Map<Character, Integer> otherSymbols = new HashMap<>();
+    private final int[][] transitions;
+    private final boolean[] accepting;
+
+    PhraseMatcher(List<String> phrases)
+    {
+        Arrays.fill(asciiSymbols, -1);
+        List<int[]> gotoTable = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+
+        int symbolCount = 0;
+        for (String phrase : phrases)
+        {
+            for (char c : phrase.toLowerCase().toCharArray())
+            {
+                if (symbolOf(c) < 0)
+                {
+                    register(c, symbolCount++);
+                }
+            }
+        }
+
+        gotoTable.add(newRow(symbolCount));
+        terminal.add(false);
+        for (String phrase : phrases)
+        {
+            if (phrase.isEmpty())
+            {
+                continue;
+            }
+            int state = 0;
+            for (char c : phrase.toLowerCase().toCharArray())
+            {
+                int symbol = symbolOf(c);
+                if (gotoTable.get(state)[symbol] < 0)
+                {
+                    gotoTable.get(state)[symbol] = gotoTable.size();
+                    gotoTable.add(newRow(symbolCount));
+                    terminal.add(false);
+                }
+                state = gotoTable.get(state)[symbol];
+            }
+            terminal.set(state, true);
+        }
+
+        transitions = gotoTable.toArray(int[][]::new);
+        accepting = new boolean[terminal.size()];
+        for (int i = 0; i < accepting.length; i++)
+        {
+            accepting[i] = terminal.get(i);
+        }
+        buildFailureTransitions(symbolCount);
+    }
+
+    boolean containsAny(CharSequence text)
+    {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++)
+        {
+            int symbol = symbolOf(Character.toLowerCase(text.charAt(i)));
+            state = symbol < 0 ? 0 : transitions[state][symbol];
+            if (accepting[state])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Breadth-first, so every state's failure target is complete before its children are visited.
+    // Missing transitions are replaced by the failure target's, which turns the trie into a DFA.
+    private void buildFailureTransitions(int symbolCount)
+    {
+        int[] failure = new int[transitions.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int symbol = 0; symbol < symbolCount; symbol++)
+        {
+            int next = transitions[0][symbol];
+            if (next < 0)
+            {
+                transitions[0][symbol] = 0;
+            }
+            else
+            {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty())
+        {
+            int state = queue.poll();
+            accepting[state] |= accepting[failure[state]];
+
+            for (int symbol = 0; symbol < symbolCount; symbol++)
+            {
+                int next = transitions[state][symbol];
+                if (next < 0)
+                {
+                    transitions[state][symbol] = transitions[failure[state]][symbol];
+                }
+                else
+                {
+                    failure[next] = transitions[failure[state]][symbol];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    private int symbolOf(char c)
+    {
+        if (c < ASCII)
+        {
+            return asciiSymbols[c];
+        }
+        return otherSymbols.getOrDefault(c, -1);
+    }
+
+    private void register(char c, int symbol)
+    {
+        if (c < ASCII)
+        {
+            asciiSymbols[c] = symbol;
+        }
+        else
+        {
+            otherSymbols.put(c, symbol);
+        }
+    }
+
+    private static int[] newRow(int symbolCount)
+    {
+        int[] row = new int[symbolCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,24 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.port.ProductKnowledgePort;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveProductKnowledgePort;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// Embedding through Ollama and querying pgvector over JDBC are blocking, so searches are moved off the event loop
+@Component
+@RequiredArgsConstructor
+class ReactiveProductKnowledgeAdapter implements ReactiveProductKnowledgePort
+{
+    private final ProductKnowledgePort knowledgePort;
+
+    @Override
+    public Mono<String> search(String query)
+    {
+        return Mono.fromCallable(() -> knowledgePort.search(query))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
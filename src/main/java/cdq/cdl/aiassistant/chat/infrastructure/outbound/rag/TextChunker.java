@@ -0,0 +1,149 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.shared.text.TokenEstimator;
+
+// Splits text into chunks of at most max-tokens, preferring paragraph, then sentence, then word boundaries.
+// Consecutive chunks share up to overlap-tokens of trailing text, so a fact on a chunk border stays retrievable.
+@Component
+class TextChunker
+{
+    private static final List<Pattern> SEPARATORS = List.of(
+            Pattern.compile("\\n\\s*\\n"),
+            Pattern.compile("(?<=[.!?])\\s+|\\n"),
+            Pattern.compile("\\s+"));
+    private static final List<String> JOINERS = List.of("\n\n", "\n", " ");
+
+    private final int maxTokens;
+    private final int overlapTokens;
+
+    TextChunker(@Value("${rag.ingestion.chunking.max-tokens:200}") int maxTokens,
+                @Value("${rag.ingestion.chunking.overlap-tokens:30}") int overlapTokens)
+    {
+        if (overlapTokens >= maxTokens)
+        {
+            throw new IllegalArgumentException("Chunk overlap (" + overlapTokens + ") must be smaller than the chunk size (" + maxTokens + ")");
+        }
+        this.maxTokens = maxTokens;
+        this.overlapTokens = overlapTokens;
+    }
+
+    List<String> split(List<String> texts)
+    {
+        List<String> chunks = new ArrayList<>();
+        for (String text : texts)
+        {
+            chunks.addAll(split(text));
+        }
+        return chunks;
+    }
+
+    List<String> split(String text)
+    {
+        String stripped = text.strip();
+        if (stripped.isEmpty())
+        {
+            return List.of();
+        }
+        if (TokenEstimator.estimate(stripped) <= maxTokens)
+        {
+            return List.of(stripped);
+        }
+
+        List<Piece> pieces = new ArrayList<>();
+        collectPieces(stripped, 0, "", pieces);
+        return merge(pieces);
+    }
+
+    // Breaks text at the coarsest separator that makes every piece fit, a single oversized word is cut by characters
+    private void collectPieces(String text, int level, String joiner, List<Piece> pieces)
+    {
+        int tokens = TokenEstimator.estimate(text);
+        if (tokens <= maxTokens)
+        {
+            pieces.add(new Piece(text, joiner, tokens));
+            return;
+        }
+
+        if (level == SEPARATORS.size())
+        {
+            int step = Math.max(1, text.length() * maxTokens / tokens);
+            for (int start = 0; start < text.length(); start += step)
+            {
+                String part = text.substring(start, Math.min(text.length(), start + step));
+                pieces.add(new Piece(part, start == 0 ? joiner : "", TokenEstimator.estimate(part)));
+            }
+            return;
+        }
+
+        String first = joiner;
+        for (String part : SEPARATORS.get(level).split(text))
+        {
+            if (!part.isBlank())
+            {
+                collectPieces(part.strip(), level + 1, first, pieces);
+                first = JOINERS.get(level);
+            }
+        }
+    }
+
+    private List<String> merge(List<Piece> pieces)
+    {
+        List<String> chunks = new ArrayList<>();
+        Deque<Piece> current = new ArrayDeque<>();
+        int currentTokens = 0;
+        boolean hasNewContent = false;
+
+        for (Piece piece : pieces)
+        {
+            if (!current.isEmpty() && currentTokens + piece.tokens() > maxTokens)
+            {
+                chunks.add(join(current));
+                hasNewContent = false;
+
+                // Keep the tail of the emitted chunk as the overlap, dropping it too if the next piece would not fit
+                while (!current.isEmpty()
+                        && (currentTokens > overlapTokens || currentTokens + piece.tokens() > maxTokens))
+                {
+                    currentTokens -= current.removeFirst().tokens();
+                }
+            }
+            current.addLast(piece);
+            currentTokens += piece.tokens();
+            hasNewContent = true;
+        }
+
+        if (hasNewContent)
+        {
+            chunks.add(join(current));
+        }
+        return chunks;
+    }
+
+    private static String join(Deque<Piece> pieces)
+    {
+        StringBuilder chunk = new StringBuilder();
+        for (Piece piece : pieces)
+        {
+            if (!chunk.isEmpty())
+            {
+                chunk.append(piece.joiner());
+            }
+            chunk.append(piece.text());
+        }
+        return chunk.toString().strip();
+    }
+
+    // joiner is the separator that preceded the piece in the source text, empty inside a word cut by characters
+    private record Piece(String text, String joiner, int tokens)
+    {
+    }
+}
@@ -0,0 +1,194 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Keeps one approximate nearest neighbour index on cdq_product_knowledge.embedding matching the configuration.
+// The index name encodes its parameters, so a changed configuration builds the new index next to the old one
+// with CREATE INDEX CONCURRENTLY and only then drops the old one; searches never fall back to a sequential scan.
+// Switching VectorStorage modes works the same way, the storage layout is part of the name.
+// Nothing is built on an empty table, so the first bulk load is written without index maintenance.
+// The embedding store is injected only so the table exists before it is inspected.
+@Component
+@Slf4j
+class VectorIndexManager
+{
+    static final String INDEX_PREFIX = "cdq_product_knowledge_embedding_";
+
+    enum Type
+    {
+        NONE,
+        HNSW,
+        IVFFLAT
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VectorStorage storage;
+    private final Type type;
+    private final int maxConnections;
+    private final int efConstruction;
+    private final int lists;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("vector-index").daemon(true).factory());
+
+    private volatile String currentIndex;
+
+    VectorIndexManager(JdbcTemplate jdbcTemplate,
+                       EmbeddingStore<TextSegment> embeddingStore,
+                       VectorStorage storage,
+                       @Value("${rag.retrieval.vector-index.type:hnsw}") String type,
+                       @Value("${rag.retrieval.vector-index.m:16}") int maxConnections,
+                       @Value("${rag.retrieval.vector-index.ef-construction:64}") int efConstruction,
+                       @Value("${rag.retrieval.vector-index.lists:0}") int lists)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storage = storage;
+        this.type = Type.valueOf(type.strip().toUpperCase(Locale.ROOT));
+        this.maxConnections = maxConnections;
+        this.efConstruction = efConstruction;
+        this.lists = lists;
+    }
+
+    // Builds run on their own thread, a concurrent build of a large table takes minutes
+    @EventListener(ApplicationReadyEvent.class)
+    void onStartup()
+    {
+        executor.execute(this::ensureIndex);
+    }
+
+    @EventListener
+    void onKnowledgeBaseUpdated(KnowledgeBaseUpdatedEvent event)
+    {
+        executor.execute(this::ensureIndex);
+    }
+
+    @PreDestroy
+    void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    String currentIndex()
+    {
+        return currentIndex;
+    }
+
+    synchronized void ensureIndex()
+    {
+        try
+        {
+            long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM cdq_product_knowledge", Long.class);
+            Optional<IndexDefinition> wanted = definitionFor(rows);
+            List<ExistingIndex> existing = jdbcTemplate.query("""
+                            SELECT c.relname, i.indisvalid
+                            FROM pg_index i
+                            JOIN pg_class c ON c.oid = i.indexrelid
+                            WHERE i.indrelid = 'cdq_product_knowledge'::regclass
+                              AND starts_with(c.relname, ?)
+                            """,
+                    (rs, row) -> new ExistingIndex(rs.getString(1), rs.getBoolean(2)),
+                    INDEX_PREFIX);
+
+            if (wanted.isPresent())
+            {
+                build(wanted.get(), existing);
+            }
+
+            // The previous index is only dropped once its replacement is valid
+            for (ExistingIndex index : existing)
+            {
+                if (wanted.map(definition -> !definition.name().equals(index.name())).orElse(true))
+                {
+                    log.info("Dropping vector index {}", index.name());
+                    jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index.name());
+                }
+            }
+            currentIndex = wanted.map(IndexDefinition::name).orElse(null);
+        }
+        catch (Exception e)
+        {
+            log.warn("Could not update the vector index of cdq_product_knowledge: [{}]", e.getMessage());
+        }
+    }
+
+    private void build(IndexDefinition wanted, List<ExistingIndex> existing)
+    {
+        Optional<ExistingIndex> current = existing.stream()
+                .filter(index -> index.name().equals(wanted.name()))
+                .findFirst();
+        if (current.map(ExistingIndex::valid).orElse(false))
+        {
+            return;
+        }
+
+        // An interrupted concurrent build leaves an invalid index behind that is never used by the planner
+        if (current.isPresent())
+        {
+            log.warn("Vector index {} is invalid, rebuilding it", wanted.name());
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + wanted.name());
+        }
+
+        log.info("Building vector index {}", wanted.name());
+        long start = System.nanoTime();
+        jdbcTemplate.execute(wanted.ddl());
+        log.info("Built vector index {} in {} ms", wanted.name(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    Optional<IndexDefinition> definitionFor(long rows)
+    {
+        if (type == Type.NONE || rows == 0)
+        {
+            return Optional.empty();
+        }
+
+        return Optional.of(switch (type)
+        {
+            case HNSW -> definition("hnsw_m" + maxConnections + "_efc" + efConstruction,
+                    "hnsw", "m = " + maxConnections + ", ef_construction = " + efConstruction);
+            case IVFFLAT ->
+            {
+                int indexLists = lists > 0 ? lists : autoLists(rows);
+                yield definition("ivfflat_l" + indexLists, "ivfflat", "lists = " + indexLists);
+            }
+            case NONE -> throw new IllegalStateException("No index for type NONE");
+        });
+    }
+
+    // pgvector recommends rows / 1000 lists up to 1M rows and sqrt(rows) above. Rounded down to a power of two,
+    // so the IVFFlat index is retrained on the grown table only when it has about doubled.
+    static int autoLists(long rows)
+    {
+        long recommended = rows <= 1_000_000 ? rows / 1000 : (long) Math.sqrt(rows);
+        return Integer.highestOneBit((int) Math.max(1, recommended));
+    }
+
+    private IndexDefinition definition(String suffix, String method, String parameters)
+    {
+        String name = INDEX_PREFIX + suffix + storage.indexSuffix();
+        return new IndexDefinition(name, "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name
+                + " ON cdq_product_knowledge USING " + method + " (" + storage.indexColumn() + ") WITH (" + parameters + ")");
+    }
+
+    record IndexDefinition(String name, String ddl)
+    {
+    }
+
+    private record ExistingIndex(String name, boolean valid)
+    {
+    }
+}
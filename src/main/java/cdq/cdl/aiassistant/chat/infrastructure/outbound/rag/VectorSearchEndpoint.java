@@ -0,0 +1,40 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// GET /actuator/vectorsearch shows the active index and search settings,
+// POST with {"efSearch": 100} or {"probes": 20} changes them without a restart
+@Component
+@Endpoint(id = "vectorsearch")
+@RequiredArgsConstructor
+class VectorSearchEndpoint
+{
+    private final VectorSearchTuning tuning;
+    private final VectorIndexManager indexManager;
+
+    @ReadOperation
+    public Map<String, Object> settings()
+    {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("index", String.valueOf(indexManager.currentIndex()));
+        settings.put("efSearch", tuning.efSearch());
+        settings.put("probes", tuning.probes());
+        return settings;
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable Integer efSearch, @Nullable Integer probes)
+    {
+        tuning.update(efSearch, probes);
+        return settings();
+    }
+}
@@ -0,0 +1,73 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Query-time recall/latency trade-off of the vector index. The settings are applied with set_config(..., true),
+// the equivalent of SET LOCAL, so they last for the search transaction only and never leak into pooled connections.
+// Values can be changed at runtime through the vectorsearch actuator endpoint.
+@Component
+class VectorSearchTuning
+{
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile int efSearch;
+    private volatile int probes;
+
+    VectorSearchTuning(JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${rag.retrieval.vector-index.ef-search:40}") int efSearch,
+                       @Value("${rag.retrieval.vector-index.probes:10}") int probes)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        update(efSearch, probes);
+    }
+
+    // An HNSW scan returns at most ef_search rows, so it is raised to the number of rows the query takes from the index
+    <T> T apply(int indexRows, Supplier<T> search)
+    {
+        return transactionTemplate.execute(transaction ->
+        {
+            jdbcTemplate.queryForList("SELECT set_config('hnsw.ef_search', ?, true), set_config('ivfflat.probes', ?, true)",
+                    String.valueOf(Math.min(1000, Math.max(efSearch, indexRows))), String.valueOf(probes));
+            return search.get();
+        });
+    }
+
+    int efSearch()
+    {
+        return efSearch;
+    }
+
+    int probes()
+    {
+        return probes;
+    }
+
+    // Ranges accepted by pgvector, values outside would fail every search
+    synchronized void update(Integer efSearch, Integer probes)
+    {
+        if (efSearch != null)
+        {
+            if (efSearch < 1 || efSearch > 1000)
+            {
+                throw new IllegalArgumentException("hnsw.ef_search must be between 1 and 1000, got " + efSearch);
+            }
+            this.efSearch = efSearch;
+        }
+        if (probes != null)
+        {
+            if (probes < 1 || probes > 32768)
+            {
+                throw new IllegalArgumentException("ivfflat.probes must be between 1 and 32768, got " + probes);
+            }
+            this.probes = probes;
+        }
+    }
+}
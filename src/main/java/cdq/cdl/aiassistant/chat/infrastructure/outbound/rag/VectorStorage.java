@@ -0,0 +1,127 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// How embeddings are represented in the vector index. The table keeps the full float32 vectors, the index is built
+// over an expression of them: halfvec (2 bytes per dimension) or binary quantization (1 bit per dimension),
+// optionally over the first `dimensions` components only (nomic-embed-text is trained Matryoshka-style, so a prefix
+// is still a usable embedding, and cosine distance renormalizes it). The compact index is what has to stay in
+// shared buffers; its top candidates are rescored with the full vectors from the table.
+@Component
+class VectorStorage
+{
+    static final int STORED_DIMENSIONS = 768;
+    static final String TABLE = "cdq_product_knowledge";
+
+    enum Mode
+    {
+        FULL,
+        HALFVEC,
+        BINARY
+    }
+
+    private final Mode mode;
+    private final int dimensions;
+    private final int rescoreFactor;
+
+    VectorStorage(@Value("${rag.retrieval.vector-storage.mode:full}") String mode,
+                  @Value("${rag.retrieval.vector-storage.dimensions:768}") int dimensions,
+                  @Value("${rag.retrieval.vector-storage.rescore-factor:4}") int rescoreFactor)
+    {
+        if (dimensions < 1 || dimensions > STORED_DIMENSIONS)
+        {
+            throw new IllegalArgumentException("Vector dimensions must be between 1 and " + STORED_DIMENSIONS + ", got " + dimensions);
+        }
+        if (rescoreFactor < 1)
+        {
+            throw new IllegalArgumentException("Rescore factor must be at least 1, got " + rescoreFactor);
+        }
+        this.mode = Mode.valueOf(mode.strip().toUpperCase(Locale.ROOT));
+        this.dimensions = dimensions;
+        this.rescoreFactor = rescoreFactor;
+    }
+
+    boolean isCompressed()
+    {
+        return mode != Mode.FULL || dimensions < STORED_DIMENSIONS;
+    }
+
+    // Distinguishes index names, empty for the full-precision layout so existing indexes keep their names
+    String indexSuffix()
+    {
+        if (!isCompressed())
+        {
+            return "";
+        }
+        return switch (mode)
+        {
+            case FULL -> "_full" + dimensions;
+            case HALFVEC -> "_half" + dimensions;
+            case BINARY -> "_bit" + dimensions;
+        };
+    }
+
+    // Column definition for CREATE INDEX ... USING hnsw|ivfflat (<indexColumn>)
+    String indexColumn()
+    {
+        if (!isCompressed())
+        {
+            return "embedding vector_cosine_ops";
+        }
+        String opClass = switch (mode)
+        {
+            case FULL -> "vector_cosine_ops";
+            case HALFVEC -> "halfvec_cosine_ops";
+            case BINARY -> "bit_hamming_ops";
+        };
+        return "(" + expression("embedding") + ") " + opClass;
+    }
+
+    // Must match the index expression exactly, otherwise the planner does not use the index
+    String expression(String vector)
+    {
+        String prefix = dimensions < STORED_DIMENSIONS ? "subvector(" + vector + ", 1, " + dimensions + ")" : vector;
+        return switch (mode)
+        {
+            case FULL -> dimensions < STORED_DIMENSIONS ? prefix + "::vector(" + dimensions + ")" : vector;
+            case HALFVEC -> prefix + "::halfvec(" + dimensions + ")";
+            case BINARY -> "binary_quantize(" + prefix + ")::bit(" + dimensions + ")";
+        };
+    }
+
+    String nearestNeighboursSql(String columns)
+    {
+        return nearestNeighboursSql(TABLE, columns);
+    }
+
+    // Selects the given columns (which must include embedding) and the full-precision cosine distance of the
+    // limit nearest rows. Parameters are nearestNeighboursArgs(queryVector, limit).
+    String nearestNeighboursSql(String table, String columns)
+    {
+        String operator = mode == Mode.BINARY ? "<~>" : "<=>";
+        return """
+                SELECT %1$s, embedding <=> ?::vector AS distance
+                FROM (
+                    SELECT %1$s
+                    FROM %2$s
+                    ORDER BY %3$s %4$s %5$s
+                    LIMIT ?
+                ) candidates
+                ORDER BY distance
+                LIMIT ?""".formatted(columns, table, expression("embedding"), operator, expression("?::vector"));
+    }
+
+    Object[] nearestNeighboursArgs(String queryVector, int limit)
+    {
+        return new Object[]{queryVector, queryVector, indexRows(limit), limit};
+    }
+
+    // Rows read from the index for limit results: compact representations are over-fetched and rescored
+    int indexRows(int limit)
+    {
+        return isCompressed() ? limit * rescoreFactor : limit;
+    }
+}
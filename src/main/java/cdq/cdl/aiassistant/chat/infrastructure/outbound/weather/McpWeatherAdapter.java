@@ -18,9 +18,15 @@ import lombok.extern.slf4j.Slf4j;
 class McpWeatherAdapter implements WeatherPort
 {
     private final McpHttpClient mcp;
+    private final TemperatureCache cache;
 
     @Override
     public Temperature getCurrentTemperature(City city)
+    {
+        return cache.get(city.name(), () -> fetchCurrentTemperature(city));
+    }
+
+    private Temperature fetchCurrentTemperature(City city)
     {
         log.info("Fetching current temperature for city: [{}]", city.name());
 
@@ -32,6 +38,11 @@ class McpWeatherAdapter implements WeatherPort
                 )
         );
 
+        return temperatureOf(result);
+    }
+
+    static Temperature temperatureOf(JsonNode result)
+    {
         JsonNode temp = result.get("temperature");
 
         if (temp == null)
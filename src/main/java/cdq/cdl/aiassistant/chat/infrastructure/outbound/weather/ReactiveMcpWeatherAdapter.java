@@ -0,0 +1,43 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.weather;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.Temperature;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveWeatherPort;
+import cdq.cdl.aiassistant.chat.infrastructure.mcp.McpHttpClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+// Shares the per-city cache with McpWeatherAdapter, so blocking and reactive callers coalesce on the same MCP call
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class ReactiveMcpWeatherAdapter implements ReactiveWeatherPort
+{
+    private final McpHttpClient mcp;
+    private final TemperatureCache cache;
+
+    @Override
+    public Mono<Temperature> getCurrentTemperature(City city)
+    {
+        return Mono.fromFuture(() -> cache.getAsync(city.name(), () -> fetchCurrentTemperature(city).toFuture()));
+    }
+
+    private Mono<Temperature> fetchCurrentTemperature(City city)
+    {
+        log.info("Fetching current temperature for city: [{}]", city.name());
+
+        return mcp.callToolAsync(
+                        "get_current_weather",
+                        Map.of(
+                                "city", city.name(),
+                                "units", "metric"
+                        ))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Temperature missing in MCP response: null")))
+                .map(McpWeatherAdapter::temperatureOf);
+    }
+}
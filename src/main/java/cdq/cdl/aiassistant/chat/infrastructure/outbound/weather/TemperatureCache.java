@@ -0,0 +1,220 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.weather;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import cdq.cdl.aiassistant.chat.domain.model.Temperature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Per-city temperature cache; concurrent misses for the same city share a single in-flight load. City names come
+// from the model, so the cache is bounded: once it outgrows max-entries, expired cities and then the least recently
+// fetched ones are dropped. Background refreshes of stale entries are counted in weather.cache.refreshes{result}.
+@Component
+@Slf4j
+class TemperatureCache
+{
+    private static final Executor SYNC = Runnable::run;
+
+    private final Duration freshness;
+    private final boolean staleWhileRevalidate;
+    private final Duration maxStale;
+    private final int maxEntries;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    private final Counter refreshes;
+    private final Counter failedRefreshes;
+
+    private final ConcurrentMap<String, CachedTemperature> values = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Temperature>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    TemperatureCache(
+            @Value("${external-api.weather.cache.freshness:5m}") Duration freshness,
+            @Value("${external-api.weather.cache.stale-while-revalidate.enabled:false}") boolean staleWhileRevalidate,
+            @Value("${external-api.weather.cache.stale-while-revalidate.max-stale:30m}") Duration maxStale,
+            @Value("${external-api.weather.cache.max-entries:10000}") int maxEntries,
+            MeterRegistry meterRegistry)
+    {
+        this(freshness, staleWhileRevalidate, maxStale, maxEntries, Clock.systemUTC(),
+                task -> Thread.ofVirtual().name("weather-refresh").start(task), meterRegistry);
+    }
+
+    TemperatureCache(Duration freshness,
+                     boolean staleWhileRevalidate,
+                     Duration maxStale,
+                     int maxEntries,
+                     Clock clock,
+                     Executor refreshExecutor,
+                     MeterRegistry meterRegistry)
+    {
+        if (maxEntries <= 0)
+        {
+            throw new IllegalArgumentException("external-api.weather.cache.max-entries must be positive");
+        }
+        this.freshness = freshness;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.maxStale = maxStale;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshes = meterRegistry.counter("weather.cache.refreshes", "result", "success");
+        this.failedRefreshes = meterRegistry.counter("weather.cache.refreshes", "result", "failure");
+    }
+
+    Temperature get(String city, Supplier<Temperature> loader)
+    {
+        // The blocking loader runs on the calling thread, wrapped as an already completed future
+        return await(getAsync(city, () ->
+        {
+            try
+            {
+                return CompletableFuture.completedFuture(loader.get());
+            }
+            catch (RuntimeException e)
+            {
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    CompletableFuture<Temperature> getAsync(String city, Supplier<CompletableFuture<Temperature>> loader)
+    {
+        String key = city.trim().toLowerCase(Locale.ROOT);
+        CachedTemperature cached = values.get(key);
+        Instant now = clock.instant();
+
+        if (cached != null && cached.isFresh(now, freshness))
+        {
+            return CompletableFuture.completedFuture(cached.temperature());
+        }
+
+        if (cached != null && staleWhileRevalidate && cached.isFresh(now, freshness.plus(maxStale)))
+        {
+            log.debug("Serving stale temperature for [{}] while refreshing", city);
+            load(key, loader, true);
+            return CompletableFuture.completedFuture(cached.temperature());
+        }
+
+        return load(key, loader, false);
+    }
+
+    int size()
+    {
+        return values.size();
+    }
+
+    // Nobody waits for a background refresh, so its outcome is logged and counted here
+    private CompletableFuture<Temperature> load(String key, Supplier<CompletableFuture<Temperature>> loader, boolean background)
+    {
+        CompletableFuture<Temperature> created = new CompletableFuture<>();
+        CompletableFuture<Temperature> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null)
+        {
+            return existing;
+        }
+
+        (background ? refreshExecutor : SYNC).execute(() ->
+        {
+            CompletableFuture<Temperature> loading;
+            try
+            {
+                loading = loader.get();
+            }
+            catch (RuntimeException e)
+            {
+                loading = CompletableFuture.failedFuture(e);
+            }
+
+            loading.whenComplete((temperature, error) ->
+            {
+                if (error == null)
+                {
+                    // Stored before the future completes, so callers arriving after removal see the fresh value
+                    values.put(key, new CachedTemperature(temperature, clock.instant()));
+                    if (values.size() > maxEntries)
+                    {
+                        prune();
+                    }
+                    created.complete(temperature);
+                    if (background)
+                    {
+                        refreshes.increment();
+                    }
+                }
+                else
+                {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (background)
+                    {
+                        failedRefreshes.increment();
+                        log.warn("Could not refresh stale temperature of [{}], serving the cached one: [{}]",
+                                key, cause.getMessage());
+                    }
+                    created.completeExceptionally(cause);
+                }
+                inFlight.remove(key, created);
+            });
+        });
+        return created;
+    }
+
+    // Evicts down to 90% of max-entries, so a full cache is not scanned again on the very next miss
+    private synchronized void prune()
+    {
+        Instant now = clock.instant();
+        Duration servable = staleWhileRevalidate ? freshness.plus(maxStale) : freshness;
+        values.values().removeIf(cached -> !cached.isFresh(now, servable));
+
+        int target = maxEntries - maxEntries / 10;
+        int excess = values.size() - target;
+        if (excess > 0)
+        {
+            values.entrySet().stream()
+                    .sorted(Comparator.comparing((Map.Entry<String, CachedTemperature> entry) -> entry.getValue().fetchedAt()))
+                    .limit(excess)
+                    .toList()
+                    .forEach(entry -> values.remove(entry.getKey(), entry.getValue()));
+        }
+        log.debug("Pruned temperature cache to {} cities", values.size());
+    }
+
+    private static Temperature await(CompletableFuture<Temperature> future)
+    {
+        try
+        {
+            return future.join();
+        }
+        catch (CompletionException e)
+        {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+            {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to load temperature", e.getCause());
+        }
+    }
+
+    private record CachedTemperature(Temperature temperature, Instant fetchedAt)
+    {
+        boolean isFresh(Instant now, Duration window)
+        {
+            return now.isBefore(fetchedAt.plus(window));
+        }
+    }
+}
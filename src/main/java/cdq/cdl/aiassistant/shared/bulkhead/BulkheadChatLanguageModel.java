@@ -0,0 +1,65 @@
+package cdq.cdl.aiassistant.shared.bulkhead;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.Response;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class BulkheadChatLanguageModel implements ChatLanguageModel
+{
+    private final ChatLanguageModel delegate;
+    private final LlmBulkhead bulkhead;
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages)
+    {
+        return guarded(() -> delegate.generate(messages));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+    {
+        return guarded(() -> delegate.generate(messages, toolSpecifications));
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification)
+    {
+        return guarded(() -> delegate.generate(messages, toolSpecification));
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest)
+    {
+        return guarded(() -> delegate.chat(chatRequest));
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities()
+    {
+        return delegate.supportedCapabilities();
+    }
+
+    private <T> T guarded(Supplier<T> call)
+    {
+        bulkhead.acquire();
+        try
+        {
+            return call.get();
+        }
+        finally
+        {
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package cdq.cdl.aiassistant.shared.bulkhead;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import lombok.RequiredArgsConstructor;
+
+// The permit is held until the stream completes or fails, not just until generate returns. generate never blocks:
+// without a free permit the call starts once one is released, on the releasing thread. Rejections and failures to
+// start are reported to the handler, because the follow-up call of a tool loop runs inside the completion callback
+// of the previous one, where a thrown exception would be lost and the stream would never finish.
+@RequiredArgsConstructor
+public class BulkheadStreamingChatLanguageModel implements StreamingChatLanguageModel
+{
+    private final StreamingChatLanguageModel delegate;
+    private final LlmBulkhead bulkhead;
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler)
+    {
+        whenPermitted(handler, releasingHandler -> delegate.generate(messages, releasingHandler));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages,
+                         List<ToolSpecification> toolSpecifications,
+                         StreamingResponseHandler<AiMessage> handler)
+    {
+        whenPermitted(handler, releasingHandler -> delegate.generate(messages, toolSpecifications, releasingHandler));
+    }
+
+    private void whenPermitted(StreamingResponseHandler<AiMessage> handler, Consumer<StreamingResponseHandler<AiMessage>> call)
+    {
+        bulkhead.acquireAsync().whenComplete((ignored, error) ->
+        {
+            if (error != null)
+            {
+                handler.onError(error);
+                return;
+            }
+
+            ReleasingHandler releasingHandler = new ReleasingHandler(handler);
+            try
+            {
+                call.accept(releasingHandler);
+            }
+            catch (RuntimeException e)
+            {
+                releasingHandler.onError(e);
+            }
+        });
+    }
+
+    @RequiredArgsConstructor
+    private class ReleasingHandler implements StreamingResponseHandler<AiMessage>
+    {
+        private final StreamingResponseHandler<AiMessage> delegate;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onNext(String token)
+        {
+            delegate.onNext(token);
+        }
+
+        @Override
+        public void onComplete(Response<AiMessage> response)
+        {
+            // Released first: completing may trigger the next call of a tool loop on this thread
+            release();
+            delegate.onComplete(response);
+        }
+
+        @Override
+        public void onError(Throwable error)
+        {
+            release();
+            delegate.onError(error);
+        }
+
+        void release()
+        {
+            if (released.compareAndSet(false, true))
+            {
+                bulkhead.release();
+            }
+        }
+    }
+}
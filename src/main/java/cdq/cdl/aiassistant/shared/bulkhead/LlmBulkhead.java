@@ -0,0 +1,149 @@
+package cdq.cdl.aiassistant.shared.bulkhead;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Caps concurrent calls to the chat model; callers beyond the bounded wait queue are rejected immediately.
+// Waiting callers queue in arrival order as futures, so asynchronous callers wait for a permit without holding a
+// thread, and a released permit is handed straight to the oldest waiter.
+@Slf4j
+public class LlmBulkhead
+{
+    private final int maxConcurrentCalls;
+    private final int maxWaitingCalls;
+    private final Duration maxWait;
+
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int availablePermits;
+
+    private final Counter rejected;
+    private final Counter timedOut;
+
+    public LlmBulkhead(int maxConcurrentCalls, int maxWaitingCalls, Duration maxWait, MeterRegistry meterRegistry)
+    {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitingCalls = maxWaitingCalls;
+        this.maxWait = maxWait;
+        this.availablePermits = maxConcurrentCalls;
+
+        this.rejected = meterRegistry.counter("llm.bulkhead.rejections", "reason", "queue_full");
+        this.timedOut = meterRegistry.counter("llm.bulkhead.rejections", "reason", "timeout");
+        meterRegistry.gauge("llm.bulkhead.active", this, LlmBulkhead::activeCalls);
+        meterRegistry.gauge("llm.bulkhead.waiting", this, LlmBulkhead::waitingCalls);
+    }
+
+    public void acquire()
+    {
+        CompletableFuture<Void> permit = acquireAsync();
+        try
+        {
+            permit.get();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof AiCapacityExceededException capacityExceeded)
+            {
+                throw capacityExceeded;
+            }
+            throw new IllegalStateException("Failed to wait for the assistant", e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            // A permit granted meanwhile is handed on to the next waiter
+            if (!permit.cancel(false) && !permit.isCompletedExceptionally())
+            {
+                release();
+            }
+            throw new AiCapacityExceededException("Interrupted while waiting for the assistant");
+        }
+    }
+
+    // Completes once a permit is held, or fails with AiCapacityExceededException. Cancelling a waiting future gives
+    // up its place in the queue; the permit of a completed one has to be released.
+    public CompletableFuture<Void> acquireAsync()
+    {
+        CompletableFuture<Void> waiter;
+        synchronized (this)
+        {
+            if (availablePermits > 0)
+            {
+                availablePermits--;
+                return CompletableFuture.completedFuture(null);
+            }
+            if (waiters.size() >= maxWaitingCalls)
+            {
+                rejected.increment();
+                log.warn("LLM bulkhead full: {} calls running, {} waiting", maxConcurrentCalls, maxWaitingCalls);
+                return CompletableFuture.failedFuture(
+                        new AiCapacityExceededException("The assistant is at capacity, please retry shortly"));
+            }
+            waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+        }
+
+        waiter.whenComplete((ignored, error) ->
+        {
+            if (waiter.isCancelled())
+            {
+                leave(waiter);
+            }
+        });
+        CompletableFuture.delayedExecutor(maxWait.toMillis(), TimeUnit.MILLISECONDS).execute(() ->
+        {
+            // Removed first, so a timed-out caller never sees itself counted as waiting
+            if (leave(waiter) && waiter.completeExceptionally(
+                    new AiCapacityExceededException("Timed out after " + maxWait.toSeconds() + "s waiting for the assistant")))
+            {
+                timedOut.increment();
+            }
+        });
+        return waiter;
+    }
+
+    public void release()
+    {
+        while (true)
+        {
+            CompletableFuture<Void> next;
+            synchronized (this)
+            {
+                next = waiters.pollFirst();
+                if (next == null)
+                {
+                    availablePermits++;
+                    return;
+                }
+            }
+            // Completed outside the lock, the waiter may go on to call the model on this thread
+            if (next.complete(null))
+            {
+                return;
+            }
+        }
+    }
+
+    synchronized int activeCalls()
+    {
+        return maxConcurrentCalls - availablePermits;
+    }
+
+    synchronized int waitingCalls()
+    {
+        return waiters.size();
+    }
+
+    private synchronized boolean leave(CompletableFuture<Void> waiter)
+    {
+        return waiters.remove(waiter);
+    }
+}
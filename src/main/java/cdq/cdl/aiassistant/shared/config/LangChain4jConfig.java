@@ -1,72 +1,137 @@
 package cdq.cdl.aiassistant.shared.config;
 
 import java.time.Duration;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.OllamaToolStreamingChatModel;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.ParallelToolAssistant;
 import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.GeographyTool;
 import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.ProductKnowledgeTool;
 import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.WeatherTool;
+import cdq.cdl.aiassistant.shared.bulkhead.BulkheadChatLanguageModel;
+import cdq.cdl.aiassistant.shared.bulkhead.BulkheadStreamingChatLanguageModel;
+import cdq.cdl.aiassistant.shared.bulkhead.LlmBulkhead;
+import cdq.cdl.aiassistant.shared.metrics.LlmMetrics;
+import cdq.cdl.aiassistant.shared.metrics.MeteredChatLanguageModel;
+import cdq.cdl.aiassistant.shared.metrics.MeteredStreamingChatLanguageModel;
+import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
 import dev.langchain4j.model.ollama.OllamaChatModel;
 import dev.langchain4j.service.AiServices;
+import dev.langchain4j.service.Result;
 import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.TokenStream;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class LangChain4jConfig
 {
+    public static final String SYSTEM_PROMPT = """
+            You are a helpful AI assistant with access to tools. You MUST use these tools to answer questions accurately.
+            
+            TOOLS AVAILABLE:
+            1. getCapitalCity(countryName) - Use when asked about capital cities
+            Examples: "capital of Germany", "what is the capital"
+            
+            2. getCityInformation(cityName) - Use for information about a specific city
+            Examples: "tell me about Berlin", "information about Munich", "what do you know about Berlin"
+            
+            3. getCurrentTemperature(cityName) - Use for weather/temperature questions
+            Examples: "temperature in Munich", "how warm is Berlin", "weather"
+            
+            4. searchCDQProductKnowledge(query) - Use for CDQ product and AML questions
+            ALWAYS use this tool when question contains ANY of these keywords:
+               - "CDQ" or "CDQ Fraud Guard" or "Fraud Guard"
+               - "AML" or "AML Guard" or "anti-money laundering"
+               - "fraud detection" or "financial crime"
+               - "compliance" or "risk assessment"
+               - "trust score" or "risk score"
+               - "transaction monitoring"
+            Examples: "What is CDQ Fraud Guard?", "Tell me about AML", "What is the AML Guard?"
+            
+            CRITICAL RULES:
+            - If question contains "CDQ Fraud Guard" -> MUST use searchCDQProductKnowledge
+            - If question contains "AML" -> MUST use searchCDQProductKnowledge
+            - If question mentions "trust score" or "risk score" -> MUST use searchCDQProductKnowledge
+            - If question asks about a city name -> use getCityInformation
+            - For "temperature of capital of X" -> call getCapitalCity FIRST, then getCurrentTemperature
+            - NEVER say "I don't know" if a tool can answer the question
+            - ALWAYS prefer using a tool over giving a generic answer
+            """;
+
+    // Shared by the blocking and streaming model, both end up on the same Ollama instance
+    @Bean
+    public LlmBulkhead llmBulkhead(
+            @Value("${chat.llm.bulkhead.max-concurrent-calls:4}") int maxConcurrentCalls,
+            @Value("${chat.llm.bulkhead.max-waiting-calls:32}") int maxWaitingCalls,
+            @Value("${chat.llm.bulkhead.max-wait:30s}") Duration maxWait,
+            MeterRegistry meterRegistry)
+    {
+        return new LlmBulkhead(maxConcurrentCalls, maxWaitingCalls, maxWait, meterRegistry);
+    }
+
     @Bean
     public ChatLanguageModel chatLanguageModel(
+            LlmBulkhead bulkhead,
+            MeterRegistry meterRegistry,
             @Value("${langchain4j.ollama.chat-model.base-url:http://localhost:11434}") String baseUrl,
             @Value("${langchain4j.ollama.chat-model.model-name:qwen2.5:1.5b}") String modelName,
             @Value("${langchain4j.ollama.chat-model.temperature:0.7}") Double temperature,
             @Value("${langchain4j.ollama.chat-model.timeout:120s}") Duration timeout)
     {
-        return OllamaChatModel.builder()
+        ChatLanguageModel ollamaChatModel = OllamaChatModel.builder()
                 .baseUrl(baseUrl)
                 .modelName(modelName)
                 .temperature(temperature)
                 .timeout(timeout)
                 .build();
+
+        // Metered inside the bulkhead, so llm.calls measures the model and not the time spent waiting for a permit
+        return new BulkheadChatLanguageModel(
+                new MeteredChatLanguageModel(ollamaChatModel, new LlmMetrics(meterRegistry, modelName)),
+                bulkhead);
+    }
+
+    @Bean
+    public StreamingChatLanguageModel streamingChatLanguageModel(
+            WebClient.Builder webClientBuilder,
+            LlmBulkhead bulkhead,
+            MeterRegistry meterRegistry,
+            @Value("${langchain4j.ollama.chat-model.base-url:http://localhost:11434}") String baseUrl,
+            @Value("${langchain4j.ollama.chat-model.model-name:qwen2.5:1.5b}") String modelName,
+            @Value("${langchain4j.ollama.chat-model.temperature:0.7}") Double temperature,
+            @Value("${langchain4j.ollama.chat-model.timeout:120s}") Duration timeout)
+    {
+        StreamingChatLanguageModel ollamaStreamingModel = new OllamaToolStreamingChatModel(
+                webClientBuilder.baseUrl(baseUrl).build(),
+                modelName,
+                temperature,
+                timeout);
+
+        return new BulkheadStreamingChatLanguageModel(
+                new MeteredStreamingChatLanguageModel(ollamaStreamingModel, new LlmMetrics(meterRegistry, modelName)),
+                bulkhead);
     }
 
     public interface AssistantAI
     {
-        @SystemMessage("""
-                You are a helpful AI assistant with access to tools. You MUST use these tools to answer questions accurately.
-                
-                TOOLS AVAILABLE:
-                1. getCapitalCity(countryName) - Use when asked about capital cities
-                Examples: "capital of Germany", "what is the capital"
-                
-                2. getCityInformation(cityName) - Use for information about a specific city
-                Examples: "tell me about Berlin", "information about Munich", "what do you know about Berlin"
-                
-                3. getCurrentTemperature(cityName) - Use for weather/temperature questions
-                Examples: "temperature in Munich", "how warm is Berlin", "weather"
-                
-                4. searchCDQProductKnowledge(query) - Use for CDQ product and AML questions
-                ALWAYS use this tool when question contains ANY of these keywords:
-                   - "CDQ" or "CDQ Fraud Guard" or "Fraud Guard"
-                   - "AML" or "AML Guard" or "anti-money laundering"
-                   - "fraud detection" or "financial crime"
-                   - "compliance" or "risk assessment"
-                   - "trust score" or "risk score"
-                   - "transaction monitoring"
-                Examples: "What is CDQ Fraud Guard?", "Tell me about AML", "What is the AML Guard?"
-                
-                CRITICAL RULES:
-                - If question contains "CDQ Fraud Guard" -> MUST use searchCDQProductKnowledge
-                - If question contains "AML" -> MUST use searchCDQProductKnowledge
-                - If question mentions "trust score" or "risk score" -> MUST use searchCDQProductKnowledge
-                - If question asks about a city name -> use getCityInformation
-                - For "temperature of capital of X" -> call getCapitalCity FIRST, then getCurrentTemperature
-                - NEVER say "I don't know" if a tool can answer the question
-                - ALWAYS prefer using a tool over giving a generic answer
-                """)
-        String chat(String userMessage);
+        @SystemMessage(SYSTEM_PROMPT)
+        Result<String> chat(String userMessage);
+
+        // History goes between the system prompt and the new user message
+        Result<String> chat(List<ChatMessage> history, String userMessage);
+    }
+
+    public interface StreamingAssistantAI
+    {
+        @SystemMessage(SYSTEM_PROMPT)
+        TokenStream chat(String userMessage);
     }
 
     @Bean
@@ -74,14 +139,28 @@ public class LangChain4jConfig
             ChatLanguageModel chatModel,
             GeographyTool geographyTool,
             WeatherTool weatherTool,
+            ProductKnowledgeTool productKnowledgeTool,
+            @Value("${chat.tools.max-concurrent-calls:8}") int maxConcurrentToolCalls,
+            @Value("${chat.tools.max-rounds:10}") int maxToolRounds)
+    {
+        return new ParallelToolAssistant(
+                chatModel,
+                SYSTEM_PROMPT,
+                List.of(geographyTool, weatherTool, productKnowledgeTool),
+                maxConcurrentToolCalls,
+                maxToolRounds);
+    }
+
+    @Bean
+    public StreamingAssistantAI streamingAssistantAI(
+            StreamingChatLanguageModel streamingChatModel,
+            GeographyTool geographyTool,
+            WeatherTool weatherTool,
             ProductKnowledgeTool productKnowledgeTool)
     {
-        return AiServices.builder(AssistantAI.class)
-                .chatLanguageModel(chatModel)
+        return AiServices.builder(StreamingAssistantAI.class)
+                .streamingChatLanguageModel(streamingChatModel)
                 .tools(geographyTool, weatherTool, productKnowledgeTool)
                 .build();
     }
 }
-
-
-
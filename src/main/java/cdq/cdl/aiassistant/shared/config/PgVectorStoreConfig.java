@@ -7,13 +7,17 @@ import javax.sql.DataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
+import cdq.cdl.aiassistant.shared.embedding.CachingEmbeddingModel;
+import cdq.cdl.aiassistant.shared.embedding.MeteredEmbeddingModel;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.ollama.OllamaEmbeddingModel;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.EmbeddingStoreIngestor;
 import dev.langchain4j.store.embedding.pgvector.PgVectorEmbeddingStore;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class PgVectorStoreConfig
@@ -22,13 +26,22 @@ public class PgVectorStoreConfig
     public EmbeddingModel embeddingModel(
             @Value("${langchain4j.ollama.embedding-model.base-url:http://localhost:11434}") String baseUrl,
             @Value("${langchain4j.ollama.embedding-model.model-name:nomic-embed-text}") String modelName,
-            @Value("${langchain4j.ollama.embedding-model.timeout:120s}") Duration timeout)
+            @Value("${langchain4j.ollama.embedding-model.timeout:120s}") Duration timeout,
+            @Value("${rag.embedding-cache.max-entries:10000}") int cacheMaxEntries,
+            @Value("${rag.embedding-cache.max-size:64MB}") DataSize cacheMaxSize,
+            MeterRegistry meterRegistry)
     {
-        return OllamaEmbeddingModel.builder()
+        EmbeddingModel ollamaEmbeddingModel = OllamaEmbeddingModel.builder()
                 .baseUrl(baseUrl)
                 .modelName(modelName)
                 .timeout(timeout)
                 .build();
+
+        return new CachingEmbeddingModel(
+                new MeteredEmbeddingModel(ollamaEmbeddingModel, meterRegistry),
+                cacheMaxEntries,
+                cacheMaxSize.toBytes(),
+                meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,136 @@
+package cdq.cdl.aiassistant.shared.embedding;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Caches single-text embeddings (queries) in an LRU map bounded by entry count and estimated heap bytes.
+// Bulk embedAll calls, as used by ingestion, bypass the cache so documents do not push queries out.
+@Slf4j
+public class CachingEmbeddingModel implements EmbeddingModel
+{
+    // Object header + array length + String/entry bookkeeping, rough but stable across JVMs
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final EmbeddingModel delegate;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, float[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, int maxEntries, long maxBytes, MeterRegistry meterRegistry)
+    {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+
+        this.hits = meterRegistry.counter("embedding.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("embedding.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("embedding.cache.evictions");
+        Gauge.builder("embedding.cache.size", this, CachingEmbeddingModel::size).register(meterRegistry);
+        Gauge.builder("embedding.cache.bytes", this, CachingEmbeddingModel::bytes).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("embedding.cache.hit.ratio", this, CachingEmbeddingModel::hitRatio).register(meterRegistry);
+    }
+
+    @Override
+    public Response<Embedding> embed(String text)
+    {
+        String key = normalize(text);
+
+        float[] cached = get(key);
+        if (cached != null)
+        {
+            hits.increment();
+            return Response.from(Embedding.from(cached.clone()));
+        }
+
+        misses.increment();
+        Response<Embedding> response = delegate.embed(text);
+        put(key, response.content().vector());
+        return response;
+    }
+
+    @Override
+    public Response<Embedding> embed(TextSegment textSegment)
+    {
+        return embed(textSegment.text());
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments)
+    {
+        return delegate.embedAll(textSegments);
+    }
+
+    @Override
+    public int dimension()
+    {
+        return delegate.dimension();
+    }
+
+    synchronized int size()
+    {
+        return entries.size();
+    }
+
+    synchronized long bytes()
+    {
+        return currentBytes;
+    }
+
+    double hitRatio()
+    {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private synchronized float[] get(String key)
+    {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, float[] vector)
+    {
+        float[] copy = vector.clone();
+        float[] previous = entries.put(key, copy);
+        if (previous != null)
+        {
+            currentBytes -= sizeOf(key, previous);
+        }
+        currentBytes += sizeOf(key, copy);
+
+        Iterator<Map.Entry<String, float[]>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || currentBytes > maxBytes) && iterator.hasNext())
+        {
+            Map.Entry<String, float[]> eldest = iterator.next();
+            currentBytes -= sizeOf(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static long sizeOf(String key, float[] vector)
+    {
+        return ENTRY_OVERHEAD_BYTES + 2L * key.length() + 4L * vector.length;
+    }
+
+    static String normalize(String text)
+    {
+        return text.strip().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,70 @@
+package cdq.cdl.aiassistant.shared.embedding;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Sits below the query cache, so embedding.calls only times requests that actually reach Ollama
+public class MeteredEmbeddingModel implements EmbeddingModel
+{
+    private final EmbeddingModel delegate;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSize;
+
+    public MeteredEmbeddingModel(EmbeddingModel delegate, MeterRegistry meterRegistry)
+    {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = DistributionSummary.builder("embedding.batch.size")
+                .baseUnit("segments")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Response<Embedding> embed(String text)
+    {
+        return timed("embed", () -> delegate.embed(text));
+    }
+
+    @Override
+    public Response<Embedding> embed(TextSegment textSegment)
+    {
+        return timed("embed", () -> delegate.embed(textSegment));
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments)
+    {
+        batchSize.record(textSegments.size());
+        return timed("embed_all", () -> delegate.embedAll(textSegments));
+    }
+
+    @Override
+    public int dimension()
+    {
+        return delegate.dimension();
+    }
+
+    private <T> T timed(String operation, Supplier<T> call)
+    {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try
+        {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        }
+        finally
+        {
+            sample.stop(meterRegistry.timer("embedding.calls", "operation", operation, "outcome", outcome));
+        }
+    }
+}
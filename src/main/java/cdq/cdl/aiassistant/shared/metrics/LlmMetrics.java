@@ -0,0 +1,59 @@
+package cdq.cdl.aiassistant.shared.metrics;
+
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// llm.calls{model, operation, outcome} times every model invocation, llm.tokens{model, type} counts what Ollama reports
+public class LlmMetrics
+{
+    private final MeterRegistry meterRegistry;
+    private final String modelName;
+    private final Counter promptTokens;
+    private final Counter completionTokens;
+
+    public LlmMetrics(MeterRegistry meterRegistry, String modelName)
+    {
+        this.meterRegistry = meterRegistry;
+        this.modelName = modelName;
+        this.promptTokens = meterRegistry.counter("llm.tokens", "model", modelName, "type", "prompt");
+        this.completionTokens = meterRegistry.counter("llm.tokens", "model", modelName, "type", "completion");
+    }
+
+    Timer.Sample start()
+    {
+        return Timer.start(meterRegistry);
+    }
+
+    void success(Timer.Sample sample, String operation, TokenUsage tokenUsage)
+    {
+        sample.stop(timer(operation, "success"));
+        if (tokenUsage == null)
+        {
+            return;
+        }
+        if (tokenUsage.inputTokenCount() != null)
+        {
+            promptTokens.increment(tokenUsage.inputTokenCount());
+        }
+        if (tokenUsage.outputTokenCount() != null)
+        {
+            completionTokens.increment(tokenUsage.outputTokenCount());
+        }
+    }
+
+    void failure(Timer.Sample sample, String operation)
+    {
+        sample.stop(timer(operation, "error"));
+    }
+
+    private Timer timer(String operation, String outcome)
+    {
+        return Timer.builder("llm.calls")
+                .tag("model", modelName)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,74 @@
+package cdq.cdl.aiassistant.shared.metrics;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class MeteredChatLanguageModel implements ChatLanguageModel
+{
+    private static final String OPERATION = "generate";
+
+    private final ChatLanguageModel delegate;
+    private final LlmMetrics metrics;
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages)
+    {
+        return timed(() -> delegate.generate(messages), Response::tokenUsage);
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+    {
+        return timed(() -> delegate.generate(messages, toolSpecifications), Response::tokenUsage);
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification)
+    {
+        return timed(() -> delegate.generate(messages, toolSpecification), Response::tokenUsage);
+    }
+
+    @Override
+    public ChatResponse chat(ChatRequest chatRequest)
+    {
+        return timed(() -> delegate.chat(chatRequest), ChatResponse::tokenUsage);
+    }
+
+    @Override
+    public Set<Capability> supportedCapabilities()
+    {
+        return delegate.supportedCapabilities();
+    }
+
+    private <T> T timed(Supplier<T> call, Function<T, TokenUsage> tokenUsage)
+    {
+        Timer.Sample sample = metrics.start();
+        T result;
+        try
+        {
+            result = call.get();
+        }
+        catch (RuntimeException e)
+        {
+            metrics.failure(sample, OPERATION);
+            throw e;
+        }
+        metrics.success(sample, OPERATION, tokenUsage.apply(result));
+        return result;
+    }
+}
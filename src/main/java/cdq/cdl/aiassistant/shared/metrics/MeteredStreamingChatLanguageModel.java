@@ -0,0 +1,86 @@
+package cdq.cdl.aiassistant.shared.metrics;
+
+import java.util.List;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+// Timed until the stream completes or fails, so the timer covers the whole generation and not just the request
+@RequiredArgsConstructor
+public class MeteredStreamingChatLanguageModel implements StreamingChatLanguageModel
+{
+    private static final String OPERATION = "stream";
+
+    private final StreamingChatLanguageModel delegate;
+    private final LlmMetrics metrics;
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler)
+    {
+        TimingHandler timingHandler = new TimingHandler(handler, metrics.start());
+        try
+        {
+            delegate.generate(messages, timingHandler);
+        }
+        catch (RuntimeException e)
+        {
+            timingHandler.fail();
+            throw e;
+        }
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages,
+                         List<ToolSpecification> toolSpecifications,
+                         StreamingResponseHandler<AiMessage> handler)
+    {
+        TimingHandler timingHandler = new TimingHandler(handler, metrics.start());
+        try
+        {
+            delegate.generate(messages, toolSpecifications, timingHandler);
+        }
+        catch (RuntimeException e)
+        {
+            timingHandler.fail();
+            throw e;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private class TimingHandler implements StreamingResponseHandler<AiMessage>
+    {
+        private final StreamingResponseHandler<AiMessage> delegate;
+        private final Timer.Sample sample;
+
+        @Override
+        public void onNext(String token)
+        {
+            delegate.onNext(token);
+        }
+
+        @Override
+        public void onComplete(Response<AiMessage> response)
+        {
+            metrics.success(sample, OPERATION, response.tokenUsage());
+            delegate.onComplete(response);
+        }
+
+        @Override
+        public void onError(Throwable error)
+        {
+            fail();
+            delegate.onError(error);
+        }
+
+        void fail()
+        {
+            metrics.failure(sample, OPERATION);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package cdq.cdl.aiassistant.shared.text;
+
+// Approximates the WordPiece token count of nomic-embed-text without loading its vocabulary:
+// short words are one token, longer ones split into pieces of about six characters, punctuation is one token each.
+// Close enough to budget chat history for the chat model as well.
+public final class TokenEstimator
+{
+    private static final int CHARACTERS_PER_PIECE = 6;
+
+    private TokenEstimator()
+    {
+    }
+
+    public static int estimate(CharSequence text)
+    {
+        int tokens = 0;
+        int wordLength = 0;
+
+        for (int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c))
+            {
+                wordLength++;
+                continue;
+            }
+
+            tokens += tokensOfWord(wordLength);
+            wordLength = 0;
+            if (!Character.isWhitespace(c))
+            {
+                tokens++;
+            }
+        }
+
+        return tokens + tokensOfWord(wordLength);
+    }
+
+    // Longest prefix of whole words and punctuation that estimate() counts as at most maxTokens
+    public static String truncate(String text, int maxTokens)
+    {
+        int tokens = 0;
+        int end = 0;
+        int i = 0;
+
+        while (i < text.length())
+        {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c))
+            {
+                int start = i;
+                while (i < text.length() && Character.isLetterOrDigit(text.charAt(i)))
+                {
+                    i++;
+                }
+                tokens += tokensOfWord(i - start);
+                if (tokens > maxTokens)
+                {
+                    break;
+                }
+                end = i;
+                continue;
+            }
+
+            if (!Character.isWhitespace(c))
+            {
+                if (++tokens > maxTokens)
+                {
+                    break;
+                }
+                end = i + 1;
+            }
+            i++;
+        }
+
+        return text.substring(0, end);
+    }
+
+    private static int tokensOfWord(int length)
+    {
+        return length == 0 ? 0 : 1 + (length - 1) / CHARACTERS_PER_PIECE;
+    }
+}
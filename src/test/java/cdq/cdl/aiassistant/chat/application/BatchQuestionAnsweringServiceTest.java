@@ -0,0 +1,174 @@
+package cdq.cdl.aiassistant.chat.application;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.BatchAnswerHandler;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchQuestionAnsweringServiceTest
+{
+    @Mock
+    private QuestionAnsweringService questionAnsweringService;
+
+    private BatchQuestionAnsweringService service;
+
+    private final Map<Integer, String> answers = new ConcurrentHashMap<>();
+    private final Map<Integer, Throwable> failures = new ConcurrentHashMap<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp()
+    {
+        service = new BatchQuestionAnsweringService(questionAnsweringService);
+        ReflectionTestUtils.setField(service, "parallelism", 3);
+        ReflectionTestUtils.setField(service, "maxQuestions", 100);
+    }
+
+    @Test
+    void shouldAnswerEveryQuestionWithBoundedParallelism() throws InterruptedException
+    {
+        // Given
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(questionAnsweringService.handle(any(UserQuestion.class))).thenAnswer(invocation ->
+        {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return new AssistantAnswer("Answer to " + invocation.getArgument(0, UserQuestion.class).value());
+        });
+        List<UserQuestion> questions = IntStream.range(0, 12)
+                .mapToObj(i -> UserQuestion.of("question " + i))
+                .toList();
+
+        // When
+        service.handleAll(questions, recordingHandler());
+
+        // Then
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(answers).hasSize(12).containsEntry(7, "Answer to question 7");
+        assertThat(maxInFlight.get()).isBetween(1, 3);
+    }
+
+    @Test
+    void shouldReportFailedQuestionWithoutStoppingTheBatch() throws InterruptedException
+    {
+        // Given
+        when(questionAnsweringService.handle(UserQuestion.of("ok"))).thenReturn(new AssistantAnswer("fine"));
+        when(questionAnsweringService.handle(UserQuestion.of("boom"))).thenThrow(new IllegalStateException("boom"));
+
+        // When
+        service.handleAll(List.of(UserQuestion.of("ok"), UserQuestion.of("boom")), recordingHandler());
+
+        // Then
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(answers).containsOnlyKeys(0);
+        assertThat(failures).containsOnlyKeys(1);
+    }
+
+    @Test
+    void shouldStopDispatchingOnceTheHandlerIsCancelled() throws InterruptedException
+    {
+        // Given
+        AtomicInteger asked = new AtomicInteger();
+        when(questionAnsweringService.handle(any(UserQuestion.class))).thenAnswer(invocation ->
+        {
+            asked.incrementAndGet();
+            return new AssistantAnswer("answer");
+        });
+        List<UserQuestion> questions = IntStream.range(0, 50)
+                .mapToObj(i -> UserQuestion.of("question " + i))
+                .toList();
+        BatchAnswerHandler recording = recordingHandler();
+        BatchAnswerHandler disconnectingHandler = new BatchAnswerHandler()
+        {
+            @Override
+            public void onAnswer(int index, AssistantAnswer answer)
+            {
+                recording.onAnswer(index, answer);
+            }
+
+            @Override
+            public void onFailure(int index, Throwable error)
+            {
+                recording.onFailure(index, error);
+            }
+
+            @Override
+            public void onComplete()
+            {
+                recording.onComplete();
+            }
+
+            @Override
+            public boolean isCancelled()
+            {
+                return !answers.isEmpty();
+            }
+        };
+
+        // When
+        service.handleAll(questions, disconnectingHandler);
+
+        // Then
+        assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(asked.get()).isLessThan(50);
+    }
+
+    @Test
+    void shouldRejectBatchLargerThanTheLimit()
+    {
+        // Given
+        List<UserQuestion> questions = IntStream.range(0, 101)
+                .mapToObj(i -> UserQuestion.of("question " + i))
+                .toList();
+
+        // When/Then
+        assertThatThrownBy(() -> service.handleAll(questions, recordingHandler()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("100");
+    }
+
+    private BatchAnswerHandler recordingHandler()
+    {
+        return new BatchAnswerHandler()
+        {
+            @Override
+            public void onAnswer(int index, AssistantAnswer answer)
+            {
+                answers.put(index, answer.value());
+            }
+
+            @Override
+            public void onFailure(int index, Throwable error)
+            {
+                failures.put(index, error);
+            }
+
+            @Override
+            public void onComplete()
+            {
+                completed.countDown();
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package cdq.cdl.aiassistant.chat.application;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import cdq.cdl.aiassistant.chat.domain.model.Temperature;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.CountriesPort;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveCountriesPort;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveWeatherPort;
+import cdq.cdl.aiassistant.chat.domain.port.WeatherPort;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FastPathRouterTest
+{
+    @Mock
+    private CountriesPort countriesPort;
+
+    @Mock
+    private WeatherPort weatherPort;
+
+    @Mock
+    private ReactiveCountriesPort reactiveCountriesPort;
+
+    @Mock
+    private ReactiveWeatherPort reactiveWeatherPort;
+
+    private FastPathRouter router;
+
+    @BeforeEach
+    void setUp()
+    {
+        router = new FastPathRouter(countriesPort, weatherPort, reactiveCountriesPort, reactiveWeatherPort);
+        ReflectionTestUtils.setField(router, "enabled", true);
+    }
+
+    @Test
+    void shouldAnswerCapitalQuestionFromCountriesPort()
+    {
+        // Given
+        when(countriesPort.getCapitalOf(Country.of("germany"))).thenReturn(City.of("Berlin"));
+
+        // When
+        Optional<AssistantAnswer> answer = router.tryAnswer(UserQuestion.of("What is the capital of germany?"));
+
+        // Then
+        assertThat(answer).isPresent();
+        assertThat(answer.get().value()).isEqualTo("The capital of Germany is Berlin.");
+        assertThat(answer.get().fastPath()).isTrue();
+    }
+
+    @Test
+    void shouldAnswerTemperatureQuestionFromWeatherPort()
+    {
+        // Given
+        when(weatherPort.getCurrentTemperature(City.of("Munich"))).thenReturn(new Temperature(18.25));
+
+        // When
+        Optional<AssistantAnswer> answer = router.tryAnswer(UserQuestion.of("temperature in Munich now?"));
+
+        // Then
+        assertThat(answer).map(AssistantAnswer::value).contains("The current temperature in Munich is 18.3°C.");
+    }
+
+    @Test
+    void shouldFallThroughForCompoundQuestions()
+    {
+        // When
+        Optional<AssistantAnswer> capitalTemperature = router.tryAnswer(UserQuestion.of("What is the temperature in the capital of Spain?"));
+        Optional<AssistantAnswer> comparison = router.tryAnswer(UserQuestion.of("Temperature in Berlin and Paris"));
+        Optional<AssistantAnswer> product = router.tryAnswer(UserQuestion.of("What is CDQ Fraud Guard?"));
+
+        // Then
+        assertThat(capitalTemperature).isEmpty();
+        assertThat(comparison).isEmpty();
+        assertThat(product).isEmpty();
+        verifyNoInteractions(countriesPort, weatherPort);
+    }
+
+    @Test
+    void shouldFallThroughWhenLookupFails()
+    {
+        // Given
+        when(countriesPort.getCapitalOf(any(Country.class)))
+                .thenThrow(new IllegalStateException("No country found with name: Narnia"));
+
+        // When
+        Optional<AssistantAnswer> answer = router.tryAnswer(UserQuestion.of("capital of Narnia"));
+
+        // Then
+        assertThat(answer).isEmpty();
+    }
+
+    @Test
+    void shouldAnswerCapitalQuestionFromReactivePortWithoutBlockingPort()
+    {
+        // Given
+        when(reactiveCountriesPort.getCapitalOf(Country.of("france"))).thenReturn(Mono.just(City.of("Paris")));
+
+        // When
+        AssistantAnswer answer = router.tryAnswerReactive(UserQuestion.of("capital of france?")).block();
+
+        // Then
+        assertThat(answer.value()).isEqualTo("The capital of France is Paris.");
+        assertThat(answer.fastPath()).isTrue();
+        verifyNoInteractions(countriesPort);
+    }
+
+    @Test
+    void shouldCompleteEmptyWhenReactiveLookupFails()
+    {
+        // Given
+        when(reactiveWeatherPort.getCurrentTemperature(any(City.class)))
+                .thenReturn(Mono.error(new IllegalStateException("MCP unavailable")));
+
+        // When
+        Optional<AssistantAnswer> answer = router.tryAnswerReactive(UserQuestion.of("temperature in Munich")).blockOptional();
+
+        // Then
+        assertThat(answer).isEmpty();
+    }
+}
@@ -1,14 +1,21 @@
 package cdq.cdl.aiassistant.chat.application;
 
+import java.util.Optional;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
 
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
 import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.ConversationTurn;
 import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
 import cdq.cdl.aiassistant.chat.domain.port.AiReasoningPort;
+import cdq.cdl.aiassistant.chat.domain.port.AnswerStreamHandler;
+import cdq.cdl.aiassistant.chat.domain.port.ConversationPort;
+import cdq.cdl.aiassistant.chat.domain.port.StreamingAiReasoningPort;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -17,15 +24,29 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class QuestionAnsweringServiceTest
 {
+    private static final String CONVERSATION_ID = "3f2b8c1e-6d4a-4e7b-9a15-2c8d7e9f0a14";
+
     @Mock
     private AiReasoningPort aiAgent;
 
+    @Mock
+    private StreamingAiReasoningPort streamingAiAgent;
+
+    @Mock
+    private FastPathRouter fastPathRouter;
+
+    @Mock
+    private AnswerStreamHandler streamHandler;
+
+    @Mock
+    private ConversationPort conversations;
+
     private QuestionAnsweringService service;
 
     @BeforeEach
     void setUp()
     {
-        service = new QuestionAnsweringService(aiAgent);
+        service = new QuestionAnsweringService(aiAgent, streamingAiAgent, fastPathRouter, conversations);
     }
 
     @Test
@@ -80,5 +101,127 @@ class QuestionAnsweringServiceTest
                 .contains("error")
                 .contains("Null value encountered");
     }
-}
 
+    @Test
+    void shouldDelegateStreamingToStreamingAiAgent()
+    {
+        // Given
+        UserQuestion question = new UserQuestion("What is the capital of Germany?");
+
+        // When
+        service.stream(question, streamHandler);
+
+        // Then
+        verify(streamingAiAgent, times(1)).streamAnswer(question, streamHandler);
+        verifyNoInteractions(aiAgent);
+    }
+
+    @Test
+    void shouldReportErrorToHandlerWhenStreamingFailsToStart()
+    {
+        // Given
+        UserQuestion question = new UserQuestion("Test question");
+        RuntimeException failure = new RuntimeException("Streaming model unavailable");
+
+        doThrow(failure).when(streamingAiAgent).streamAnswer(any(UserQuestion.class), any(AnswerStreamHandler.class));
+
+        // When
+        service.stream(question, streamHandler);
+
+        // Then
+        verify(streamHandler).onError(failure);
+    }
+
+    @Test
+    void shouldPropagateCapacityExceededInsteadOfApologizing()
+    {
+        // Given
+        UserQuestion question = new UserQuestion("Test question");
+        when(aiAgent.answer(any(UserQuestion.class))).thenThrow(new AiCapacityExceededException("At capacity"));
+
+        // When/Then
+        assertThatThrownBy(() -> service.handle(question))
+                .isInstanceOf(AiCapacityExceededException.class)
+                .hasMessage("At capacity");
+    }
+
+    @Test
+    void shouldAnswerFromFastPathWithoutCallingAiAgent()
+    {
+        // Given
+        UserQuestion question = new UserQuestion("What is the capital of Germany?");
+        AssistantAnswer fastPathAnswer = AssistantAnswer.fromFastPath("The capital of Germany is Berlin.");
+        when(fastPathRouter.tryAnswer(question)).thenReturn(Optional.of(fastPathAnswer));
+
+        // When
+        AssistantAnswer answer = service.handle(question);
+
+        // Then
+        assertThat(answer.fastPath()).isTrue();
+        assertThat(answer.value()).isEqualTo("The capital of Germany is Berlin.");
+        verifyNoInteractions(aiAgent);
+    }
+
+    @Test
+    void shouldSendConversationTurnsToAiAgentEvenWhenFastPathCouldAnswer()
+    {
+        // Given
+        UserQuestion question = new UserQuestion("What is the capital of Germany?", CONVERSATION_ID);
+        AssistantAnswer expectedAnswer = new AssistantAnswer("The capital of Germany is Berlin.");
+        when(aiAgent.answer(question)).thenReturn(expectedAnswer);
+
+        // When
+        AssistantAnswer answer = service.handle(question);
+
+        // Then
+        assertThat(answer).isEqualTo(expectedAnswer);
+        verifyNoInteractions(fastPathRouter);
+    }
+
+    @Test
+    void shouldStartConversationWhenQuestionHasNoConversationId()
+    {
+        // Given
+        UserQuestion question = new UserQuestion("What is the capital of Germany?");
+        AssistantAnswer answer = new AssistantAnswer("The capital of Germany is Berlin.");
+        when(aiAgent.answer(question)).thenReturn(answer);
+        when(conversations.start(question, answer)).thenReturn(CONVERSATION_ID);
+
+        // When
+        ConversationTurn turn = service.converse(question);
+
+        // Then
+        assertThat(turn).isEqualTo(new ConversationTurn(CONVERSATION_ID, answer));
+    }
+
+    @Test
+    void shouldRejectConversationTheServerDoesNotKnow()
+    {
+        // Given
+        UserQuestion question = new UserQuestion("And its temperature?", CONVERSATION_ID);
+        when(conversations.exists(CONVERSATION_ID)).thenReturn(false);
+
+        // When/Then
+        assertThatThrownBy(() -> service.converse(question))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown conversation");
+        verifyNoInteractions(aiAgent);
+    }
+
+    @Test
+    void shouldStreamFastPathAnswerAsSingleToken()
+    {
+        // Given
+        UserQuestion question = new UserQuestion("Temperature in Berlin");
+        AssistantAnswer fastPathAnswer = AssistantAnswer.fromFastPath("The current temperature in Berlin is 21.5°C.");
+        when(fastPathRouter.tryAnswer(question)).thenReturn(Optional.of(fastPathAnswer));
+
+        // When
+        service.stream(question, streamHandler);
+
+        // Then
+        verify(streamHandler).onToken("The current temperature in Berlin is 21.5°C.");
+        verify(streamHandler).onComplete(fastPathAnswer);
+        verifyNoInteractions(streamingAiAgent);
+    }
+}
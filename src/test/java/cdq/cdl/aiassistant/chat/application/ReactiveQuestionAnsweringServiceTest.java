@@ -0,0 +1,80 @@
+package cdq.cdl.aiassistant.chat.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveAiReasoningPort;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveQuestionAnsweringServiceTest
+{
+    @Mock
+    private ReactiveAiReasoningPort aiAgent;
+
+    @Mock
+    private FastPathRouter fastPathRouter;
+
+    private ReactiveQuestionAnsweringService service;
+
+    @BeforeEach
+    void setUp()
+    {
+        service = new ReactiveQuestionAnsweringService(aiAgent, fastPathRouter);
+    }
+
+    @Test
+    void shouldAnswerFromFastPathWithoutAskingTheModel()
+    {
+        // Given
+        UserQuestion question = UserQuestion.of("What is the capital of Germany?");
+        when(fastPathRouter.tryAnswerReactive(question))
+                .thenReturn(Mono.just(AssistantAnswer.fromFastPath("The capital of Germany is Berlin.")));
+
+        // When
+        AssistantAnswer answer = service.handle(question).block();
+
+        // Then
+        assertThat(answer.value()).isEqualTo("The capital of Germany is Berlin.");
+        assertThat(answer.fastPath()).isTrue();
+        verifyNoInteractions(aiAgent);
+    }
+
+    @Test
+    void shouldAskTheModelWhenFastPathDoesNotApply()
+    {
+        // Given
+        UserQuestion question = UserQuestion.of("What is CDQ Fraud Guard?");
+        when(fastPathRouter.tryAnswerReactive(question)).thenReturn(Mono.empty());
+        when(aiAgent.answer(question)).thenReturn(Mono.just(new AssistantAnswer("A fraud detection product.")));
+
+        // When
+        AssistantAnswer answer = service.handle(question).block();
+
+        // Then
+        assertThat(answer.value()).isEqualTo("A fraud detection product.");
+    }
+
+    @Test
+    void shouldPropagateCapacityExceeded()
+    {
+        // Given
+        when(fastPathRouter.tryAnswerReactive(any(UserQuestion.class))).thenReturn(Mono.empty());
+        when(aiAgent.answer(any(UserQuestion.class)))
+                .thenReturn(Mono.error(new AiCapacityExceededException("The assistant is at capacity, please retry shortly")));
+
+        // When/Then
+        assertThatThrownBy(() -> service.handle(UserQuestion.of("Tell me about Vienna")).block())
+                .isInstanceOf(AiCapacityExceededException.class);
+    }
+}
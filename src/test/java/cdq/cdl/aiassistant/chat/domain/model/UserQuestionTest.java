@@ -36,5 +36,23 @@ class UserQuestionTest
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Question must not be empty");
     }
-}
 
+    @Test
+    void shouldRejectConversationIdThatIsNotAServerIssuedUuid()
+    {
+        // When/Then
+        assertThatThrownBy(() -> UserQuestion.of("And in France?", "session-42"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Conversation id");
+    }
+
+    @Test
+    void shouldTreatBlankConversationIdAsNoConversation()
+    {
+        // When
+        UserQuestion question = UserQuestion.of("What is the capital of Germany?", " ");
+
+        // Then
+        assertThat(question.isPartOfConversation()).isFalse();
+    }
+}
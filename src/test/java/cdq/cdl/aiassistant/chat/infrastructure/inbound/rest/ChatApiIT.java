@@ -7,15 +7,23 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import cdq.cdl.aiassistant.chat.application.BatchQuestionAnsweringService;
 import cdq.cdl.aiassistant.chat.application.QuestionAnsweringService;
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
 import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.ConversationTurn;
 import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.AnswerStreamHandler;
+import cdq.cdl.aiassistant.chat.domain.port.BatchAnswerHandler;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ChatApi.class)
@@ -24,9 +32,14 @@ class ChatApiIT
     @Autowired
     private MockMvc mockMvc;
 
+    private static final String CONVERSATION_ID = "3f2b8c1e-6d4a-4e7b-9a15-2c8d7e9f0a14";
+
     @MockBean
     private QuestionAnsweringService chatService;
 
+    @MockBean
+    private BatchQuestionAnsweringService batchService;
+
     @Test
     void shouldReturnAnswerWhenValidQuestionProvided() throws Exception
     {
@@ -38,7 +51,7 @@ class ChatApiIT
                 """;
 
         AssistantAnswer expectedAnswer = new AssistantAnswer("The capital of Germany is Berlin.");
-        when(chatService.handle(any(UserQuestion.class))).thenReturn(expectedAnswer);
+        when(chatService.converse(any(UserQuestion.class))).thenReturn(new ConversationTurn(CONVERSATION_ID, expectedAnswer));
 
         // When/Then
         mockMvc.perform(post("/api/chats")
@@ -46,7 +59,9 @@ class ChatApiIT
                         .content(requestBody))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.answer").value("The capital of Germany is Berlin."));
+                .andExpect(jsonPath("$.answer").value("The capital of Germany is Berlin."))
+                .andExpect(jsonPath("$.fastPath").value(false))
+                .andExpect(jsonPath("$.conversationId").value(CONVERSATION_ID));
     }
 
     @Test
@@ -102,8 +117,8 @@ class ChatApiIT
                 }
                 """;
 
-        when(chatService.handle(any(UserQuestion.class)))
-                .thenReturn(new AssistantAnswer("I apologize, but I encountered an error: Service unavailable"));
+        when(chatService.converse(any(UserQuestion.class))).thenReturn(new ConversationTurn(CONVERSATION_ID,
+                new AssistantAnswer("I apologize, but I encountered an error: Service unavailable")));
 
         // When/Then
         mockMvc.perform(post("/api/chats")
@@ -112,5 +127,180 @@ class ChatApiIT
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.answer").exists());
     }
-}
 
+    @Test
+    void shouldReturn503WhenAssistantIsAtCapacity() throws Exception
+    {
+        // Given
+        String requestBody = """
+                {
+                    "question": "What is the capital of Germany?"
+                }
+                """;
+
+        when(chatService.converse(any(UserQuestion.class)))
+                .thenThrow(new AiCapacityExceededException("The assistant is at capacity, please retry shortly"));
+
+        // When/Then
+        mockMvc.perform(post("/api/chats")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.error").value("The assistant is at capacity, please retry shortly"));
+    }
+
+    @Test
+    void shouldStreamTokensAsServerSentEvents() throws Exception
+    {
+        // Given
+        String requestBody = """
+                {
+                    "question": "What is the capital of Germany?"
+                }
+                """;
+
+        doAnswer(invocation ->
+        {
+            AnswerStreamHandler handler = invocation.getArgument(1);
+            handler.onToken("Berlin");
+            handler.onToken(" it is.");
+            handler.onComplete(new AssistantAnswer("Berlin it is."));
+            return null;
+        }).when(chatService).stream(any(UserQuestion.class), any(AnswerStreamHandler.class));
+
+        // When/Then
+        mockMvc.perform(post("/api/chats/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(containsString("event:token")))
+                .andExpect(content().string(containsString("{\"token\":\" it is.\"}")))
+                .andExpect(content().string(containsString("event:done")));
+    }
+
+    @Test
+    void shouldReturn400WhenStreamingQuestionIsEmpty() throws Exception
+    {
+        // Given
+        String requestBody = """
+                {
+                    "question": ""
+                }
+                """;
+
+        // When/Then
+        mockMvc.perform(post("/api/chats/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldPassConversationIdToTheService() throws Exception
+    {
+        // Given
+        String requestBody = """
+                {
+                    "question": "And its temperature?",
+                    "conversationId": "%s"
+                }
+                """.formatted(CONVERSATION_ID);
+
+        when(chatService.converse(any(UserQuestion.class)))
+                .thenReturn(new ConversationTurn(CONVERSATION_ID, new AssistantAnswer("It is 20°C in Berlin.")));
+
+        // When/Then
+        mockMvc.perform(post("/api/chats")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk());
+        verify(chatService).converse(new UserQuestion("And its temperature?", CONVERSATION_ID));
+    }
+
+    @Test
+    void shouldReturn400WhenConversationIdWasNotIssuedByTheServer() throws Exception
+    {
+        // Given
+        String requestBody = """
+                {
+                    "question": "And its temperature?",
+                    "conversationId": "session-42"
+                }
+                """;
+
+        // When/Then
+        mockMvc.perform(post("/api/chats")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(chatService);
+    }
+
+    @Test
+    void shouldReturn400WhenStreamingQuestionBelongsToConversation() throws Exception
+    {
+        // Given
+        String requestBody = """
+                {
+                    "question": "And its temperature?",
+                    "conversationId": "session-42"
+                }
+                """;
+
+        // When/Then
+        mockMvc.perform(post("/api/chats/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(chatService);
+    }
+
+    @Test
+    void shouldStreamBatchAnswersAsNdjsonTaggedWithTheirIndex() throws Exception
+    {
+        // Given
+        String requestBody = """
+                {
+                    "questions": ["What is the capital of Germany?", "What is CDQ Fraud Guard?"]
+                }
+                """;
+
+        doAnswer(invocation ->
+        {
+            BatchAnswerHandler handler = invocation.getArgument(1);
+            handler.onAnswer(1, new AssistantAnswer("A fraud detection product."));
+            handler.onAnswer(0, AssistantAnswer.fromFastPath("The capital of Germany is Berlin."));
+            handler.onComplete();
+            return null;
+        }).when(batchService).handleAll(anyList(), any(BatchAnswerHandler.class));
+
+        // When/Then
+        mockMvc.perform(post("/api/chats/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string("""
+                        {"index":1,"answer":"A fraud detection product.","fastPath":false}
+                        {"index":0,"answer":"The capital of Germany is Berlin.","fastPath":true}
+                        """));
+    }
+
+    @Test
+    void shouldReturn400WhenBatchContainsEmptyQuestion() throws Exception
+    {
+        // Given
+        String requestBody = """
+                {
+                    "questions": ["What is the capital of Germany?", ""]
+                }
+                """;
+
+        // When/Then
+        mockMvc.perform(post("/api/chats/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(batchService);
+    }
+}
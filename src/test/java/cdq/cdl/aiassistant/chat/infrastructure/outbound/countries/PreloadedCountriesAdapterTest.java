@@ -0,0 +1,173 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.countries;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.CityInformation;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PreloadedCountriesAdapterTest
+{
+    private static final String ALL_COUNTRIES = """
+            [
+              {
+                "name": {"common": "Germany", "official": "Federal Republic of Germany"},
+                "altSpellings": ["DE", "Deutschland"],
+                "capital": ["Berlin"],
+                "region": "Europe",
+                "population": 83240525,
+                "currencies": {"EUR": {"name": "Euro", "symbol": "€"}}
+              },
+              {
+                "name": {"common": "Colombia", "official": "Republic of Colombia"},
+                "altSpellings": ["CO"],
+                "capital": ["Bogotá"],
+                "region": "Americas",
+                "population": 50882884,
+                "currencies": {"COP": {"name": "Colombian peso", "symbol": "$"}}
+              }
+            ]
+            """;
+
+    private MockWebServer mockWebServer;
+    private PreloadedCountriesAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        String baseUrl = mockWebServer.url("/").toString();
+        adapter = new PreloadedCountriesAdapter(baseUrl, "", new RestCountriesAdapter(baseUrl));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void shouldAnswerLookupsFromMemoryAfterLoadingAllCountriesOnce() throws InterruptedException
+    {
+        // Given
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(ALL_COUNTRIES)
+                .addHeader("Content-Type", "application/json"));
+        adapter.refresh();
+
+        // When
+        City capital = adapter.getCapitalOf(Country.of("federal republic of germany"));
+        CityInformation info = adapter.getCityInformation(City.of("Bogota"));
+
+        // Then
+        assertThat(capital.name()).isEqualTo("Berlin");
+        assertThat(info.country().name()).isEqualTo("Colombia");
+        assertThat(info.currency()).isEqualTo("COP");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo(PreloadedCountriesAdapter.ALL_COUNTRIES_URI);
+    }
+
+    @Test
+    void shouldDelegateToLiveApiWhenCountryIsNotInDataset() throws InterruptedException
+    {
+        // Given
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(ALL_COUNTRIES)
+                .addHeader("Content-Type", "application/json"));
+        adapter.refresh();
+        mockWebServer.takeRequest();
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("""
+                        [
+                          {
+                            "name": {"common": "France", "official": "French Republic"},
+                            "capital": ["Paris"],
+                            "region": "Europe",
+                            "population": 67391582,
+                            "currencies": {"EUR": {"name": "Euro", "symbol": "€"}}
+                          }
+                        ]
+                        """)
+                .addHeader("Content-Type", "application/json"));
+
+        // When
+        City capital = adapter.getCapitalOf(Country.of("Frankreich"));
+
+        // Then
+        assertThat(capital.name()).isEqualTo("Paris");
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/name/Frankreich");
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCountryIsNeitherInDatasetNorFoundLive()
+    {
+        // Given
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(ALL_COUNTRIES)
+                .addHeader("Content-Type", "application/json"));
+        adapter.refresh();
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("[]")
+                .addHeader("Content-Type", "application/json"));
+
+        // When/Then
+        assertThatThrownBy(() -> adapter.getCapitalOf(Country.of("Atlantis")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No country found with name: Atlantis");
+    }
+
+    @Test
+    void shouldKeepLoadedDatasetWhenRefreshFails()
+    {
+        // Given
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(ALL_COUNTRIES)
+                .addHeader("Content-Type", "application/json"));
+        adapter.refresh();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+
+        // When
+        adapter.refresh();
+
+        // Then
+        assertThat(adapter.getCapitalOf(Country.of("Germany")).name()).isEqualTo("Berlin");
+    }
+
+    @Test
+    void shouldDelegateToLiveApiBeforeDatasetIsLoaded() throws InterruptedException
+    {
+        // Given
+        String germanyResponse = """
+                [
+                  {
+                    "name": {"common": "Germany", "official": "Federal Republic of Germany"},
+                    "capital": ["Berlin"],
+                    "region": "Europe",
+                    "population": 83240525,
+                    "currencies": {"EUR": {"name": "Euro", "symbol": "€"}}
+                  }
+                ]
+                """;
+
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(germanyResponse)
+                .addHeader("Content-Type", "application/json"));
+
+        // When
+        City capital = adapter.getCapitalOf(Country.of("Germany"));
+
+        // Then
+        assertThat(capital.name()).isEqualTo("Berlin");
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/name/Germany");
+    }
+}
@@ -0,0 +1,130 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.countries;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.CityInformation;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveCountriesAdapterTest
+{
+    private static final String GERMANY = """
+            [
+              {
+                "name": {"common": "Germany", "official": "Federal Republic of Germany"},
+                "capital": ["Berlin"],
+                "region": "Europe",
+                "population": 83240525,
+                "currencies": {"EUR": {"name": "Euro", "symbol": "€"}}
+              }
+            ]
+            """;
+
+    private static final String FRANCE = """
+            [
+              {
+                "name": {"common": "France", "official": "French Republic"},
+                "capital": ["Paris"],
+                "region": "Europe",
+                "population": 67391582,
+                "currencies": {"EUR": {"name": "Euro", "symbol": "€"}}
+              }
+            ]
+            """;
+
+    private MockWebServer mockWebServer;
+    private ReactiveCountriesAdapter adapter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException, InterruptedException
+    {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        String baseUrl = mockWebServer.url("/").toString();
+        RestCountriesAdapter liveAdapter = new RestCountriesAdapter(baseUrl);
+        PreloadedCountriesAdapter preloadedAdapter = new PreloadedCountriesAdapter(baseUrl, "", liveAdapter);
+        enqueue(GERMANY);
+        preloadedAdapter.refresh();
+        mockWebServer.takeRequest();
+
+        ObjectProvider<PreloadedCountriesAdapter> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(preloadedAdapter);
+        adapter = new ReactiveCountriesAdapter(liveAdapter, provider);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void shouldAnswerFromTheDatasetWithoutCallingTheLiveApi()
+    {
+        // When
+        City capital = adapter.getCapitalOf(Country.of("Germany")).block();
+
+        // Then
+        assertThat(capital.name()).isEqualTo("Berlin");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDelegateToLiveApiWhenCountryIsNotInDataset() throws InterruptedException
+    {
+        // Given
+        enqueue(FRANCE);
+
+        // When
+        City capital = adapter.getCapitalOf(Country.of("Frankreich")).block();
+
+        // Then
+        assertThat(capital.name()).isEqualTo("Paris");
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/name/Frankreich");
+    }
+
+    @Test
+    void shouldDelegateToLiveApiWhenCapitalIsNotInDataset() throws InterruptedException
+    {
+        // Given
+        enqueue(FRANCE);
+
+        // When
+        CityInformation info = adapter.getCityInformation(City.of("Paris")).block();
+
+        // Then
+        assertThat(info.country().name()).isEqualTo("France");
+        assertThat(mockWebServer.takeRequest().getPath()).isEqualTo("/capital/Paris");
+    }
+
+    @Test
+    void shouldFailWhenCountryIsNeitherInDatasetNorFoundLive()
+    {
+        // Given
+        enqueue("[]");
+
+        // When/Then
+        assertThatThrownBy(() -> adapter.getCapitalOf(Country.of("Atlantis")).block())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No country found with name: Atlantis");
+    }
+
+    private void enqueue(String body)
+    {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(body)
+                .addHeader("Content-Type", "application/json"));
+    }
+}
@@ -0,0 +1,123 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.CityInformation;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import cdq.cdl.aiassistant.chat.domain.port.CountriesPort;
+import cdq.cdl.aiassistant.chat.domain.port.ProductKnowledgePort;
+import cdq.cdl.aiassistant.chat.domain.port.WeatherPort;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.GeographyTool;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.ProductKnowledgeTool;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.ToolMetrics;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.WeatherTool;
+import cdq.cdl.aiassistant.shared.config.LangChain4jConfig;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OllamaToolStreamingChatModelTest
+{
+    private MockWebServer mockWebServer;
+    private LangChain4jConfig.StreamingAssistantAI streamingAssistantAI;
+
+    private final List<Boolean> toolCalledOnNonBlockingThread = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        OllamaToolStreamingChatModel model = new OllamaToolStreamingChatModel(
+                WebClient.builder().baseUrl(mockWebServer.url("/").toString()).build(),
+                "qwen2.5:1.5b",
+                0.7,
+                Duration.ofSeconds(10));
+        ToolMetrics toolMetrics = new ToolMetrics(new SimpleMeterRegistry());
+
+        streamingAssistantAI = new LangChain4jConfig().streamingAssistantAI(
+                model,
+                new GeographyTool(new BlockingCountriesPort(), toolMetrics),
+                new WeatherTool(mock(WeatherPort.class), toolMetrics),
+                new ProductKnowledgeTool(mock(ProductKnowledgePort.class), toolMetrics));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void shouldExecuteBlockingToolsOffTheNettyEventLoopWhileStreaming() throws Exception
+    {
+        // Given
+        enqueueChunks("""
+                {"message":{"role":"assistant","content":"","tool_calls":[{"function":{"name":"getCapitalCity","arguments":{"countryName":"Germany"}}}]},"done":false}
+                {"message":{"role":"assistant","content":""},"done":true,"done_reason":"stop","prompt_eval_count":12,"eval_count":5}
+                """);
+        enqueueChunks("""
+                {"message":{"role":"assistant","content":"The capital is "},"done":false}
+                {"message":{"role":"assistant","content":"Berlin."},"done":false}
+                {"message":{"role":"assistant","content":""},"done":true,"done_reason":"stop","prompt_eval_count":20,"eval_count":4}
+                """);
+        CompletableFuture<Response<AiMessage>> completed = new CompletableFuture<>();
+
+        // When
+        streamingAssistantAI.chat("What is the capital of Germany?")
+                .onNext(token -> { })
+                .onComplete(completed::complete)
+                .onError(completed::completeExceptionally)
+                .start();
+
+        // Then
+        assertThat(completed.get(10, TimeUnit.SECONDS).content().text()).isEqualTo("The capital is Berlin.");
+        assertThat(toolCalledOnNonBlockingThread).containsExactly(false);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    private void enqueueChunks(String ndjson)
+    {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody(ndjson)
+                .addHeader("Content-Type", "application/x-ndjson"));
+    }
+
+    // Blocks like the live REST adapter does, which Reactor refuses on Netty and parallel threads
+    private class BlockingCountriesPort implements CountriesPort
+    {
+        @Override
+        public City getCapitalOf(Country country)
+        {
+            toolCalledOnNonBlockingThread.add(Schedulers.isInNonBlockingThread());
+            return Mono.fromCallable(() -> City.of("Berlin"))
+                    .delayElement(Duration.ofMillis(10))
+                    .block();
+        }
+
+        @Override
+        public CityInformation getCityInformation(City city)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
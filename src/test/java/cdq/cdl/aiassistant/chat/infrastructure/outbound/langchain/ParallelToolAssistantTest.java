@@ -0,0 +1,155 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import dev.langchain4j.agent.tool.Tool;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import dev.langchain4j.service.Result;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ParallelToolAssistantTest
+{
+    private final List<List<ChatMessage>> modelCalls = new ArrayList<>();
+
+    @Test
+    void shouldRunToolCallsOfOneTurnConcurrentlyAndKeepTheirOrder()
+    {
+        // Given
+        CountDownLatch allStarted = new CountDownLatch(3);
+        ChatLanguageModel chatModel = scriptedModel(
+                AiMessage.from(List.of(
+                        capitalRequest("Germany"),
+                        capitalRequest("France"),
+                        capitalRequest("Spain"))),
+                AiMessage.from("Berlin, Paris and Madrid."));
+        ParallelToolAssistant assistant = new ParallelToolAssistant(
+                chatModel, "system prompt", List.of(new CapitalTool(allStarted)), 8, 10);
+
+        // When
+        Result<String> result = assistant.chat("Capitals of Germany, France and Spain?");
+
+        // Then
+        assertThat(result.content()).isEqualTo("Berlin, Paris and Madrid.");
+        assertThat(result.toolExecutions())
+                .extracting(execution -> execution.result())
+                .containsExactly("Berlin", "Paris", "Madrid");
+        assertThat(modelCalls.get(1))
+                .filteredOn(ToolExecutionResultMessage.class::isInstance)
+                .extracting(message -> ((ToolExecutionResultMessage) message).text())
+                .containsExactly("Berlin", "Paris", "Madrid");
+        assertThat(result.tokenUsage().totalTokenCount()).isEqualTo(30);
+    }
+
+    @Test
+    void shouldFailWhenModelKeepsRequestingToolsBeyondTheRoundLimit()
+    {
+        // Given
+        AiMessage toolCall = AiMessage.from(List.of(capitalRequest("Germany")));
+        ChatLanguageModel chatModel = scriptedModel(toolCall, toolCall, toolCall);
+        ParallelToolAssistant assistant = new ParallelToolAssistant(
+                chatModel, "system prompt", List.of(new CapitalTool(new CountDownLatch(0))), 8, 2);
+
+        // When/Then
+        assertThatThrownBy(() -> assistant.chat("Capital of Germany?"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("2 tool execution rounds");
+    }
+
+    @Test
+    void shouldRegisterToolsOfProxiedBeans()
+    {
+        // Given
+        ProxyFactory proxyFactory = new ProxyFactory(new CapitalTool(new CountDownLatch(0)));
+        proxyFactory.setProxyTargetClass(true);
+        ChatLanguageModel chatModel = scriptedModel(
+                AiMessage.from(List.of(capitalRequest("Germany"))),
+                AiMessage.from("Berlin."));
+        ParallelToolAssistant assistant = new ParallelToolAssistant(
+                chatModel, "system prompt", List.of(proxyFactory.getProxy()), 8, 10);
+
+        // When
+        Result<String> result = assistant.chat("Capital of Germany?");
+
+        // Then
+        assertThat(result.toolExecutions())
+                .extracting(execution -> execution.result())
+                .containsExactly("Berlin");
+    }
+
+    @Test
+    void shouldFailFastWhenToolBeanHasNoToolMethods()
+    {
+        // When/Then
+        assertThatThrownBy(() -> new ParallelToolAssistant(scriptedModel(), "system prompt", List.of(new Object()), 8, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No @Tool methods found on java.lang.Object");
+    }
+
+    private ChatLanguageModel scriptedModel(AiMessage... replies)
+    {
+        return new ChatLanguageModel()
+        {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages)
+            {
+                return generate(messages, List.of());
+            }
+
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications)
+            {
+                modelCalls.add(List.copyOf(messages));
+                return Response.from(replies[modelCalls.size() - 1], new TokenUsage(10, 5));
+            }
+        };
+    }
+
+    private static ToolExecutionRequest capitalRequest(String country)
+    {
+        return ToolExecutionRequest.builder()
+                .name("getCapitalCity")
+                .arguments("{\"countryName\": \"" + country + "\"}")
+                .build();
+    }
+
+    public static class CapitalTool
+    {
+        private final CountDownLatch allStarted;
+
+        CapitalTool(CountDownLatch allStarted)
+        {
+            this.allStarted = allStarted;
+        }
+
+        // Only returns once every call of the turn is running, so sequential execution would time out
+        @Tool("Get the capital city of a country")
+        public String getCapitalCity(String countryName) throws InterruptedException
+        {
+            allStarted.countDown();
+            if (!allStarted.await(5, TimeUnit.SECONDS))
+            {
+                return "timeout";
+            }
+            return switch (countryName)
+            {
+                case "Germany" -> "Berlin";
+                case "France" -> "Paris";
+                default -> "Madrid";
+            };
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.City;
+import cdq.cdl.aiassistant.chat.domain.model.CityInformation;
+import cdq.cdl.aiassistant.chat.domain.model.Country;
+import cdq.cdl.aiassistant.chat.domain.model.Temperature;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveCountriesPort;
+import cdq.cdl.aiassistant.chat.domain.port.ReactiveWeatherPort;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.cache.SemanticAnswerCache;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.ReactiveToolExecutor;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.tools.ToolMetrics;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReactiveLangChainAiAdapterTest
+{
+    private final List<List<ChatMessage>> modelCalls = new ArrayList<>();
+
+    private final ReactiveCountriesPort countriesPort = new ReactiveCountriesPort()
+    {
+        @Override
+        public Mono<City> getCapitalOf(Country country)
+        {
+            return switch (country.name())
+            {
+                case "Germany" -> Mono.just(City.of("Berlin"));
+                case "France" -> Mono.just(City.of("Paris"));
+                default -> Mono.error(new IllegalArgumentException("Country not found: " + country.name()));
+            };
+        }
+
+        @Override
+        public Mono<CityInformation> getCityInformation(City city)
+        {
+            return Mono.error(new UnsupportedOperationException());
+        }
+    };
+
+    private final ReactiveWeatherPort weatherPort = city -> Mono.just(new Temperature(21.5));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ReactiveToolExecutor toolExecutor = new ReactiveToolExecutor(
+            countriesPort, weatherPort, query -> Mono.just("CDQ knowledge"), new ToolMetrics(meterRegistry));
+
+    @Test
+    void shouldExecuteToolCallsAndKeepTheirOrder()
+    {
+        // Given
+        ReactiveLangChainAiAdapter adapter = new ReactiveLangChainAiAdapter(scriptedModel(
+                AiMessage.from(List.of(
+                        request("getCapitalCity", "{\"countryName\": \"Germany\"}"),
+                        request("getCurrentTemperature", "{\"cityName\": \"Berlin\"}"),
+                        request("getCapitalCity", "{\"countryName\": \"France\"}"))),
+                AiMessage.from("Berlin has 21.5°C, the capital of France is Paris.")),
+                toolExecutor, answerCache(false), 10);
+
+        // When
+        AssistantAnswer answer = adapter.answer(UserQuestion.of("Weather in the capital of Germany and capital of France?")).block();
+
+        // Then
+        assertThat(answer.value()).isEqualTo("Berlin has 21.5°C, the capital of France is Paris.");
+        assertThat(modelCalls.get(1))
+                .filteredOn(ToolExecutionResultMessage.class::isInstance)
+                .extracting(message -> ((ToolExecutionResultMessage) message).text())
+                .containsExactly("Berlin", "21.5", "Paris");
+    }
+
+    @Test
+    void shouldReportToolFailureBackToTheModel()
+    {
+        // Given
+        ReactiveLangChainAiAdapter adapter = new ReactiveLangChainAiAdapter(scriptedModel(
+                AiMessage.from(List.of(request("getCapitalCity", "{\"countryName\": \"Atlantis\"}"))),
+                AiMessage.from("I could not find Atlantis.")),
+                toolExecutor, answerCache(false), 10);
+
+        // When
+        AssistantAnswer answer = adapter.answer(UserQuestion.of("Capital of Atlantis?")).block();
+
+        // Then
+        assertThat(answer.value()).isEqualTo("I could not find Atlantis.");
+        assertThat(modelCalls.get(1))
+                .filteredOn(ToolExecutionResultMessage.class::isInstance)
+                .extracting(message -> ((ToolExecutionResultMessage) message).text())
+                .containsExactly("Country not found: Atlantis");
+        assertThat(meterRegistry.timer("tool.calls", "tool", "getCapitalCity", "outcome", "error").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailWhenModelKeepsRequestingToolsBeyondTheRoundLimit()
+    {
+        // Given
+        AiMessage toolCall = AiMessage.from(List.of(request("getCapitalCity", "{\"countryName\": \"Germany\"}")));
+        ReactiveLangChainAiAdapter adapter = new ReactiveLangChainAiAdapter(
+                scriptedModel(toolCall, toolCall, toolCall), toolExecutor, answerCache(false), 2);
+
+        // When/Then
+        assertThatThrownBy(() -> adapter.answer(UserQuestion.of("Capital of Germany?")).block())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("2 tool execution rounds");
+    }
+
+    @Test
+    void shouldAnswerRepeatedQuestionFromTheSemanticCache()
+    {
+        // Given
+        ReactiveLangChainAiAdapter adapter = new ReactiveLangChainAiAdapter(scriptedModel(
+                AiMessage.from(List.of(request("getCapitalCity", "{\"countryName\": \"Germany\"}"))),
+                AiMessage.from("The capital of Germany is Berlin.")),
+                toolExecutor, answerCache(true), 10);
+        adapter.answer(UserQuestion.of("Which city is the capital of Germany?")).block();
+
+        // When
+        AssistantAnswer answer = adapter.answer(UserQuestion.of("Which city is the capital of Germany?")).block();
+
+        // Then
+        assertThat(answer.value()).isEqualTo("The capital of Germany is Berlin.");
+        assertThat(modelCalls).hasSize(2);
+        assertThat(meterRegistry.counter("ai.answer.cache.requests", "result", "hit").count()).isEqualTo(1.0);
+    }
+
+    private SemanticAnswerCache answerCache(boolean enabled)
+    {
+        EmbeddingModel embeddingModel = segments -> Response.from(segments.stream()
+                .map(segment -> Embedding.from(new float[] {segment.text().length(), 1.0f}))
+                .toList());
+        return new SemanticAnswerCache(embeddingModel, meterRegistry, enabled, 0.92, 100,
+                Duration.ofMinutes(5), Duration.ofHours(24), Duration.ofDays(7), Duration.ofHours(1));
+    }
+
+    private StreamingChatLanguageModel scriptedModel(AiMessage... replies)
+    {
+        return new StreamingChatLanguageModel()
+        {
+            @Override
+            public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler)
+            {
+                generate(messages, List.of(), handler);
+            }
+
+            @Override
+            public void generate(List<ChatMessage> messages,
+                                 List<ToolSpecification> toolSpecifications,
+                                 StreamingResponseHandler<AiMessage> handler)
+            {
+                modelCalls.add(List.copyOf(messages));
+                handler.onComplete(Response.from(replies[modelCalls.size() - 1]));
+            }
+        };
+    }
+
+    private static ToolExecutionRequest request(String name, String arguments)
+    {
+        return ToolExecutionRequest.builder()
+                .id(name + arguments.hashCode())
+                .name(name)
+                .arguments(arguments)
+                .build();
+    }
+}
@@ -0,0 +1,207 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.rag.KnowledgeBaseUpdatedEvent;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SemanticAnswerCacheTest
+{
+    private final Map<String, float[]> vectors = new HashMap<>();
+    private final AtomicInteger modelCalls = new AtomicInteger();
+    private final TestClock clock = new TestClock();
+    private SimpleMeterRegistry meterRegistry;
+    private SemanticAnswerCache cache;
+
+    @BeforeEach
+    void setUp()
+    {
+        vectors.put("What is CDQ Fraud Guard?", new float[] {1.0f, 0.0f, 0.0f});
+        vectors.put("Tell me what CDQ Fraud Guard is", new float[] {0.99f, 0.1f, 0.0f});
+        vectors.put("What is the temperature in Berlin?", new float[] {0.0f, 1.0f, 0.0f});
+        vectors.put("What is the capital of Germany?", new float[] {0.0f, 0.0f, 1.0f});
+        vectors.put("Which city is the capital of Germany?", new float[] {0.0f, 0.1f, 0.99f});
+        vectors.put("What is the capital of France?", new float[] {0.0f, 0.05f, 0.99f});
+
+        EmbeddingModel embeddingModel = segments -> Response.from(segments.stream()
+                .map(segment -> Embedding.from(vectors.get(segment.text())))
+                .toList());
+
+        Map<AnswerCategory, Duration> ttls = new EnumMap<>(AnswerCategory.class);
+        ttls.put(AnswerCategory.WEATHER, Duration.ofMinutes(5));
+        ttls.put(AnswerCategory.PRODUCT, Duration.ofHours(24));
+        ttls.put(AnswerCategory.GEOGRAPHY, Duration.ofDays(7));
+        ttls.put(AnswerCategory.GENERAL, Duration.ofHours(1));
+
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SemanticAnswerCache(embeddingModel, meterRegistry, true, 0.95, 2, ttls, clock);
+    }
+
+    @Test
+    void shouldReturnCachedAnswerForParaphrasedQuestion()
+    {
+        // Given
+        cache.getOrCompute(UserQuestion.of("What is CDQ Fraud Guard?"), answering("A fraud detection product.", AnswerCategory.PRODUCT));
+
+        // When
+        AssistantAnswer answer = cache.getOrCompute(UserQuestion.of("Tell me what CDQ Fraud Guard is"),
+                answering("Should not be computed.", AnswerCategory.PRODUCT));
+
+        // Then
+        assertThat(answer.value()).isEqualTo("A fraud detection product.");
+        assertThat(modelCalls).hasValue(1);
+        assertThat(meterRegistry.counter("ai.answer.cache.requests", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("ai.answer.cache.requests", "result", "miss").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldComputeAnswerWhenQuestionIsNotSimilarEnough()
+    {
+        // Given
+        cache.getOrCompute(UserQuestion.of("What is CDQ Fraud Guard?"), answering("A fraud detection product.", AnswerCategory.PRODUCT));
+
+        // When
+        AssistantAnswer answer = cache.getOrCompute(UserQuestion.of("What is the capital of Germany?"),
+                answering("Berlin.", AnswerCategory.GEOGRAPHY, "Germany"));
+
+        // Then
+        assertThat(answer.value()).isEqualTo("Berlin.");
+        assertThat(modelCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldExpireWeatherAnswersAfterTheirTtl()
+    {
+        // Given
+        UserQuestion question = UserQuestion.of("What is the temperature in Berlin?");
+        cache.getOrCompute(question, answering("It is 20°C.", AnswerCategory.WEATHER, "Berlin"));
+
+        // When
+        clock.advance(Duration.ofMinutes(6));
+        AssistantAnswer answer = cache.getOrCompute(question, answering("It is 15°C.", AnswerCategory.WEATHER, "Berlin"));
+
+        // Then
+        assertThat(answer.value()).isEqualTo("It is 15°C.");
+        assertThat(modelCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldEvictProductAnswersWhenKnowledgeBaseIsUpdated()
+    {
+        // Given
+        UserQuestion question = UserQuestion.of("What is CDQ Fraud Guard?");
+        cache.getOrCompute(question, answering("Old description.", AnswerCategory.PRODUCT));
+
+        // When
+        cache.onKnowledgeBaseUpdated(new KnowledgeBaseUpdatedEvent(10));
+        AssistantAnswer answer = cache.getOrCompute(question, answering("New description.", AnswerCategory.PRODUCT));
+
+        // Then
+        assertThat(answer.value()).isEqualTo("New description.");
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntryWhenFull()
+    {
+        // Given
+        cache.getOrCompute(UserQuestion.of("What is CDQ Fraud Guard?"), answering("Product.", AnswerCategory.PRODUCT));
+        cache.getOrCompute(UserQuestion.of("What is the capital of Germany?"), answering("Berlin.", AnswerCategory.GEOGRAPHY, "Germany"));
+
+        // When
+        cache.getOrCompute(UserQuestion.of("What is the temperature in Berlin?"), answering("20°C.", AnswerCategory.WEATHER, "Berlin"));
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(meterRegistry.counter("ai.answer.cache.evictions", "reason", "capacity").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReuseGeographyAnswerOnlyForQuestionsAboutTheSameCountry()
+    {
+        // Given
+        cache.getOrCompute(UserQuestion.of("What is the capital of Germany?"), answering("Berlin.", AnswerCategory.GEOGRAPHY, "Germany"));
+
+        // When
+        AssistantAnswer sameCountry = cache.getOrCompute(UserQuestion.of("Which city is the capital of Germany?"),
+                answering("Should not be computed.", AnswerCategory.GEOGRAPHY, "Germany"));
+        AssistantAnswer otherCountry = cache.getOrCompute(UserQuestion.of("What is the capital of France?"),
+                answering("Paris.", AnswerCategory.GEOGRAPHY, "France"));
+
+        // Then
+        assertThat(sameCountry.value()).isEqualTo("Berlin.");
+        assertThat(otherCountry.value()).isEqualTo("Paris.");
+        assertThat(modelCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCacheGeographyAnswerWithoutEntities()
+    {
+        // Given
+        cache.getOrCompute(UserQuestion.of("What is the capital of Germany?"), answering("Berlin.", AnswerCategory.GEOGRAPHY));
+
+        // When
+        AssistantAnswer answer = cache.getOrCompute(UserQuestion.of("What is the capital of France?"),
+                answering("Paris.", AnswerCategory.GEOGRAPHY));
+
+        // Then
+        assertThat(answer.value()).isEqualTo("Paris.");
+        assertThat(cache.size()).isZero();
+    }
+
+    private Function<UserQuestion, CategorizedAnswer> answering(String answer, AnswerCategory category, String... entities)
+    {
+        return question ->
+        {
+            modelCalls.incrementAndGet();
+            return new CategorizedAnswer(new AssistantAnswer(answer), category, Set.of(entities));
+        };
+    }
+
+    private static class TestClock extends Clock
+    {
+        private Instant now = Instant.parse("2026-01-01T10:00:00Z");
+
+        void advance(Duration duration)
+        {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone()
+        {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone)
+        {
+            return this;
+        }
+
+        @Override
+        public Instant instant()
+        {
+            return now;
+        }
+    }
+}
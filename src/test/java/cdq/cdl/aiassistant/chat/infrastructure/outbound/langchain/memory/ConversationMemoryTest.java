@@ -0,0 +1,173 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.langchain.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+
+import cdq.cdl.aiassistant.chat.domain.model.AssistantAnswer;
+import cdq.cdl.aiassistant.chat.domain.model.UserQuestion;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConversationMemoryTest
+{
+    private static final String CONVERSATION = "session-42";
+
+    private final InMemoryChatMemoryStore store = new InMemoryChatMemoryStore();
+    private final List<List<ChatMessage>> summaryRequests = new ArrayList<>();
+
+    @Test
+    void shouldReturnRecordedTurnsAsHistory()
+    {
+        // Given
+        ConversationMemory memory = memory(summarizingModel("unused"), Runnable::run);
+        memory.record(CONVERSATION, "What is the capital of Germany?", "Berlin.");
+
+        // When
+        List<ChatMessage> history = memory.history(CONVERSATION);
+
+        // Then
+        assertThat(history).containsExactly(
+                UserMessage.from("What is the capital of Germany?"),
+                AiMessage.from("Berlin."));
+        assertThat(memory.history("another-conversation")).isEmpty();
+    }
+
+    @Test
+    void shouldIssueRandomConversationIdWithTheFirstTurnStored()
+    {
+        // Given
+        ConversationMemory memory = memory(summarizingModel("unused"), Runnable::run);
+
+        // When
+        String conversationId = memory.start(UserQuestion.of("What is the capital of Germany?"), new AssistantAnswer("Berlin."));
+
+        // Then
+        assertThat(UserQuestion.of("And its temperature?", conversationId).isPartOfConversation()).isTrue();
+        assertThat(memory.exists(conversationId)).isTrue();
+        assertThat(memory.exists(UUID.randomUUID().toString())).isFalse();
+        assertThat(memory.history(conversationId)).containsExactly(
+                UserMessage.from("What is the capital of Germany?"),
+                AiMessage.from("Berlin."));
+    }
+
+    @Test
+    void shouldSummarizeOldestTurnsOnceHistoryExceedsTheCap()
+    {
+        // Given
+        ConversationMemory memory = memory(summarizingModel("The user asked about German and French cities."), Runnable::run);
+
+        // When
+        recordTurns(memory, 6);
+        List<ChatMessage> history = memory.history(CONVERSATION);
+
+        // Then
+        assertThat(history.getFirst()).isInstanceOf(SystemMessage.class);
+        assertThat(((SystemMessage) history.getFirst()).text())
+                .isEqualTo(ConversationMemory.SUMMARY_PREFIX + "The user asked about German and French cities.");
+        assertThat(history.getLast()).isEqualTo(AiMessage.from(answer(6)));
+        assertThat(ConversationMemory.tokensOf(history)).isLessThanOrEqualTo(100);
+        assertThat(summaryRequests.getFirst().getLast().toString()).contains(question(1));
+    }
+
+    @Test
+    void shouldDropOldestTurnsWhileSummaryIsNotAvailable()
+    {
+        // Given
+        ChatLanguageModel failingModel = new ChatLanguageModel()
+        {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages)
+            {
+                throw new IllegalStateException("model unavailable");
+            }
+        };
+        ConversationMemory memory = memory(failingModel, Runnable::run);
+
+        // When
+        recordTurns(memory, 6);
+        List<ChatMessage> history = memory.history(CONVERSATION);
+
+        // Then
+        assertThat(history.getFirst()).isInstanceOf(UserMessage.class);
+        assertThat(history.getLast()).isEqualTo(AiMessage.from(answer(6)));
+        assertThat(history).doesNotContain(UserMessage.from(question(1)));
+        assertThat(ConversationMemory.tokensOf(history)).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void shouldKeepTurnsRecordedWhileSummarizing()
+    {
+        // Given
+        List<Runnable> pendingCompactions = new ArrayList<>();
+        ConversationMemory[] memory = new ConversationMemory[1];
+        ChatLanguageModel slowModel = new ChatLanguageModel()
+        {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages)
+            {
+                memory[0].record(CONVERSATION, "And one more thing?", "Sure.");
+                return Response.from(AiMessage.from("Summary."));
+            }
+        };
+        memory[0] = memory(slowModel, pendingCompactions::add);
+        recordTurns(memory[0], 3);
+
+        // When
+        pendingCompactions.getFirst().run();
+
+        // Then
+        List<ChatMessage> stored = store.getMessages(CONVERSATION);
+        assertThat(stored.getFirst()).isEqualTo(SystemMessage.from(ConversationMemory.SUMMARY_PREFIX + "Summary."));
+        assertThat(stored).endsWith(
+                UserMessage.from(question(3)), AiMessage.from(answer(3)),
+                UserMessage.from("And one more thing?"), AiMessage.from("Sure."));
+    }
+
+    private ConversationMemory memory(ChatLanguageModel chatModel, Executor executor)
+    {
+        return new ConversationMemory(store, chatModel, new SimpleMeterRegistry(), 100, 30, executor);
+    }
+
+    private void recordTurns(ConversationMemory memory, int turns)
+    {
+        for (int i = 1; i <= turns; i++)
+        {
+            memory.record(CONVERSATION, question(i), answer(i));
+        }
+    }
+
+    private ChatLanguageModel summarizingModel(String summary)
+    {
+        return new ChatLanguageModel()
+        {
+            @Override
+            public Response<AiMessage> generate(List<ChatMessage> messages)
+            {
+                summaryRequests.add(List.copyOf(messages));
+                return Response.from(AiMessage.from(summary));
+            }
+        };
+    }
+
+    private static String question(int turn)
+    {
+        return "Question number " + turn + ": what is the population of the largest city in that country?";
+    }
+
+    private static String answer(int turn)
+    {
+        return "Answer number " + turn + ": about three million people live there.";
+    }
+}
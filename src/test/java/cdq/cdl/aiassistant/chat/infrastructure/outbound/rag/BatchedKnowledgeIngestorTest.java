@@ -0,0 +1,159 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import cdq.cdl.aiassistant.chat.infrastructure.outbound.rag.PgVectorIngestionHelper.StoredChunk;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BatchedKnowledgeIngestorTest
+{
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> writtenTexts = new ArrayList<>();
+    private final List<String> deletedIds = new ArrayList<>();
+    private final List<StoredChunk> storedChunks = new ArrayList<>();
+    private final List<String> storedSources = new ArrayList<>();
+    private BatchedKnowledgeIngestor ingestor;
+
+    @BeforeEach
+    void setUp()
+    {
+        EmbeddingModel embeddingModel = segments ->
+        {
+            batchSizes.add(segments.size());
+            return Response.from(segments.stream()
+                    .map(segment -> Embedding.from(new float[] {segment.text().length()}))
+                    .toList());
+        };
+
+        PgVectorCopyWriter copyWriter = new PgVectorCopyWriter(null)
+        {
+            @Override
+            int replace(Collection<String> staleIds, Iterable<List<EmbeddedChunk>> batches)
+            {
+                deletedIds.addAll(staleIds);
+                batches.forEach(batch -> batch.forEach(chunk -> writtenTexts.add(chunk.segment().text())));
+                return writtenTexts.size();
+            }
+        };
+
+        PgVectorIngestionHelper ingestionHelper = new PgVectorIngestionHelper(null)
+        {
+            @Override
+            List<StoredChunk> storedChunks(String source)
+            {
+                return storedChunks;
+            }
+
+            @Override
+            int deleteSourcesOtherThan(Collection<String> sources)
+            {
+                int before = storedSources.size();
+                storedSources.retainAll(sources);
+                return before - storedSources.size();
+            }
+        };
+
+        ingestor = new BatchedKnowledgeIngestor(embeddingModel, copyWriter, ingestionHelper);
+        ReflectionTestUtils.setField(ingestor, "batchSize", 32);
+        ReflectionTestUtils.setField(ingestor, "parallelism", 2);
+    }
+
+    @Test
+    void shouldEmbedInBatchesAndWriteChunksInOriginalOrder()
+    {
+        // Given
+        List<TextSegment> segments = IntStream.range(0, 70)
+                .mapToObj(i -> TextSegment.from("chunk " + i))
+                .toList();
+
+        // When
+        IngestionStats stats = ingestor.sync("https://example.com", segments);
+
+        // Then
+        assertThat(stats.embedded()).isEqualTo(70);
+        assertThat(batchSizes).containsExactlyInAnyOrder(32, 32, 6);
+        assertThat(writtenTexts).containsExactlyElementsOf(segments.stream().map(TextSegment::text).toList());
+    }
+
+    @Test
+    void shouldOnlyEmbedChangedChunksAndRemoveDisappearedOnes()
+    {
+        // Given
+        storedChunks.add(new StoredChunk("id-unchanged", BatchedKnowledgeIngestor.contentHash("unchanged chunk")));
+        storedChunks.add(new StoredChunk("id-removed", BatchedKnowledgeIngestor.contentHash("removed chunk")));
+        storedChunks.add(new StoredChunk("id-legacy", null));
+
+        // When
+        IngestionStats stats = ingestor.sync("https://example.com", List.of(
+                TextSegment.from("unchanged chunk"),
+                TextSegment.from("new chunk")));
+
+        // Then
+        assertThat(stats.embedded()).isEqualTo(1);
+        assertThat(stats.skipped()).isEqualTo(1);
+        assertThat(stats.removed()).isEqualTo(2);
+        assertThat(writtenTexts).containsExactly("new chunk");
+        assertThat(deletedIds).containsExactly("id-removed", "id-legacy");
+        assertThat(batchSizes).containsExactly(1);
+    }
+
+    @Test
+    void shouldNotEmbedAnythingWhenContentIsUnchanged()
+    {
+        // Given
+        storedChunks.add(new StoredChunk("id-1", BatchedKnowledgeIngestor.contentHash("first chunk")));
+
+        // When
+        IngestionStats stats = ingestor.sync("https://example.com", List.of(TextSegment.from("first chunk")));
+
+        // Then
+        assertThat(stats.changed()).isFalse();
+        assertThat(stats.skipped()).isEqualTo(1);
+        assertThat(batchSizes).isEmpty();
+    }
+
+    @Test
+    void shouldRemoveChunksOfSourcesThatWereNotCrawledAnyMore()
+    {
+        // Given
+        storedSources.addAll(List.of("https://example.com/a", "https://example.com/a", "https://example.com/gone"));
+
+        // When
+        IngestionStats stats = ingestor.removeSourcesOtherThan(Set.of("https://example.com/a", "https://example.com/b"));
+
+        // Then
+        assertThat(stats.removed()).isEqualTo(1);
+        assertThat(stats.changed()).isTrue();
+        assertThat(storedSources).containsOnly("https://example.com/a");
+    }
+
+    @Test
+    void shouldEscapeQuotesAndNewlinesInCopyRows()
+    {
+        // Given
+        EmbeddedChunk chunk = new EmbeddedChunk(
+                "5b2f6c1e-0000-0000-0000-000000000001",
+                Embedding.from(new float[] {0.5f, -1.0f}),
+                TextSegment.from("SECTION: \"Trust\" score\nline two"));
+
+        // When
+        String row = PgVectorCopyWriter.toCsvRow(chunk);
+
+        // Then
+        assertThat(row).isEqualTo("5b2f6c1e-0000-0000-0000-000000000001,\"[0.5,-1.0]\",\"SECTION: \"\"Trust\"\" score\nline two\",\"{}\"\n");
+    }
+}
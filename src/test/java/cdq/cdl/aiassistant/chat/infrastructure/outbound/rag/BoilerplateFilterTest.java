@@ -0,0 +1,74 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoilerplateFilterTest
+{
+    private final BoilerplateFilter filter = new BoilerplateFilter(
+            List.of("cookie", "privacy policy", "© 20", "log in", "login", "(opens in new tab)"),
+            List.of("home", "about us", "products"),
+            List.of("^\\d+ min read$"));
+
+    @Test
+    void shouldRejectTextContainingAnyPhraseRegardlessOfCase()
+    {
+        // When/Then
+        assertThat(filter.isRelevant("We use COOKIES to improve your experience")).isFalse();
+        assertThat(filter.isRelevant("Read our Privacy Policy before you continue")).isFalse();
+        assertThat(filter.isRelevant("© 2024 CDQ AG")).isFalse();
+        assertThat(filter.isRelevant("Documentation (opens in new tab)")).isFalse();
+    }
+
+    @Test
+    void shouldRejectNavigationLabelsOnlyWhenTheyAreTheWholeText()
+    {
+        // When/Then
+        assertThat(filter.isRelevant("Products")).isFalse();
+        assertThat(filter.isRelevant(" About us ")).isFalse();
+        assertThat(filter.isRelevant("Our products protect payments against fraud")).isTrue();
+    }
+
+    @Test
+    void shouldRejectTextMatchingConfiguredPattern()
+    {
+        // When/Then
+        assertThat(filter.isRelevant("5 min read")).isFalse();
+        assertThat(filter.isRelevant("A 5 min read about fraud detection")).isTrue();
+    }
+
+    @Test
+    void shouldKeepProductContent()
+    {
+        // When/Then
+        assertThat(filter.isRelevant("CDQ Fraud Guard validates bank accounts of business partners in real time.")).isTrue();
+        assertThat(filter.isRelevant("Blogging about logistics")).isTrue();
+    }
+
+    @Test
+    void shouldFindPhrasesThatOverlapOrEndInsideLongerPhrases()
+    {
+        // Given
+        PhraseMatcher matcher = new PhraseMatcher(List.of("he", "she", "hers", "his"));
+
+        // When/Then
+        assertThat(matcher.containsAny("ushers")).isTrue();
+        assertThat(matcher.containsAny("this")).isTrue();
+        assertThat(matcher.containsAny("sheep")).isTrue();
+        assertThat(matcher.containsAny("ship")).isFalse();
+        assertThat(new PhraseMatcher(List.of("abcd", "bce")).containsAny("abce")).isTrue();
+    }
+
+    @Test
+    void shouldMatchNothingWithoutPhrases()
+    {
+        // Given
+        PhraseMatcher matcher = new PhraseMatcher(List.of());
+
+        // When/Then
+        assertThat(matcher.containsAny("anything")).isFalse();
+    }
+}
@@ -0,0 +1,88 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import cdq.cdl.aiassistant.shared.text.TokenEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ContextAssemblerTest
+{
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldPreferADifferentChunkOverANearDuplicateOfTheBestOne()
+    {
+        // Given
+        ContextAssembler assembler = new ContextAssembler(20, 0.5, 16, meterRegistry);
+        List<ContextAssembler.Candidate> candidates = List.of(
+                new ContextAssembler.Candidate("Fraud Guard checks bank accounts.", new float[]{1, 0, 0}, 0.90),
+                new ContextAssembler.Candidate("Fraud Guard verifies bank accounts.", new float[]{0.99f, 0.1f, 0}, 0.89),
+                new ContextAssembler.Candidate("Sanctions lists are screened daily.", new float[]{0, 1, 0}, 0.70));
+
+        // When
+        String context = assembler.assemble(candidates);
+
+        // Then
+        assertThat(context).isEqualTo("Fraud Guard checks bank accounts.\n\nSanctions lists are screened daily.");
+    }
+
+    @Test
+    void shouldStopAtTheTokenBudgetAndRecordTheTokensSaved()
+    {
+        // Given
+        String chunk = "Fraud Guard compares payment details with fraud cases reported by other companies.";
+        int chunkTokens = TokenEstimator.estimate(chunk);
+        ContextAssembler assembler = new ContextAssembler(20, 1.0, chunkTokens * 2, meterRegistry);
+        List<ContextAssembler.Candidate> candidates = List.of(
+                new ContextAssembler.Candidate(chunk, new float[]{1, 0}, 0.9),
+                new ContextAssembler.Candidate(chunk, new float[]{0, 1}, 0.8),
+                new ContextAssembler.Candidate(chunk, new float[]{1, 1}, 0.7),
+                new ContextAssembler.Candidate(chunk, new float[]{1, 2}, 0.6));
+
+        // When
+        String context = assembler.assemble(candidates);
+
+        // Then
+        assertThat(context.split("\n\n")).hasSize(2);
+        assertThat(meterRegistry.get("rag.context.tokens").summary().totalAmount()).isEqualTo(chunkTokens * 2);
+        assertThat(meterRegistry.get("rag.context.tokens.saved").summary().totalAmount()).isEqualTo(chunkTokens * 2);
+    }
+
+    @Test
+    void shouldCutTheMostRelevantChunkToTheBudgetWhenNoChunkFits()
+    {
+        // Given
+        String chunk = "Fraud Guard compares payment details with fraud cases reported by other companies. "
+                + "Matches are reported before the payment is released.";
+        ContextAssembler assembler = new ContextAssembler(20, 0.7, 8, meterRegistry);
+        List<ContextAssembler.Candidate> candidates = List.of(
+                new ContextAssembler.Candidate("Sanctions lists are screened daily, every list is updated overnight.",
+                        new float[]{0, 1}, 0.6),
+                new ContextAssembler.Candidate(chunk, new float[]{1, 0}, 0.9));
+
+        // When
+        String context = assembler.assemble(candidates);
+
+        // Then
+        assertThat(context).isEqualTo("Fraud Guard compares payment details");
+        assertThat(TokenEstimator.estimate(context)).isLessThanOrEqualTo(8);
+        assertThat(meterRegistry.get("rag.context.tokens").summary().totalAmount()).isEqualTo(TokenEstimator.estimate(context));
+    }
+
+    @Test
+    void shouldReportNoResultsWithoutCandidates()
+    {
+        // Given
+        ContextAssembler assembler = new ContextAssembler(20, 0.7, 600, meterRegistry);
+
+        // When
+        String context = assembler.assemble(List.of());
+
+        // Then
+        assertThat(context).isEqualTo(PgVectorKnowledgeAdapter.NO_RESULTS);
+    }
+}
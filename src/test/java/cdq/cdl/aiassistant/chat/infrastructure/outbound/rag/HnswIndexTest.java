@@ -0,0 +1,100 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HnswIndexTest
+{
+    private static final int DIMENSION = 48;
+
+    @Test
+    void shouldReturnNoResultsForEmptyIndex()
+    {
+        // Given
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 42L);
+
+        // When
+        List<HnswIndex.Scored> results = index.search(randomVector(new Random(1)), 5, 64);
+
+        // Then
+        assertThat(results).isEmpty();
+    }
+
+    @Test
+    void shouldFindExactVectorAsBestMatch()
+    {
+        // Given
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 42L);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 300; i++)
+        {
+            float[] vector = randomVector(random);
+            vectors.add(vector);
+            index.add(vector);
+        }
+
+        // When
+        List<HnswIndex.Scored> results = index.search(vectors.get(123), 1, 64);
+
+        // Then
+        assertThat(results).hasSize(1);
+        assertThat(results.getFirst().node()).isEqualTo(123);
+        assertThat(results.getFirst().score()).isCloseTo(1.0f, within(1e-4f));
+    }
+
+    @Test
+    void shouldReachHighRecallComparedToBruteForce()
+    {
+        // Given
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 42L);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            float[] vector = randomVector(random);
+            vectors.add(HnswIndex.normalize(vector));
+            index.add(vector);
+        }
+
+        // When
+        int k = 10;
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++)
+        {
+            float[] query = HnswIndex.normalize(randomVector(random));
+
+            Set<Integer> exact = IntStream.range(0, vectors.size()).boxed()
+                    .sorted(Comparator.comparingDouble((Integer id) -> HnswIndex.dot(query, vectors.get(id))).reversed())
+                    .limit(k)
+                    .collect(Collectors.toSet());
+
+            found += (int) index.search(query, k, 64).stream()
+                    .filter(scored -> exact.contains(scored.node()))
+                    .count();
+        }
+
+        // Then
+        assertThat((double) found / (queries * k)).isGreaterThan(0.9);
+    }
+
+    private static float[] randomVector(Random random)
+    {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++)
+        {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,51 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.*;
+
+class KnowledgeBaseHealthIndicatorTest
+{
+    private final KnowledgeBaseStatus status = new KnowledgeBaseStatus();
+    private final KnowledgeBaseHealthIndicator healthIndicator = new KnowledgeBaseHealthIndicator(status);
+
+    @Test
+    void shouldReportOutOfServiceWhileKnowledgeBaseIsWarming()
+    {
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(health.getDetails()).containsEntry("status", "knowledge base warming");
+    }
+
+    @Test
+    void shouldReportUpOnceKnowledgeBaseIsReady()
+    {
+        // Given
+        status.markReady();
+
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void shouldReportDownWhenIngestionFailed()
+    {
+        // Given
+        status.markFailed(new IllegalStateException("connection refused"));
+
+        // When
+        Health health = healthIndicator.health();
+
+        // Then
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails()).containsEntry("reason", "connection refused");
+    }
+}
@@ -0,0 +1,227 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class KnowledgeCrawlerTest
+{
+    private MockWebServer mockWebServer;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void shouldCrawlEveryPageListedInTheSitemap() throws InterruptedException
+    {
+        // Given
+        mockWebServer.setDispatcher(new Dispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest request)
+            {
+                return switch (request.getPath())
+                {
+                    case "/sitemap.xml" -> new MockResponse().setBody("""
+                            <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+                              <url><loc>%s</loc></url>
+                              <url><loc>%s</loc></url>
+                            </urlset>
+                            """.formatted(url("/a"), url("/b")));
+                    case "/a", "/b" -> html("<h1>Page " + request.getPath() + "</h1>");
+                    default -> new MockResponse().setResponseCode(404);
+                };
+            }
+        });
+        KnowledgeCrawler crawler = crawler(8, 2, 0);
+
+        List<CrawledPage> pages = new ArrayList<>();
+
+        // When
+        boolean complete = crawler.crawl(List.of(), List.of(url("/sitemap.xml")), pages::add);
+
+        // Then
+        assertThat(complete).isTrue();
+        assertThat(pages)
+                .extracting(CrawledPage::status)
+                .containsOnly(CrawledPage.Status.FETCHED);
+        assertThat(pages)
+                .extracting(page -> page.document().select("h1").text())
+                .containsExactlyInAnyOrder("Page /a", "Page /b");
+    }
+
+    @Test
+    void shouldSkipPagesThatAreNotModifiedSinceTheyWereRemembered() throws InterruptedException
+    {
+        // Given
+        mockWebServer.setDispatcher(new Dispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest request)
+            {
+                if ("\"v1\"".equals(request.getHeader("If-None-Match")))
+                {
+                    return new MockResponse().setResponseCode(304);
+                }
+                return html("<h1>Fraud Guard</h1>").addHeader("ETag", "\"v1\"");
+            }
+        });
+        KnowledgeCrawler crawler = crawler(8, 2, 0);
+        CrawledPage first = crawl(crawler, List.of(url("/fraud-guard")), List.of()).getFirst();
+
+        // When
+        CrawledPage beforeRemember = crawl(crawler, List.of(url("/fraud-guard")), List.of()).getFirst();
+        crawler.remember(first);
+        CrawledPage afterRemember = crawl(crawler, List.of(url("/fraud-guard")), List.of()).getFirst();
+
+        // Then
+        assertThat(first.etag()).isEqualTo("\"v1\"");
+        assertThat(beforeRemember.status()).isEqualTo(CrawledPage.Status.FETCHED);
+        assertThat(afterRemember.status()).isEqualTo(CrawledPage.Status.NOT_MODIFIED);
+    }
+
+    @Test
+    void shouldFollowSameHostLinksAndNeverExceedThePerHostConcurrency() throws InterruptedException
+    {
+        // Given
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        mockWebServer.setDispatcher(new Dispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException
+            {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+                if ("/".equals(request.getPath()))
+                {
+                    return html("""
+                            <a href="/one">one</a><a href="/two#details">two</a><a href="/three">three</a>
+                            <a href="/brochure.pdf">pdf</a><a href="https://example.org/elsewhere">external</a>
+                            """);
+                }
+                return html("<h1>" + request.getPath() + "</h1>");
+            }
+        });
+        KnowledgeCrawler crawler = crawler(8, 1, 1);
+
+        // When
+        List<CrawledPage> pages = crawl(crawler, List.of(url("/")), List.of());
+
+        // Then
+        assertThat(pages)
+                .extracting(page -> page.url().getPath())
+                .containsExactlyInAnyOrder("/", "/one", "/two", "/three");
+        assertThat(maxInFlight).hasValue(1);
+    }
+
+    @Test
+    void shouldNeverCrawlMorePagesThanTheLimitWhileLinksAreExtractedConcurrently() throws InterruptedException
+    {
+        // Given
+        mockWebServer.setDispatcher(new Dispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest request)
+            {
+                String path = request.getPath();
+                return html("<a href=\"%1$s/1\">1</a><a href=\"%1$s/2\">2</a><a href=\"%1$s/3\">3</a>"
+                        .formatted("/".equals(path) ? "" : path));
+            }
+        });
+        KnowledgeCrawler crawler = crawler(8, 8, 3, 10);
+        List<CrawledPage> pages = new ArrayList<>();
+
+        // When
+        boolean complete = crawler.crawl(List.of(url("/")), List.of(), pages::add);
+
+        // Then
+        assertThat(complete).isFalse();
+        assertThat(pages).hasSize(10);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldReportAPageThatCannotBeRequestedAsFailedInsteadOfWaitingForIt()
+    {
+        // Given
+        mockWebServer.setDispatcher(new Dispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest request)
+            {
+                return html("<h1>ok</h1>");
+            }
+        });
+        KnowledgeCrawler crawler = crawler(8, 2, 0);
+        URI unsupported = URI.create("ftp://" + url("/").getAuthority() + "/files");
+
+        // When
+        List<CrawledPage> pages = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> crawl(crawler, List.of(unsupported, url("/a")), List.of()));
+
+        // Then
+        assertThat(pages)
+                .extracting(CrawledPage::url, CrawledPage::status)
+                .containsExactlyInAnyOrder(
+                        tuple(unsupported, CrawledPage.Status.FAILED),
+                        tuple(url("/a"), CrawledPage.Status.FETCHED));
+    }
+
+    private KnowledgeCrawler crawler(int maxConcurrency, int perHostConcurrency, int maxDepth)
+    {
+        return crawler(maxConcurrency, perHostConcurrency, maxDepth, 100);
+    }
+
+    private KnowledgeCrawler crawler(int maxConcurrency, int perHostConcurrency, int maxDepth, int maxPages)
+    {
+        return new KnowledgeCrawler(maxConcurrency, perHostConcurrency, Duration.ZERO, maxPages, maxDepth,
+                Duration.ofSeconds(5), "test");
+    }
+
+    private static List<CrawledPage> crawl(KnowledgeCrawler crawler, List<URI> seeds, List<URI> sitemaps)
+            throws InterruptedException
+    {
+        List<CrawledPage> pages = new ArrayList<>();
+        crawler.crawl(seeds, sitemaps, pages::add);
+        return pages;
+    }
+
+    private URI url(String path)
+    {
+        return mockWebServer.url(path).uri();
+    }
+
+    private static MockResponse html(String body)
+    {
+        return new MockResponse()
+                .addHeader("Content-Type", "text/html; charset=utf-8")
+                .setBody("<html><head></head><body>" + body + "</body></html>");
+    }
+}
@@ -0,0 +1,48 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NearDuplicateFilterTest
+{
+    private static final String PARAGRAPH = "CDQ Fraud Guard checks bank account data against a shared pool of fraud cases "
+            + "reported by the community, so suspicious payment details are flagged before money is transferred to "
+            + "accounts that have already been used in fraud attempts against other companies.";
+
+    private final NearDuplicateFilter filter = new NearDuplicateFilter(10);
+
+    @Test
+    void shouldKeepTheFirstOfNearlyIdenticalChunks()
+    {
+        // Given
+        List<String> chunks = List.of(
+                "SECTION: Fraud Guard\n\n" + PARAGRAPH,
+                "SECTION: Fraud Guard\n" + PARAGRAPH + " ",
+                PARAGRAPH.replace("CDQ Fraud Guard", "CDQ fraud guard"));
+
+        // When
+        List<String> distinct = filter.distinct(chunks);
+
+        // Then
+        assertThat(distinct).containsExactly(chunks.getFirst());
+    }
+
+    @Test
+    void shouldKeepChunksWithDifferentContent()
+    {
+        // Given
+        List<String> chunks = List.of(
+                PARAGRAPH,
+                "Sanctions screening compares business partners with global sanction lists and reports matches "
+                        + "together with the list entry and the reason for the match.");
+
+        // When
+        List<String> distinct = filter.distinct(chunks);
+
+        // Then
+        assertThat(distinct).containsExactlyElementsOf(chunks);
+    }
+}
@@ -17,7 +17,8 @@ import static org.assertj.core.api.Assertions.*;
 
 @SpringBootTest
 @TestPropertySource(properties = {
-        "spring.jpa.hibernate.ddl-auto=create-drop"
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "rag.ingestion.enabled=false"
 })
 class PgVectorProductKnowledgeAdapterIT
 {
@@ -103,5 +104,22 @@ class PgVectorProductKnowledgeAdapterIT
                 .isNotNull()
                 .isNotEmpty();
     }
-}
 
+    @Test
+    void shouldRankChunkContainingTheExactTermFirst()
+    {
+        // Given
+        ingestor.ingest(List.of(
+                Document.from("Fraud prevention protects companies against payment fraud and money laundering."),
+                Document.from("Compliance teams use risk assessment to detect suspicious transactions."),
+                Document.from("The trust score rates how reliable the bank account of a business partner is.")
+        ));
+
+        // When
+        String result = knowledgePort.search("trust score");
+
+        // Then
+        assertThat(result)
+                .startsWith("The trust score rates");
+    }
+}
@@ -0,0 +1,85 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import cdq.cdl.aiassistant.shared.text.TokenEstimator;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TextChunkerTest
+{
+    @Test
+    void shouldKeepTextThatFitsIntoOneChunk()
+    {
+        // Given
+        TextChunker chunker = new TextChunker(50, 10);
+
+        // When
+        List<String> chunks = chunker.split("  CDQ Fraud Guard detects bank account fraud.  ");
+
+        // Then
+        assertThat(chunks).containsExactly("CDQ Fraud Guard detects bank account fraud.");
+    }
+
+    @Test
+    void shouldSplitAtSentenceBoundariesWithinTheTokenLimit()
+    {
+        // Given
+        TextChunker chunker = new TextChunker(20, 0);
+        String text = IntStream.rangeClosed(1, 6)
+                .mapToObj(i -> "Sentence number " + i + " talks about payment fraud prevention.")
+                .collect(Collectors.joining(" "));
+
+        // When
+        List<String> chunks = chunker.split(text);
+
+        // Then
+        assertThat(chunks).hasSizeGreaterThan(1);
+        assertThat(chunks).allSatisfy(chunk ->
+        {
+            assertThat(TokenEstimator.estimate(chunk)).isLessThanOrEqualTo(20);
+            assertThat(chunk).startsWith("Sentence number").endsWith("prevention.");
+        });
+        assertThat(String.join(" ", chunks)).isEqualTo(text);
+    }
+
+    @Test
+    void shouldRepeatTheTailOfAChunkAtTheStartOfTheNextOne()
+    {
+        // Given
+        TextChunker chunker = new TextChunker(25, 12);
+        String text = """
+                First paragraph about sanctions screening.
+
+                Second paragraph about trusted bank accounts.
+
+                Third paragraph about fraud cases shared by the community.""";
+
+        // When
+        List<String> chunks = chunker.split(text);
+
+        // Then
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).endsWith("Second paragraph about trusted bank accounts.");
+        assertThat(chunks.get(1)).startsWith("Second paragraph about trusted bank accounts.\n\nThird paragraph");
+    }
+
+    @Test
+    void shouldCutWordsLongerThanTheLimit()
+    {
+        // Given
+        TextChunker chunker = new TextChunker(5, 1);
+        String word = "x".repeat(100);
+
+        // When
+        List<String> chunks = chunker.split(word);
+
+        // Then
+        assertThat(chunks).allSatisfy(chunk -> assertThat(TokenEstimator.estimate(chunk)).isLessThanOrEqualTo(5));
+        assertThat(String.join("", chunks)).isEqualTo(word);
+    }
+}
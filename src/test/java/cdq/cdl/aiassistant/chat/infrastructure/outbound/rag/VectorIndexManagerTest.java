@@ -0,0 +1,86 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class VectorIndexManagerTest
+{
+    private static final VectorStorage FULL = new VectorStorage("full", 768, 4);
+
+    @Test
+    void shouldDefineHnswIndexWithConfiguredParameters()
+    {
+        // Given
+        VectorIndexManager manager = new VectorIndexManager(null, null, FULL, "hnsw", 24, 128, 0);
+
+        // When
+        Optional<VectorIndexManager.IndexDefinition> definition = manager.definitionFor(1000);
+
+        // Then
+        assertThat(definition).hasValueSatisfying(index ->
+        {
+            assertThat(index.name()).isEqualTo("cdq_product_knowledge_embedding_hnsw_m24_efc128");
+            assertThat(index.ddl()).isEqualTo("CREATE INDEX CONCURRENTLY IF NOT EXISTS "
+                    + "cdq_product_knowledge_embedding_hnsw_m24_efc128 ON cdq_product_knowledge "
+                    + "USING hnsw (embedding vector_cosine_ops) WITH (m = 24, ef_construction = 128)");
+        });
+    }
+
+    @Test
+    void shouldDeriveIvfFlatListsFromRowCountUnlessConfigured()
+    {
+        // Given
+        VectorIndexManager auto = new VectorIndexManager(null, null, FULL, "ivfflat", 16, 64, 0);
+        VectorIndexManager fixed = new VectorIndexManager(null, null, FULL, "IVFFlat", 16, 64, 300);
+
+        // When / Then
+        assertThat(auto.definitionFor(500_000)).map(VectorIndexManager.IndexDefinition::name)
+                .hasValue("cdq_product_knowledge_embedding_ivfflat_l256");
+        assertThat(fixed.definitionFor(500_000)).map(VectorIndexManager.IndexDefinition::ddl)
+                .hasValueSatisfying(ddl -> assertThat(ddl).contains("USING ivfflat").endsWith("WITH (lists = 300)"));
+    }
+
+    @Test
+    void shouldNotDefineAnIndexForEmptyTableOrWhenDisabled()
+    {
+        // Given
+        VectorIndexManager hnsw = new VectorIndexManager(null, null, FULL, "hnsw", 16, 64, 0);
+        VectorIndexManager none = new VectorIndexManager(null, null, FULL, "none", 16, 64, 0);
+
+        // When / Then
+        assertThat(hnsw.definitionFor(0)).isEmpty();
+        assertThat(none.definitionFor(1000)).isEmpty();
+    }
+
+    @Test
+    void shouldIndexTheCompactRepresentationUnderItsOwnName()
+    {
+        // Given
+        VectorStorage binary = new VectorStorage("binary", 256, 4);
+        VectorIndexManager manager = new VectorIndexManager(null, null, binary, "hnsw", 16, 64, 0);
+
+        // When
+        Optional<VectorIndexManager.IndexDefinition> definition = manager.definitionFor(1000);
+
+        // Then
+        assertThat(definition).hasValueSatisfying(index ->
+        {
+            assertThat(index.name()).isEqualTo("cdq_product_knowledge_embedding_hnsw_m16_efc64_bit256");
+            assertThat(index.ddl()).contains(
+                    "USING hnsw ((binary_quantize(subvector(embedding, 1, 256))::bit(256)) bit_hamming_ops)");
+        });
+    }
+
+    @Test
+    void shouldGrowIvfFlatListsOnlyWhenTheTableAboutDoubles()
+    {
+        assertThat(VectorIndexManager.autoLists(200)).isEqualTo(1);
+        assertThat(VectorIndexManager.autoLists(130_000)).isEqualTo(128);
+        assertThat(VectorIndexManager.autoLists(250_000)).isEqualTo(128);
+        assertThat(VectorIndexManager.autoLists(260_000)).isEqualTo(256);
+        assertThat(VectorIndexManager.autoLists(4_000_000)).isEqualTo(1024);
+    }
+}
@@ -0,0 +1,64 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.rag;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class VectorStorageTest
+{
+    @Test
+    void shouldSearchFullVectorsDirectlyWithoutOverFetching()
+    {
+        // Given
+        VectorStorage storage = new VectorStorage("full", 768, 4);
+
+        // When
+        String sql = storage.nearestNeighboursSql("text, embedding");
+        Object[] args = storage.nearestNeighboursArgs("[1,2]", 20);
+
+        // Then
+        assertThat(storage.isCompressed()).isFalse();
+        assertThat(sql).contains("ORDER BY embedding <=> ?::vector");
+        assertThat(args).containsExactly("[1,2]", "[1,2]", 20, 20);
+    }
+
+    @Test
+    void shouldOrderByTruncatedHalfvecAndRescoreOverFetchedCandidates()
+    {
+        // Given
+        VectorStorage storage = new VectorStorage("halfvec", 256, 4);
+
+        // When
+        String sql = storage.nearestNeighboursSql("text, embedding");
+        Object[] args = storage.nearestNeighboursArgs("[1,2]", 20);
+
+        // Then
+        assertThat(sql)
+                .contains("ORDER BY subvector(embedding, 1, 256)::halfvec(256) <=> subvector(?::vector, 1, 256)::halfvec(256)")
+                .contains("SELECT text, embedding, embedding <=> ?::vector AS distance");
+        assertThat(args).containsExactly("[1,2]", "[1,2]", 80, 20);
+        assertThat(storage.indexColumn()).isEqualTo("(subvector(embedding, 1, 256)::halfvec(256)) halfvec_cosine_ops");
+    }
+
+    @Test
+    void shouldUseHammingDistanceForBinaryQuantization()
+    {
+        // Given
+        VectorStorage storage = new VectorStorage("binary", 768, 10);
+
+        // When
+        String sql = storage.nearestNeighboursSql("text, embedding");
+
+        // Then
+        assertThat(sql).contains("ORDER BY binary_quantize(embedding)::bit(768) <~> binary_quantize(?::vector)::bit(768)");
+        assertThat(storage.indexSuffix()).isEqualTo("_bit768");
+    }
+
+    @Test
+    void shouldRejectMoreDimensionsThanStored()
+    {
+        assertThatThrownBy(() -> new VectorStorage("halfvec", 1024, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("between 1 and 768");
+    }
+}
@@ -0,0 +1,207 @@
+package cdq.cdl.aiassistant.chat.infrastructure.outbound.weather;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import cdq.cdl.aiassistant.chat.domain.model.Temperature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TemperatureCacheTest
+{
+    private final TestClock clock = new TestClock();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMissesForTheSameCity() throws Exception
+    {
+        // Given
+        TemperatureCache cache = new TemperatureCache(Duration.ofMinutes(5), false, Duration.ZERO, 100, clock, Runnable::run, meterRegistry);
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        // When
+        List<Future<Temperature>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8))
+        {
+            results.add(executor.submit(() -> cache.get("Berlin", () ->
+            {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return new Temperature(21.5);
+            })));
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 0; i < 7; i++)
+            {
+                results.add(executor.submit(() -> cache.get("berlin ", () -> new Temperature(loads.incrementAndGet()))));
+            }
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            // Then
+            for (Future<Temperature> result : results)
+            {
+                assertThat(result.get(5, TimeUnit.SECONDS).celsius()).isEqualTo(21.5);
+            }
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldReloadTemperatureOnceFreshnessWindowHasPassed()
+    {
+        // Given
+        TemperatureCache cache = new TemperatureCache(Duration.ofMinutes(5), false, Duration.ZERO, 100, clock, Runnable::run, meterRegistry);
+        cache.get("Berlin", () -> new Temperature(20.0));
+
+        // When
+        clock.advance(Duration.ofMinutes(4));
+        Temperature cached = cache.get("Berlin", () -> new Temperature(25.0));
+        clock.advance(Duration.ofMinutes(2));
+        Temperature reloaded = cache.get("Berlin", () -> new Temperature(15.0));
+
+        // Then
+        assertThat(cached.celsius()).isEqualTo(20.0);
+        assertThat(reloaded.celsius()).isEqualTo(15.0);
+    }
+
+    @Test
+    void shouldServeStaleTemperatureWhileRevalidating()
+    {
+        // Given
+        List<Runnable> refreshes = new ArrayList<>();
+        TemperatureCache cache = new TemperatureCache(Duration.ofMinutes(5), true, Duration.ofMinutes(30), 100, clock, refreshes::add, meterRegistry);
+        cache.get("Berlin", () -> new Temperature(20.0));
+        clock.advance(Duration.ofMinutes(10));
+
+        // When
+        Temperature stale = cache.get("Berlin", () -> new Temperature(18.0));
+        refreshes.forEach(Runnable::run);
+        Temperature refreshed = cache.get("Berlin", () -> new Temperature(99.0));
+
+        // Then
+        assertThat(stale.celsius()).isEqualTo(20.0);
+        assertThat(refreshes).hasSize(1);
+        assertThat(refreshed.celsius()).isEqualTo(18.0);
+    }
+
+    @Test
+    void shouldCountFailedBackgroundRefreshAndKeepServingTheStaleTemperature()
+    {
+        // Given
+        List<Runnable> refreshes = new ArrayList<>();
+        TemperatureCache cache = new TemperatureCache(Duration.ofMinutes(5), true, Duration.ofMinutes(30), 100, clock, refreshes::add, meterRegistry);
+        cache.get("Berlin", () -> new Temperature(20.0));
+        clock.advance(Duration.ofMinutes(10));
+
+        // When
+        cache.get("Berlin", () ->
+        {
+            throw new IllegalStateException("Weather service unavailable");
+        });
+        refreshes.forEach(Runnable::run);
+        Temperature stale = cache.get("Berlin", () -> new Temperature(99.0));
+
+        // Then
+        assertThat(meterRegistry.counter("weather.cache.refreshes", "result", "failure").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("weather.cache.refreshes", "result", "success").count()).isZero();
+        assertThat(stale.celsius()).isEqualTo(20.0);
+        assertThat(refreshes).hasSize(2);
+    }
+
+    @Test
+    void shouldPropagateLoaderFailureAndRetryOnNextCall()
+    {
+        // Given
+        TemperatureCache cache = new TemperatureCache(Duration.ofMinutes(5), false, Duration.ZERO, 100, clock, Runnable::run, meterRegistry);
+
+        // When/Then
+        assertThatThrownBy(() -> cache.get("Berlin", () ->
+        {
+            throw new IllegalStateException("MCP unavailable");
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("MCP unavailable");
+        assertThat(cache.get("Berlin", () -> new Temperature(20.0)).celsius()).isEqualTo(20.0);
+    }
+
+    @Test
+    void shouldDropExpiredAndThenOldestCitiesOnceFull()
+    {
+        // Given
+        TemperatureCache cache = new TemperatureCache(Duration.ofMinutes(5), false, Duration.ZERO, 10, clock, Runnable::run, meterRegistry);
+        cache.get("Berlin", () -> new Temperature(20.0));
+        clock.advance(Duration.ofMinutes(10));
+        for (int i = 0; i < 10; i++)
+        {
+            cache.get("City " + i, () -> new Temperature(10.0));
+            clock.advance(Duration.ofSeconds(1));
+        }
+
+        // When
+        Temperature newest = cache.get("City 9", () -> new Temperature(99.0));
+        Temperature evicted = cache.get("City 0", () -> new Temperature(11.0));
+
+        // Then
+        assertThat(newest.celsius()).isEqualTo(10.0);
+        assertThat(evicted.celsius()).isEqualTo(11.0);
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class TestClock extends Clock
+    {
+        private Instant now = Instant.parse("2026-01-01T10:00:00Z");
+
+        void advance(Duration duration)
+        {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone()
+        {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone)
+        {
+            return this;
+        }
+
+        @Override
+        public Instant instant()
+        {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cdq.cdl.aiassistant.shared.bulkhead;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BulkheadStreamingChatLanguageModelTest
+{
+    private final List<Throwable> errors = new ArrayList<>();
+
+    @Test
+    void shouldReportRejectedPermitToTheHandlerInsteadOfThrowing()
+    {
+        // Given
+        LlmBulkhead bulkhead = new LlmBulkhead(1, 0, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        bulkhead.acquire();
+        StreamingChatLanguageModel model = new BulkheadStreamingChatLanguageModel(completingModel(), bulkhead);
+
+        // When
+        model.generate(List.of(UserMessage.from("Capital of Germany?")), recordingHandler());
+
+        // Then
+        assertThat(errors).singleElement().isInstanceOf(AiCapacityExceededException.class);
+    }
+
+    @Test
+    void shouldReleasePermitOnceTheStreamCompletes()
+    {
+        // Given
+        LlmBulkhead bulkhead = new LlmBulkhead(1, 0, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        StreamingChatLanguageModel model = new BulkheadStreamingChatLanguageModel(completingModel(), bulkhead);
+
+        // When
+        model.generate(List.of(UserMessage.from("Capital of Germany?")), recordingHandler());
+        model.generate(List.of(UserMessage.from("Capital of France?")), recordingHandler());
+
+        // Then
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    void shouldStartQueuedCallOnceAPermitIsReleasedWithoutBlockingTheCaller()
+    {
+        // Given
+        LlmBulkhead bulkhead = new LlmBulkhead(1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        bulkhead.acquire();
+        List<String> answers = new ArrayList<>();
+        StreamingChatLanguageModel model = new BulkheadStreamingChatLanguageModel(completingModel(), bulkhead);
+
+        // When
+        model.generate(List.of(UserMessage.from("Capital of Germany?")), new StreamingResponseHandler<>()
+        {
+            @Override
+            public void onNext(String token)
+            {
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response)
+            {
+                answers.add(response.content().text());
+            }
+
+            @Override
+            public void onError(Throwable error)
+            {
+                errors.add(error);
+            }
+        });
+        List<String> answeredBeforeRelease = List.copyOf(answers);
+        bulkhead.release();
+
+        // Then
+        assertThat(answeredBeforeRelease).isEmpty();
+        assertThat(answers).containsExactly("Berlin.");
+        assertThat(errors).isEmpty();
+        assertThat(bulkhead.activeCalls()).isZero();
+    }
+
+    private static StreamingChatLanguageModel completingModel()
+    {
+        return new StreamingChatLanguageModel()
+        {
+            @Override
+            public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler)
+            {
+                handler.onComplete(Response.from(AiMessage.from("Berlin.")));
+            }
+        };
+    }
+
+    private StreamingResponseHandler<AiMessage> recordingHandler()
+    {
+        return new StreamingResponseHandler<>()
+        {
+            @Override
+            public void onNext(String token)
+            {
+            }
+
+            @Override
+            public void onError(Throwable error)
+            {
+                errors.add(error);
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package cdq.cdl.aiassistant.shared.bulkhead;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import cdq.cdl.aiassistant.chat.domain.exception.AiCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LlmBulkheadTest
+{
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldRejectImmediatelyWhenWaitQueueIsFull()
+    {
+        // Given
+        LlmBulkhead bulkhead = new LlmBulkhead(1, 0, Duration.ofSeconds(10), meterRegistry);
+        bulkhead.acquire();
+
+        // When/Then
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOf(AiCapacityExceededException.class)
+                .hasMessageContaining("at capacity");
+        assertThat(meterRegistry.counter("llm.bulkhead.rejections", "reason", "queue_full").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldTimeOutWhenNoPermitIsReleasedInTime()
+    {
+        // Given
+        LlmBulkhead bulkhead = new LlmBulkhead(1, 1, Duration.ofMillis(50), meterRegistry);
+        bulkhead.acquire();
+
+        // When/Then
+        assertThatThrownBy(bulkhead::acquire)
+                .isInstanceOf(AiCapacityExceededException.class);
+        assertThat(bulkhead.waitingCalls()).isZero();
+    }
+
+    @Test
+    void shouldLetWaitingCallProceedOncePermitIsReleased() throws InterruptedException
+    {
+        // Given
+        LlmBulkhead bulkhead = new LlmBulkhead(1, 1, Duration.ofSeconds(5), meterRegistry);
+        bulkhead.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+
+        // When
+        Thread waiter = Thread.ofVirtual().start(() ->
+        {
+            bulkhead.acquire();
+            acquired.countDown();
+        });
+        Thread.sleep(50);
+        bulkhead.release();
+
+        // Then
+        assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+        assertThat(bulkhead.activeCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldHandReleasedPermitToTheOldestAsyncWaiter()
+    {
+        // Given
+        LlmBulkhead bulkhead = new LlmBulkhead(1, 2, Duration.ofSeconds(5), meterRegistry);
+        bulkhead.acquire();
+        CompletableFuture<Void> first = bulkhead.acquireAsync();
+        CompletableFuture<Void> second = bulkhead.acquireAsync();
+
+        // When
+        bulkhead.release();
+
+        // Then
+        assertThat(first).isCompleted();
+        assertThat(second).isNotDone();
+        assertThat(bulkhead.activeCalls()).isEqualTo(1);
+        assertThat(bulkhead.waitingCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipCancelledAsyncWaiter()
+    {
+        // Given
+        LlmBulkhead bulkhead = new LlmBulkhead(1, 2, Duration.ofSeconds(5), meterRegistry);
+        bulkhead.acquire();
+        CompletableFuture<Void> cancelled = bulkhead.acquireAsync();
+        CompletableFuture<Void> waiting = bulkhead.acquireAsync();
+
+        // When
+        cancelled.cancel(false);
+        bulkhead.release();
+
+        // Then
+        assertThat(waiting).isCompleted();
+        assertThat(bulkhead.waitingCalls()).isZero();
+    }
+}
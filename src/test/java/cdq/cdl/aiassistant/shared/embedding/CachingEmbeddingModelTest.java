@@ -0,0 +1,100 @@
+package cdq.cdl.aiassistant.shared.embedding;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CachingEmbeddingModelTest
+{
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private EmbeddingModel delegate;
+
+    @BeforeEach
+    void setUp()
+    {
+        meterRegistry = new SimpleMeterRegistry();
+        delegate = segments ->
+        {
+            delegateCalls.addAndGet(segments.size());
+            return Response.from(segments.stream()
+                    .map(segment -> Embedding.from(new float[] {segment.text().length(), 1.0f}))
+                    .toList());
+        };
+    }
+
+    @Test
+    void shouldReuseEmbeddingForSameNormalizedQuery()
+    {
+        // Given
+        CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, 100, 1_000_000, meterRegistry);
+
+        // When
+        Embedding first = model.embed("fraud detection").content();
+        Embedding second = model.embed("  fraud   detection ").content();
+
+        // Then
+        assertThat(second.vector()).containsExactly(first.vector());
+        assertThat(delegateCalls).hasValue(1);
+        assertThat(model.hitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntryWhenEntryBudgetIsExceeded()
+    {
+        // Given
+        CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, 2, 1_000_000, meterRegistry);
+        model.embed("first");
+        model.embed("second");
+        model.embed("first");
+
+        // When
+        model.embed("third");
+        model.embed("first");
+
+        // Then
+        assertThat(model.size()).isEqualTo(2);
+        assertThat(delegateCalls).hasValue(3);
+        assertThat(meterRegistry.counter("embedding.cache.evictions").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRespectByteBudget()
+    {
+        // Given
+        CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, 100, 250, meterRegistry);
+
+        // When
+        model.embed("a");
+        model.embed("b");
+        model.embed("c");
+
+        // Then
+        assertThat(model.bytes()).isLessThanOrEqualTo(250);
+        assertThat(model.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCacheBulkEmbeddings()
+    {
+        // Given
+        CachingEmbeddingModel model = new CachingEmbeddingModel(delegate, 100, 1_000_000, meterRegistry);
+
+        // When
+        model.embedAll(List.of(TextSegment.from("chunk one"), TextSegment.from("chunk two")));
+
+        // Then
+        assertThat(model.size()).isZero();
+        assertThat(delegateCalls).hasValue(2);
+    }
+}
@@ -0,0 +1,89 @@
+package cdq.cdl.aiassistant.shared.metrics;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MeteredChatLanguageModelTest
+{
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LlmMetrics metrics = new LlmMetrics(meterRegistry, "qwen2.5:1.5b");
+
+    @Test
+    void shouldTimeCallAndCountTokens()
+    {
+        // Given
+        ChatLanguageModel model = new MeteredChatLanguageModel(
+                messages -> Response.from(AiMessage.from("Berlin"), new TokenUsage(120, 8)), metrics);
+
+        // When
+        model.generate(List.<ChatMessage>of(UserMessage.from("Capital of Germany?")));
+
+        // Then
+        assertThat(meterRegistry.timer("llm.calls", "model", "qwen2.5:1.5b", "operation", "generate", "outcome", "success").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter("llm.tokens", "model", "qwen2.5:1.5b", "type", "prompt").count()).isEqualTo(120.0);
+        assertThat(meterRegistry.counter("llm.tokens", "model", "qwen2.5:1.5b", "type", "completion").count()).isEqualTo(8.0);
+    }
+
+    @Test
+    void shouldRecordFailedCallAsError()
+    {
+        // Given
+        ChatLanguageModel model = new MeteredChatLanguageModel(messages ->
+        {
+            throw new IllegalStateException("Ollama is down");
+        }, metrics);
+
+        // When/Then
+        assertThatThrownBy(() -> model.generate(List.<ChatMessage>of(UserMessage.from("Hi"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.timer("llm.calls", "model", "qwen2.5:1.5b", "operation", "generate", "outcome", "error").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeStreamingCallUntilItCompletes()
+    {
+        // Given
+        StreamingChatLanguageModel model = new MeteredStreamingChatLanguageModel(
+                (messages, handler) ->
+                {
+                    handler.onNext("Ber");
+                    handler.onNext("lin");
+                    handler.onComplete(Response.from(AiMessage.from("Berlin"), new TokenUsage(100, 2)));
+                },
+                metrics);
+
+        // When
+        model.generate(List.<ChatMessage>of(UserMessage.from("Capital of Germany?")), new StreamingResponseHandler<>()
+        {
+            @Override
+            public void onNext(String token)
+            {
+            }
+
+            @Override
+            public void onError(Throwable error)
+            {
+            }
+        });
+
+        // Then
+        assertThat(meterRegistry.timer("llm.calls", "model", "qwen2.5:1.5b", "operation", "stream", "outcome", "success").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.counter("llm.tokens", "model", "qwen2.5:1.5b", "type", "completion").count()).isEqualTo(2.0);
+    }
+}